@@ -0,0 +1,88 @@
+package com.trade.comparison.benchmark;
+
+import com.trade.comparison.model.DocumentComparison;
+import com.trade.comparison.model.TermSheet;
+import com.trade.comparison.model.TradeAgreement;
+import com.trade.comparison.service.AIDocumentService;
+import com.trade.comparison.service.TypedFieldComparator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Field comparison and JSON serialization of a sample trade agreement against its term sheet.
+ * Documents are extracted once in setup; each comparison starts from fresh copies of the fields,
+ * since NLP enhancement adds fields to the documents it compares.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ComparisonBenchmark {
+
+    private AIDocumentService aiDocumentService;
+    private TypedFieldComparator typedFieldComparator;
+    private String agreementPath;
+    private String termSheetPath;
+    private Map<String, String> agreementFields;
+    private Map<String, String> termSheetFields;
+    private DocumentComparison comparison;
+
+    @Setup
+    public void setUp() throws IOException {
+        Path directory = Files.createTempDirectory("comparison-benchmark");
+        agreementPath = SampleDocuments.writeTradeAgreementPdf(directory.resolve("agreement.pdf"),
+                "trade_agreement_003.txt", 1, false).toString();
+        termSheetPath = SampleDocuments.writeTermSheetXlsx(directory.resolve("term_sheet.xlsx"),
+                "term_sheet_003.txt", 0, 0).toString();
+
+        TradeAgreement tradeAgreement = new TradeAgreement(agreementPath);
+        tradeAgreement.extractFields();
+        agreementFields = tradeAgreement.getExtractedFields();
+        TermSheet termSheet = new TermSheet(termSheetPath);
+        termSheet.extractFields();
+        termSheetFields = termSheet.getExtractedFields();
+
+        aiDocumentService = new AIDocumentService();
+        typedFieldComparator = new TypedFieldComparator();
+        comparison = compare();
+    }
+
+    @Benchmark
+    public DocumentComparison compare() {
+        TradeAgreement tradeAgreement = new TradeAgreement(agreementPath);
+        tradeAgreement.setExtractedFields(new HashMap<>(agreementFields));
+        TermSheet termSheet = new TermSheet(termSheetPath);
+        termSheet.setExtractedFields(new HashMap<>(termSheetFields));
+
+        DocumentComparison documentComparison = new DocumentComparison(tradeAgreement, termSheet);
+        documentComparison.setAiService(aiDocumentService);
+        documentComparison.setTypedFieldComparator(typedFieldComparator);
+        documentComparison.compare();
+        return documentComparison;
+    }
+
+    @Benchmark
+    public String toJson() {
+        return comparison.toJson();
+    }
+
+    @Benchmark
+    public void writeJson(Blackhole blackhole) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(1024);
+        comparison.writeJson(out, false);
+        blackhole.consume(out);
+    }
+}
\ No newline at end of file
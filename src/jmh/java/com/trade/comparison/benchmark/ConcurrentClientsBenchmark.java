@@ -0,0 +1,98 @@
+package com.trade.comparison.benchmark;
+
+import com.trade.comparison.model.DocumentComparison;
+import com.trade.comparison.service.DocumentService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A wave of 50, 200 or 1000 concurrent comparison requests, served either by a pool of 200 platform
+ * threads (Tomcat's default request pool) or by one virtual thread per request. Each wave starts with
+ * empty caches, so every request loads its documents from disk through the per-share limiter.
+ * Throughput is {@code clients} divided by the reported time per wave.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ConcurrentClientsBenchmark {
+
+    private static final int DOCUMENT_PAIRS = 50;
+    private static final int PLATFORM_THREADS = 200;
+
+    @Param({"50", "200", "1000"})
+    public int clients;
+
+    @Param({"platform", "virtual"})
+    public String threads;
+
+    private Path directory;
+    private final List<String> agreementPaths = new ArrayList<>();
+    private final List<String> termSheetPaths = new ArrayList<>();
+    private ExecutorService executor;
+    private DocumentService documentService;
+
+    @Setup(Level.Trial)
+    public void setUpDocuments() throws IOException {
+        directory = Files.createTempDirectory("concurrency-benchmark");
+        for (int i = 0; i < DOCUMENT_PAIRS; i++) {
+            agreementPaths.add(SampleDocuments.writeTradeAgreementPdf(directory.resolve("agreement" + i + ".pdf"),
+                    "trade_agreement_001.txt", 3, false).toString());
+            termSheetPaths.add(SampleDocuments.writeTermSheetXlsx(directory.resolve("term_sheet" + i + ".xlsx"),
+                    "term_sheet_001.txt", 0, 0).toString());
+        }
+        executor = "virtual".equals(threads)
+                ? Executors.newVirtualThreadPerTaskExecutor()
+                : Executors.newFixedThreadPool(PLATFORM_THREADS);
+    }
+
+    @Setup(Level.Invocation)
+    public void setUpService() {
+        documentService = new DocumentService();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        executor.shutdownNow();
+        try (var files = Files.list(directory)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                Files.deleteIfExists(file);
+            }
+        }
+        Files.deleteIfExists(directory);
+    }
+
+    @Benchmark
+    public int compareWave() throws InterruptedException, ExecutionException {
+        List<Future<DocumentComparison>> requests = new ArrayList<>(clients);
+        for (int i = 0; i < clients; i++) {
+            String agreementPath = agreementPaths.get(i % DOCUMENT_PAIRS);
+            String termSheetPath = termSheetPaths.get(i % DOCUMENT_PAIRS);
+            requests.add(executor.submit(() -> documentService.compareDocuments(agreementPath, termSheetPath)));
+        }
+        int completed = 0;
+        for (Future<DocumentComparison> request : requests) {
+            request.get();
+            completed++;
+        }
+        return completed;
+    }
+}
\ No newline at end of file
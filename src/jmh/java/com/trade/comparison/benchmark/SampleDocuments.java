@@ -0,0 +1,172 @@
+package com.trade.comparison.benchmark;
+
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Generates benchmark inputs from the text templates in {@code samples/}:
+ * trade agreement PDFs of a given page count and term sheet workbooks of a given size.
+ * The samples folder is taken from the {@code trade.comparison.samples.dir} system property.
+ */
+final class SampleDocuments {
+
+    private static final int LINES_PER_PAGE = 50;
+    private static final float FONT_SIZE = 10;
+    private static final float LEADING = 14;
+    private static final float MARGIN = 50;
+
+    private static final Pattern FIELD_LABEL = Pattern.compile(
+            "trade id|counterparty|trade date|settlement date|currency|notional amount|interest rate|maturity date",
+            Pattern.CASE_INSENSITIVE);
+
+    private SampleDocuments() {
+    }
+
+    static Path samplesDir() {
+        return Paths.get(System.getProperty("trade.comparison.samples.dir", "samples"));
+    }
+
+    /**
+     * Lines of a sample trade agreement, e.g. {@code trade_agreement_001.txt}
+     */
+    static List<String> tradeAgreementLines(String sampleName) throws IOException {
+        return Files.readAllLines(samplesDir().resolve("trade-agreements").resolve(sampleName), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Field/value rows of a sample term sheet, e.g. {@code term_sheet_001.txt}: the comma-separated
+     * lines between the introduction and the Excel instructions
+     */
+    static List<String[]> termSheetRows(String sampleName) throws IOException {
+        List<String[]> rows = new ArrayList<>();
+        for (String line : Files.readAllLines(samplesDir().resolve("term-sheets").resolve(sampleName), StandardCharsets.UTF_8)) {
+            if (line.startsWith("Instructions")) {
+                break;
+            }
+            int comma = line.indexOf(',');
+            if (comma > 0 && !line.startsWith("This file") && !line.startsWith("Each row")) {
+                rows.add(new String[] {line.substring(0, comma), line.substring(comma + 1)});
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * Writes a trade agreement PDF of the given number of pages.
+     * The sample agreement is followed by its terms and conditions repeated as filler; with
+     * {@code fieldsOnLastPage} the agreement text is moved to the last page instead, which is the
+     * worst case for page-by-page extraction.
+     */
+    static Path writeTradeAgreementPdf(Path target, String sampleName, int pages, boolean fieldsOnLastPage)
+            throws IOException {
+        List<String> sample = tradeAgreementLines(sampleName);
+        List<String> filler = new ArrayList<>();
+        boolean inTerms = false;
+        for (String line : sample) {
+            inTerms |= line.startsWith("TERMS AND CONDITIONS");
+            // Filler must not repeat the field labels, or extraction would pick values up from it
+            if (inTerms && !line.contains(":") && !FIELD_LABEL.matcher(line).find()) {
+                filler.add(line);
+            }
+        }
+
+        List<List<String>> pageLines = new ArrayList<>();
+        for (int page = 0; page < pages; page++) {
+            List<String> lines = new ArrayList<>(LINES_PER_PAGE);
+            for (int i = 0; i < LINES_PER_PAGE; i++) {
+                lines.add(filler.get((page * LINES_PER_PAGE + i) % filler.size()));
+            }
+            pageLines.add(lines);
+        }
+        List<String> agreement = sample.size() > LINES_PER_PAGE ? sample.subList(0, LINES_PER_PAGE) : sample;
+        pageLines.set(fieldsOnLastPage ? pages - 1 : 0, agreement);
+
+        try (PDDocument document = new PDDocument()) {
+            for (List<String> lines : pageLines) {
+                PDPage page = new PDPage(PDRectangle.LETTER);
+                document.addPage(page);
+                try (PDPageContentStream content = new PDPageContentStream(document, page)) {
+                    content.beginText();
+                    content.setFont(PDType1Font.HELVETICA, FONT_SIZE);
+                    content.setLeading(LEADING);
+                    content.newLineAtOffset(MARGIN, page.getMediaBox().getHeight() - MARGIN);
+                    for (String line : lines) {
+                        content.showText(toWinAnsi(line));
+                        content.newLine();
+                    }
+                    content.endText();
+                }
+            }
+            document.save(target.toFile());
+        }
+        return target;
+    }
+
+    /**
+     * Writes a term sheet workbook with the sample's rows on the first sheet, followed by
+     * {@code extraRows} additional key/value rows, and optionally a hidden pricing sheet of
+     * {@code pricingRows} rows that extraction should never touch
+     */
+    static Path writeTermSheetXlsx(Path target, String sampleName, int extraRows, int pricingRows) throws IOException {
+        List<String[]> rows = termSheetRows(sampleName);
+        try (SXSSFWorkbook workbook = new SXSSFWorkbook(1000)) {
+            Sheet sheet = workbook.createSheet("Term Sheet");
+            int rowIndex = 0;
+            for (String[] fields : rows) {
+                Row row = sheet.createRow(rowIndex++);
+                row.createCell(0).setCellValue(fields[0]);
+                row.createCell(1).setCellValue(fields[1]);
+            }
+            for (int i = 0; i < extraRows; i++) {
+                Row row = sheet.createRow(rowIndex++);
+                row.createCell(0).setCellValue("Schedule Line " + i);
+                row.createCell(1).setCellValue(1_000_000.0 + i);
+            }
+
+            if (pricingRows > 0) {
+                Sheet pricing = workbook.createSheet("Pricing");
+                for (int i = 0; i < pricingRows; i++) {
+                    Row row = pricing.createRow(i);
+                    for (int column = 0; column < 10; column++) {
+                        row.createCell(column).setCellValue(i * 10.0 + column);
+                    }
+                }
+                workbook.setSheetHidden(1, true);
+            }
+
+            try (OutputStream out = Files.newOutputStream(target)) {
+                workbook.write(out);
+            }
+            workbook.dispose();
+        }
+        return target;
+    }
+
+    /**
+     * The standard Type 1 fonts only cover WinAnsi; replace anything else (and tabs) so showText does not fail
+     */
+    private static String toWinAnsi(String line) {
+        StringBuilder out = new StringBuilder(line.length());
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            out.append(c == '\t' ? ' ' : c < 0x20 || c > 0x7e ? '?' : c);
+        }
+        return out.toString();
+    }
+}
\ No newline at end of file
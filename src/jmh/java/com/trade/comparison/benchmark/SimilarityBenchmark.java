@@ -0,0 +1,60 @@
+package com.trade.comparison.benchmark;
+
+import com.trade.comparison.service.AIDocumentService;
+import com.trade.comparison.service.TieredFieldMatcher;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Semantic similarity of field values and NLP entity extraction over a sample agreement
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SimilarityBenchmark {
+
+    private AIDocumentService aiDocumentService;
+    private String agreementText;
+
+    @Setup
+    public void setUp() throws IOException {
+        aiDocumentService = new AIDocumentService();
+        agreementText = String.join("\n", SampleDocuments.tradeAgreementLines("trade_agreement_001.txt"));
+    }
+
+    @Benchmark
+    public double counterpartySimilarity() {
+        return aiDocumentService.calculateSemanticSimilarity("counterparty",
+                "Acme Financial Services", "ACME Financial Services Ltd.");
+    }
+
+    @Benchmark
+    public double notionalAmountSimilarity() {
+        return aiDocumentService.calculateSemanticSimilarity("notionalAmount", "$5,000,000.00", "5000000");
+    }
+
+    @Benchmark
+    public double untypedSimilarity() {
+        return aiDocumentService.calculateSemanticSimilarity("Standard Settlement Instructions Apply",
+                "standard settlement instructions");
+    }
+
+    @Benchmark
+    public boolean exactTierMatch() {
+        return TieredFieldMatcher.equalsIgnoringFormatting("USD 5,000,000.00", "usd  5000000.00");
+    }
+
+    @Benchmark
+    public Map<String, String> extractEntitiesWithNLP() {
+        return aiDocumentService.extractEntitiesWithNLP(agreementText);
+    }
+}
\ No newline at end of file
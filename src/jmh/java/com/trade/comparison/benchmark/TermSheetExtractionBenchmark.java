@@ -0,0 +1,55 @@
+package com.trade.comparison.benchmark;
+
+import com.trade.comparison.model.TermSheet;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Field extraction from term sheet workbooks: a small one holding just the sample rows, and a
+ * large one with a long schedule on the first sheet and a hidden 50,000-row pricing sheet
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class TermSheetExtractionBenchmark {
+
+    @Param({"small", "large"})
+    public String size;
+
+    private Path directory;
+    private String filePath;
+
+    @Setup
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("term-sheet-benchmark");
+        boolean large = "large".equals(size);
+        filePath = SampleDocuments.writeTermSheetXlsx(directory.resolve("term_sheet.xlsx"),
+                "term_sheet_003.txt", large ? 5_000 : 0, large ? 50_000 : 0).toString();
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(directory.resolve("term_sheet.xlsx"));
+        Files.deleteIfExists(directory);
+    }
+
+    @Benchmark
+    public Map<String, String> extractFields() {
+        TermSheet termSheet = new TermSheet(filePath);
+        termSheet.extractFields();
+        return termSheet.getExtractedFields();
+    }
+}
\ No newline at end of file
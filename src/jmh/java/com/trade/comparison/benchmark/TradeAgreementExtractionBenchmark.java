@@ -0,0 +1,57 @@
+package com.trade.comparison.benchmark;
+
+import com.trade.comparison.model.TradeAgreement;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Field extraction from trade agreement PDFs of 1, 10 and 100 pages, with the fields on the
+ * first page (the usual layout) or on the last page (every page has to be stripped)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class TradeAgreementExtractionBenchmark {
+
+    @Param({"1", "10", "100"})
+    public int pages;
+
+    @Param({"first", "last"})
+    public String fieldPage;
+
+    private Path directory;
+    private String filePath;
+
+    @Setup
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("agreement-benchmark");
+        filePath = SampleDocuments.writeTradeAgreementPdf(directory.resolve("agreement.pdf"),
+                "trade_agreement_001.txt", pages, "last".equals(fieldPage)).toString();
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(directory.resolve("agreement.pdf"));
+        Files.deleteIfExists(directory);
+    }
+
+    @Benchmark
+    public Map<String, String> extractFields() {
+        TradeAgreement tradeAgreement = new TradeAgreement(filePath);
+        tradeAgreement.extractFields();
+        return tradeAgreement.getExtractedFields();
+    }
+}
\ No newline at end of file
@@ -1,15 +1,25 @@
 package com.trade.comparison.controller;
 
+import com.trade.comparison.model.ComparisonJob;
 import com.trade.comparison.model.DocumentComparison;
+import com.trade.comparison.model.ReconciliationSummary;
+import com.trade.comparison.service.ComparisonJobService;
+import com.trade.comparison.service.DocumentIngestionService;
 import com.trade.comparison.service.DocumentService;
+import com.trade.comparison.service.TradeIdIndex;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
 
 /**
  * REST controller for document comparison operations
@@ -20,10 +30,21 @@ import java.util.Map;
 public class DocumentComparisonController {
     
     private final DocumentService documentService;
+    private final DocumentIngestionService documentIngestionService;
+    private final ComparisonJobService comparisonJobService;
+    private final TradeIdIndex tradeIdIndex;
+    
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
     
     @Autowired
-    public DocumentComparisonController(DocumentService documentService) {
+    public DocumentComparisonController(DocumentService documentService,
+                                        DocumentIngestionService documentIngestionService,
+                                        ComparisonJobService comparisonJobService,
+                                        TradeIdIndex tradeIdIndex) {
         this.documentService = documentService;
+        this.documentIngestionService = documentIngestionService;
+        this.comparisonJobService = comparisonJobService;
+        this.tradeIdIndex = tradeIdIndex;
     }
     
     /**
@@ -67,19 +88,247 @@ public class DocumentComparisonController {
      * 
      * @param tradeAgreementPath Path to the trade agreement file
      * @param termSheetPath Path to the term sheet file
-     * @return Comparison results in JSON format
+     * @param pretty Whether to indent the JSON output
+     * @return Comparison results in JSON format, streamed to the response
      */
     @GetMapping("/compare")
     public ResponseEntity<?> compareDocuments(
             @RequestParam String tradeAgreementPath,
-            @RequestParam String termSheetPath) {
+            @RequestParam String termSheetPath,
+            @RequestParam(defaultValue = "false") boolean pretty) {
         try {
             DocumentComparison comparison = documentService.compareDocuments(tradeAgreementPath, termSheetPath);
-            return ResponseEntity.ok(comparison.toJson());
+            StreamingResponseBody body = out -> comparison.writeJson(out, pretty);
+            return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
         } catch (IOException e) {
             Map<String, String> error = new HashMap<>();
             error.put("error", "Failed to compare documents: " + e.getMessage());
             return ResponseEntity.badRequest().body(error);
         }
     }
+    
+    /**
+     * Compare the trade agreement and term sheet of a trade, paired through the trade ID index
+     * 
+     * @param tradeId Trade ID of the documents
+     * @param pretty Whether to indent the JSON output
+     * @return Comparison results in JSON format; 404 if the trade is not indexed on both sides,
+     *         409 if either side has more than one document
+     */
+    @GetMapping(value = "/compare", params = "tradeId")
+    public ResponseEntity<?> compareByTradeId(
+            @RequestParam String tradeId,
+            @RequestParam(defaultValue = "false") boolean pretty) {
+        TradeIdIndex.TradeEntry trade = tradeIdIndex.get(tradeId);
+        if (trade == null || trade.getTradeAgreements().isEmpty() || trade.getTermSheets().isEmpty()) {
+            Map<String, Object> error = new HashMap<>();
+            error.put("error", "No trade agreement and term sheet indexed for trade ID: " + tradeId);
+            if (trade != null) {
+                error.put("trade", trade.toMap());
+            }
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(error);
+        }
+        if (!trade.isPaired()) {
+            Map<String, Object> error = new HashMap<>();
+            error.put("error", (trade.hasConflicts() ? "Conflicting" : "Duplicate") + " documents for trade ID: " + tradeId);
+            error.put("trade", trade.toMap());
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(error);
+        }
+        return compareDocuments(trade.getTradeAgreements().get(0).getPath(), trade.getTermSheets().get(0).getPath(), pretty);
+    }
+    
+    /**
+     * Get the documents indexed for a trade and whether they pair up
+     * 
+     * @param tradeId Trade ID
+     * @return Pairing status and documents on each side; 404 if the trade is not indexed
+     */
+    @GetMapping("/trades/{tradeId}")
+    public ResponseEntity<?> getTrade(@PathVariable String tradeId) {
+        TradeIdIndex.TradeEntry trade = tradeIdIndex.get(tradeId);
+        if (trade == null) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", "Trade ID not indexed: " + tradeId);
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(error);
+        }
+        return ResponseEntity.ok(trade.toMap());
+    }
+    
+    /**
+     * List trades with duplicate or conflicting documents
+     * 
+     * @return Trades that cannot be paired automatically
+     */
+    @GetMapping("/trades/issues")
+    public ResponseEntity<?> getTradesWithIssues() {
+        List<Map<String, Object>> issues = new ArrayList<>();
+        for (TradeIdIndex.TradeEntry trade : tradeIdIndex.getTradesWithIssues()) {
+            issues.add(trade.toMap());
+        }
+        return ResponseEntity.ok(issues);
+    }
+    
+    /**
+     * Reconcile all trade agreements in a folder against all term sheets in another folder,
+     * pairing documents by trade ID
+     * 
+     * @param tradeAgreementFolder Path to the trade agreements folder
+     * @param termSheetFolder Path to the term sheets folder
+     * @param pretty Whether to indent the JSON output
+     * @return Reconciliation summary in JSON format, streamed to the response
+     */
+    @GetMapping("/reconcile")
+    public ResponseEntity<?> reconcileFolders(
+            @RequestParam String tradeAgreementFolder,
+            @RequestParam String termSheetFolder,
+            @RequestParam(defaultValue = "false") boolean pretty) {
+        try {
+            ReconciliationSummary summary = documentService.reconcileFolders(tradeAgreementFolder, termSheetFolder);
+            StreamingResponseBody body = out -> summary.writeJson(out, pretty);
+            return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
+        } catch (IOException e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", "Failed to reconcile folders: " + e.getMessage());
+            return ResponseEntity.badRequest().body(error);
+        }
+    }
+    
+    /**
+     * Get hit/miss/eviction metrics for the extracted-field cache
+     * 
+     * @return Cache statistics
+     */
+    @GetMapping("/cache/stats")
+    public ResponseEntity<?> getExtractionCacheStats() {
+        return ResponseEntity.ok(documentService.getExtractionCacheStats());
+    }
+    
+    /**
+     * Get permits in use and callers waiting for each network share
+     * 
+     * @return Share access statistics
+     */
+    @GetMapping("/shares/stats")
+    public ResponseEntity<?> getShareAccessStats() {
+        return ResponseEntity.ok(documentService.getShareAccessStats());
+    }
+    
+    /**
+     * Re-scan a folder into the persistent extracted-field index, extracting only new or changed documents
+     * 
+     * @param folderPath Path to the network folder
+     * @return Counts of scanned, unchanged, updated and removed documents
+     */
+    @PostMapping("/index/rescan")
+    public ResponseEntity<?> rescanFolder(@RequestParam String folderPath) {
+        try {
+            return ResponseEntity.ok(documentService.rescanFolder(folderPath));
+        } catch (IOException e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", "Failed to re-scan folder: " + e.getMessage());
+            return ResponseEntity.badRequest().body(error);
+        }
+    }
+    
+    /**
+     * Get queue depth, lag and throughput of background document ingestion
+     * 
+     * @return Ingestion status
+     */
+    @GetMapping("/ingestion/status")
+    public ResponseEntity<?> getIngestionStatus() {
+        return ResponseEntity.ok(documentIngestionService.getStatus());
+    }
+    
+    /**
+     * Submit a comparison of a trade agreement and term sheet as an asynchronous job
+     * 
+     * @param tradeAgreementPath Path to the trade agreement file
+     * @param termSheetPath Path to the term sheet file
+     * @return Job id and status; 503 if the job queue is full
+     */
+    @PostMapping("/jobs/compare")
+    public ResponseEntity<?> submitComparisonJob(
+            @RequestParam String tradeAgreementPath,
+            @RequestParam String termSheetPath) {
+        try {
+            ComparisonJob job = comparisonJobService.submitComparison(tradeAgreementPath, termSheetPath);
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(job.getStatusMap());
+        } catch (RejectedExecutionException e) {
+            return jobQueueFull();
+        }
+    }
+    
+    /**
+     * Submit a batch reconciliation of two folders as an asynchronous job
+     * 
+     * @param tradeAgreementFolder Path to the trade agreements folder
+     * @param termSheetFolder Path to the term sheets folder
+     * @return Job id and status; 503 if the job queue is full
+     */
+    @PostMapping("/jobs/reconcile")
+    public ResponseEntity<?> submitReconciliationJob(
+            @RequestParam String tradeAgreementFolder,
+            @RequestParam String termSheetFolder) {
+        try {
+            ComparisonJob job = comparisonJobService.submitReconciliation(tradeAgreementFolder, termSheetFolder);
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(job.getStatusMap());
+        } catch (RejectedExecutionException e) {
+            return jobQueueFull();
+        }
+    }
+    
+    /**
+     * Get the status and progress of a job
+     * 
+     * @param jobId Job id returned on submission
+     * @return Job status, progress and timings
+     */
+    @GetMapping("/jobs/{jobId}")
+    public ResponseEntity<?> getJobStatus(@PathVariable String jobId) {
+        ComparisonJob job = comparisonJobService.getJob(jobId);
+        if (job == null) {
+            return jobNotFound(jobId);
+        }
+        return ResponseEntity.ok(job.getStatusMap());
+    }
+    
+    /**
+     * Stream a job's results as newline-delimited JSON, one line per comparison as it completes.
+     * The stream stays open until the job finishes.
+     * 
+     * @param jobId Job id returned on submission
+     * @return Chunked NDJSON stream of results
+     */
+    @GetMapping("/jobs/{jobId}/results")
+    public ResponseEntity<?> streamJobResults(@PathVariable String jobId) {
+        ComparisonJob job = comparisonJobService.getJob(jobId);
+        if (job == null) {
+            return jobNotFound(jobId);
+        }
+        StreamingResponseBody body = out -> comparisonJobService.streamResults(job, out);
+        return ResponseEntity.ok().contentType(NDJSON).body(body);
+    }
+    
+    /**
+     * Get queue depth and running count of the job scheduler
+     * 
+     * @return Job scheduler statistics
+     */
+    @GetMapping("/jobs/stats")
+    public ResponseEntity<?> getJobStats() {
+        return ResponseEntity.ok(comparisonJobService.getStats());
+    }
+    
+    private ResponseEntity<?> jobQueueFull() {
+        Map<String, String> error = new HashMap<>();
+        error.put("error", "Too many jobs queued, please retry later");
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header("Retry-After", "5").body(error);
+    }
+    
+    private ResponseEntity<?> jobNotFound(String jobId) {
+        Map<String, String> error = new HashMap<>();
+        error.put("error", "Job not found: " + jobId);
+        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(error);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,90 @@
+package com.trade.comparison.metrics;
+
+import com.trade.comparison.service.ComparisonJobService;
+import com.trade.comparison.service.DocumentIngestionService;
+import com.trade.comparison.service.ExtractionCache;
+import com.trade.comparison.service.FieldComparisonScheduler;
+import com.trade.comparison.service.NlpModelPool;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Exposes the state of the extraction cache, background ingestion, the job scheduler, the field
+ * comparison scheduler and the NLP model pool as gauges and counters.
+ * The values are read from the components when the registry is scraped, so nothing is recorded on the hot path.
+ */
+@Component
+public class PipelineMeterBinder implements MeterBinder {
+
+    private final ExtractionCache extractionCache;
+    private final DocumentIngestionService documentIngestionService;
+    private final ComparisonJobService comparisonJobService;
+    private final FieldComparisonScheduler fieldComparisonScheduler;
+    private final NlpModelPool nlpModelPool;
+
+    @Autowired
+    public PipelineMeterBinder(ExtractionCache extractionCache,
+                               DocumentIngestionService documentIngestionService,
+                               ComparisonJobService comparisonJobService,
+                               FieldComparisonScheduler fieldComparisonScheduler,
+                               NlpModelPool nlpModelPool) {
+        this.extractionCache = extractionCache;
+        this.documentIngestionService = documentIngestionService;
+        this.comparisonJobService = comparisonJobService;
+        this.fieldComparisonScheduler = fieldComparisonScheduler;
+        this.nlpModelPool = nlpModelPool;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("trade.comparison.cache.size", extractionCache, ExtractionCache::size)
+                .description("Documents held in the extracted-field cache")
+                .register(registry);
+        FunctionCounter.builder("trade.comparison.cache.requests", extractionCache, ExtractionCache::getHitCount)
+                .description("Extracted-field cache lookups")
+                .tag("result", "hit")
+                .register(registry);
+        FunctionCounter.builder("trade.comparison.cache.requests", extractionCache, ExtractionCache::getMissCount)
+                .description("Extracted-field cache lookups")
+                .tag("result", "miss")
+                .register(registry);
+        FunctionCounter.builder("trade.comparison.cache.evictions", extractionCache, ExtractionCache::getEvictionCount)
+                .description("Documents evicted from the extracted-field cache")
+                .register(registry);
+
+        Gauge.builder("trade.comparison.ingestion.queue.depth", documentIngestionService,
+                        DocumentIngestionService::getQueueDepth)
+                .description("Documents waiting for background extraction")
+                .register(registry);
+
+        Gauge.builder("trade.comparison.jobs.queued", comparisonJobService, ComparisonJobService::getQueuedJobCount)
+                .description("Comparison jobs waiting for a worker")
+                .register(registry);
+        Gauge.builder("trade.comparison.jobs.running", comparisonJobService, ComparisonJobService::getRunningJobCount)
+                .description("Comparison jobs being executed")
+                .register(registry);
+
+        FunctionCounter.builder("trade.comparison.fields.compared", fieldComparisonScheduler,
+                        FieldComparisonScheduler::getInlineCount)
+                .description("Fields scored by document comparisons")
+                .tag("mode", "inline")
+                .register(registry);
+        FunctionCounter.builder("trade.comparison.fields.compared", fieldComparisonScheduler,
+                        FieldComparisonScheduler::getParallelCount)
+                .description("Fields scored by document comparisons")
+                .tag("mode", "parallel")
+                .register(registry);
+        FunctionCounter.builder("trade.comparison.fields.timed.out", fieldComparisonScheduler,
+                        FieldComparisonScheduler::getTimedOutCount)
+                .description("Fields not scored before their comparison's deadline")
+                .register(registry);
+
+        FunctionCounter.builder("trade.comparison.nlp.fallbacks", nlpModelPool, NlpModelPool::getFallbackCount)
+                .description("Documents for which at least one NLP model's entities were unavailable")
+                .register(registry);
+    }
+}
\ No newline at end of file
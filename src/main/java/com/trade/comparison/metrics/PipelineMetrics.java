@@ -0,0 +1,141 @@
+package com.trade.comparison.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Timers and counters for the stages of the extraction and comparison pipeline.
+ * Documents and comparisons are plain objects rather than Spring beans, so meters are registered
+ * once on the global registry, which Spring Boot links to the actuator/Prometheus registry.
+ * Recording is a {@code System.nanoTime()} pair and a lock-free timer update per stage.
+ */
+public final class PipelineMetrics {
+
+    /**
+     * Pipeline stages with their own timer, tagged {@code stage=<tag>}
+     */
+    public enum Stage {
+        FILE_OPEN("file_open"),
+        PDF_TEXT_STRIP("pdf_text_strip"),
+        REGEX_EXTRACTION("regex_extraction"),
+        SPREADSHEET_PARSE("spreadsheet_parse"),
+        NLP_ENHANCEMENT("nlp_enhancement"),
+        SIMILARITY_SCORING("similarity_scoring"),
+        JSON_SERIALIZATION("json_serialization");
+
+        private final String tag;
+
+        Stage(String tag) {
+            this.tag = tag;
+        }
+    }
+
+    /**
+     * Document kinds, tagged {@code type=<tag>} on the throughput counters
+     */
+    public enum DocumentType {
+        TRADE_AGREEMENT("trade_agreement"),
+        TERM_SHEET("term_sheet");
+
+        private final String tag;
+
+        DocumentType(String tag) {
+            this.tag = tag;
+        }
+    }
+
+    /**
+     * Tiers of field matching, tagged {@code tier=<tag>} on the field resolution counter.
+     * UNRESOLVED counts values that differ but that no tier could score, scored as a mismatch.
+     */
+    public enum MatchTier {
+        EXACT("exact"),
+        TYPED("typed"),
+        SEMANTIC("semantic"),
+        UNRESOLVED("unresolved");
+
+        private final String tag;
+
+        MatchTier(String tag) {
+            this.tag = tag;
+        }
+    }
+
+    private static final Map<Stage, Timer> STAGE_TIMERS = new EnumMap<>(Stage.class);
+    private static final Map<DocumentType, Counter> DOCUMENTS = new EnumMap<>(DocumentType.class);
+    private static final Map<DocumentType, Counter> FIELDS = new EnumMap<>(DocumentType.class);
+    private static final Map<DocumentType, Counter> BYTES = new EnumMap<>(DocumentType.class);
+    private static final Map<MatchTier, Counter> FIELDS_RESOLVED = new EnumMap<>(MatchTier.class);
+
+    static {
+        for (Stage stage : Stage.values()) {
+            STAGE_TIMERS.put(stage, Timer.builder("trade.comparison.stage")
+                    .description("Time spent in a stage of the extraction and comparison pipeline")
+                    .tag("stage", stage.tag)
+                    .publishPercentileHistogram()
+                    .register(Metrics.globalRegistry));
+        }
+        for (DocumentType type : DocumentType.values()) {
+            DOCUMENTS.put(type, Counter.builder("trade.comparison.documents.processed")
+                    .description("Documents parsed from the share")
+                    .tag("type", type.tag)
+                    .register(Metrics.globalRegistry));
+            FIELDS.put(type, Counter.builder("trade.comparison.fields.extracted")
+                    .description("Fields extracted from parsed documents")
+                    .tag("type", type.tag)
+                    .register(Metrics.globalRegistry));
+            BYTES.put(type, Counter.builder("trade.comparison.bytes.processed")
+                    .description("Bytes of parsed documents")
+                    .baseUnit("bytes")
+                    .tag("type", type.tag)
+                    .register(Metrics.globalRegistry));
+        }
+        for (MatchTier tier : MatchTier.values()) {
+            FIELDS_RESOLVED.put(tier, Counter.builder("trade.comparison.fields.resolved")
+                    .description("Compared fields by the matching tier that decided them")
+                    .tag("tier", tier.tag)
+                    .register(Metrics.globalRegistry));
+        }
+    }
+
+    private PipelineMetrics() {
+    }
+
+    /**
+     * Records the time since {@code startNanos} against a stage
+     *
+     * @param stage The pipeline stage
+     * @param startNanos Value of {@link System#nanoTime()} when the stage started
+     */
+    public static void record(Stage stage, long startNanos) {
+        recordNanos(stage, System.nanoTime() - startNanos);
+    }
+
+    /**
+     * Records an accumulated duration against a stage, e.g. the sum over the pages of a document
+     */
+    public static void recordNanos(Stage stage, long nanos) {
+        STAGE_TIMERS.get(stage).record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Counts a parsed document with its size and number of extracted fields
+     */
+    public static void documentProcessed(DocumentType type, long bytes, int fields) {
+        DOCUMENTS.get(type).increment();
+        BYTES.get(type).increment(bytes);
+        FIELDS.get(type).increment(fields);
+    }
+
+    /**
+     * Counts a field comparison decided by a matching tier
+     */
+    public static void fieldResolved(MatchTier tier) {
+        FIELDS_RESOLVED.get(tier).increment();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,325 @@
+package com.trade.comparison.model;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * An asynchronous comparison or batch reconciliation.
+ * Tracks the job's status and progress, and collects its results (one JSON line each) as they complete
+ * so that clients can stream them while the job is still running. Once a job has more results than
+ * it may hold in memory, they are spilled to a temporary file, which is deleted when the results
+ * are discarded.
+ */
+public class ComparisonJob {
+
+    /**
+     * Kind of work the job performs
+     */
+    public enum Type {
+        COMPARE, RECONCILE
+    }
+
+    /**
+     * Life cycle of a job
+     */
+    public enum Status {
+        QUEUED, RUNNING, COMPLETED, FAILED
+    }
+
+    private final String id;
+    private final Type type;
+    private final Map<String, String> parameters;
+    private final long submittedAt;
+    private volatile long startedAt;
+    private volatile long finishedAt;
+    private volatile Status status;
+    private volatile String error;
+
+    private final AtomicInteger documentsTotal = new AtomicInteger();
+    private final AtomicInteger documentsLoaded = new AtomicInteger();
+    private final AtomicInteger comparisonsTotal = new AtomicInteger();
+    private final AtomicInteger comparisonsCompleted = new AtomicInteger();
+
+    private final int maxResultsInMemory;
+    // Result lines while they fit in memory; once spilled, every line is in the spill file
+    private final ArrayList<String> results = new ArrayList<>();
+    private Path spillFile;
+    private FileChannel spillChannel;
+    // Offset of each spilled line in the spill file, followed by the end of the last line
+    private long[] lineOffsets;
+    private int resultCount;
+    private boolean discarded;
+    // A lock rather than a monitor, so virtual threads streaming results do not pin while waiting
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition changed = lock.newCondition();
+
+    public ComparisonJob(Type type, Map<String, String> parameters) {
+        this(type, parameters, Integer.MAX_VALUE);
+    }
+
+    /**
+     * @param type Kind of work the job performs
+     * @param parameters Request parameters, reported with the job's status
+     * @param maxResultsInMemory Result lines held in memory before they are spilled to a temporary file
+     */
+    public ComparisonJob(Type type, Map<String, String> parameters, int maxResultsInMemory) {
+        this.maxResultsInMemory = Math.max(1, maxResultsInMemory);
+        this.id = UUID.randomUUID().toString();
+        this.type = type;
+        this.parameters = Collections.unmodifiableMap(new LinkedHashMap<>(parameters));
+        this.submittedAt = System.currentTimeMillis();
+        this.status = Status.QUEUED;
+    }
+
+    public void markRunning() {
+        startedAt = System.currentTimeMillis();
+        status = Status.RUNNING;
+    }
+
+    /**
+     * Appends a result line and wakes up clients streaming the results
+     *
+     * @throws UncheckedIOException If the results cannot be spilled to a temporary file
+     */
+    public void addResult(String jsonLine) {
+        lock.lock();
+        try {
+            if (discarded) {
+                return;
+            }
+            if (spillChannel == null && results.size() >= maxResultsInMemory) {
+                spillResults();
+            }
+            if (spillChannel != null) {
+                appendToSpillFile(jsonLine);
+            } else {
+                results.add(jsonLine);
+            }
+            resultCount++;
+            changed.signalAll();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error spilling job results to a temporary file", e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Releases the job's results, deleting a spilled file; later results are ignored
+     */
+    public void discardResults() {
+        lock.lock();
+        try {
+            discarded = true;
+            results.clear();
+            resultCount = 0;
+            if (spillChannel != null) {
+                spillChannel.close();
+                spillChannel = null;
+            }
+            if (spillFile != null) {
+                Files.deleteIfExists(spillFile);
+            }
+            changed.signalAll();
+        } catch (IOException e) {
+            System.err.println("Error deleting job results file " + spillFile + ": " + e.getMessage());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void spillResults() throws IOException {
+        spillFile = Files.createTempFile("trade-comparison-job-", ".ndjson");
+        spillChannel = FileChannel.open(spillFile, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        lineOffsets = new long[Math.max(16, results.size() * 2)];
+        for (int i = 0; i < results.size(); i++) {
+            writeLine(i, results.get(i));
+        }
+        results.clear();
+        results.trimToSize();
+    }
+
+    private void appendToSpillFile(String jsonLine) throws IOException {
+        if (resultCount + 1 >= lineOffsets.length) {
+            lineOffsets = Arrays.copyOf(lineOffsets, lineOffsets.length * 2);
+        }
+        writeLine(resultCount, jsonLine);
+    }
+
+    private void writeLine(int index, String jsonLine) throws IOException {
+        ByteBuffer bytes = ByteBuffer.wrap((jsonLine + "\n").getBytes(StandardCharsets.UTF_8));
+        long position = lineOffsets[index];
+        while (bytes.hasRemaining()) {
+            position += spillChannel.write(bytes, position);
+        }
+        lineOffsets[index + 1] = position;
+    }
+
+    public void complete() {
+        finish(Status.COMPLETED, null);
+    }
+
+    public void fail(String error) {
+        finish(Status.FAILED, error);
+    }
+
+    private void finish(Status finalStatus, String finalError) {
+        lock.lock();
+        try {
+            finishedAt = System.currentTimeMillis();
+            error = finalError;
+            status = finalStatus;
+            changed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Waits until results beyond an index are available or the job has finished
+     *
+     * @param fromIndex Number of results the caller has already consumed
+     * @param timeoutMillis Longest time to wait
+     * @return The results after the index, possibly empty if the job finished or the wait timed out;
+     *         spilled results are returned in chunks of at most the in-memory limit
+     * @throws InterruptedException If the caller is interrupted while waiting
+     * @throws IOException If spilled results cannot be read
+     */
+    public List<String> awaitResults(int fromIndex, long timeoutMillis) throws InterruptedException, IOException {
+        long remainingNanos = TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        lock.lock();
+        try {
+            while (resultCount <= fromIndex && !isFinished() && !discarded && remainingNanos > 0) {
+                remainingNanos = changed.awaitNanos(remainingNanos);
+            }
+            if (resultCount <= fromIndex) {
+                return Collections.emptyList();
+            }
+            if (spillChannel == null) {
+                return new ArrayList<>(results.subList(fromIndex, resultCount));
+            }
+            return readSpilledLines(fromIndex, Math.min(resultCount, fromIndex + maxResultsInMemory));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private List<String> readSpilledLines(int fromIndex, int toIndex) throws IOException {
+        ByteBuffer bytes = ByteBuffer.allocate(Math.toIntExact(lineOffsets[toIndex] - lineOffsets[fromIndex]));
+        long position = lineOffsets[fromIndex];
+        while (bytes.hasRemaining()) {
+            int read = spillChannel.read(bytes, position);
+            if (read < 0) {
+                throw new EOFException("Job results file truncated: " + spillFile);
+            }
+            position += read;
+        }
+        bytes.flip();
+        List<String> lines = new ArrayList<>(toIndex - fromIndex);
+        // Lines are single-line JSON, each terminated by a newline
+        String text = StandardCharsets.UTF_8.decode(bytes).toString();
+        int start = 0;
+        for (int end = text.indexOf('\n'); end >= 0; end = text.indexOf('\n', start)) {
+            lines.add(text.substring(start, end));
+            start = end + 1;
+        }
+        return lines;
+    }
+
+    public boolean isFinished() {
+        return status == Status.COMPLETED || status == Status.FAILED;
+    }
+
+    public int getResultCount() {
+        lock.lock();
+        try {
+            return resultCount;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Status, progress and timings of the job, for polling clients
+     */
+    public Map<String, Object> getStatusMap() {
+        Map<String, Object> progress = new LinkedHashMap<>();
+        progress.put("documentsTotal", documentsTotal.get());
+        progress.put("documentsLoaded", documentsLoaded.get());
+        progress.put("comparisonsTotal", comparisonsTotal.get());
+        progress.put("comparisonsCompleted", comparisonsCompleted.get());
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("jobId", id);
+        result.put("type", type);
+        result.put("status", status);
+        result.put("parameters", parameters);
+        result.put("progress", progress);
+        result.put("resultCount", getResultCount());
+        result.put("submittedAt", submittedAt);
+        if (startedAt > 0) {
+            result.put("queuedMillis", startedAt - submittedAt);
+        }
+        if (finishedAt > 0) {
+            result.put("runMillis", finishedAt - startedAt);
+        }
+        if (error != null) {
+            result.put("error", error);
+        }
+        return result;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public long getFinishedAt() {
+        return finishedAt;
+    }
+
+    public void setDocumentsTotal(int count) {
+        documentsTotal.set(count);
+    }
+
+    public void documentLoaded() {
+        documentsLoaded.incrementAndGet();
+    }
+
+    public void comparisonScheduled() {
+        comparisonsTotal.incrementAndGet();
+    }
+
+    public void comparisonCompleted() {
+        comparisonsCompleted.incrementAndGet();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,67 @@
+package com.trade.comparison.model;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+
+/**
+ * Streaming JSON output for comparison results. Results are written field by field with a Jackson
+ * generator, so a response is produced without first building the whole document as a tree.
+ * Generators leave the target stream open, so several results can share one response.
+ */
+public final class ComparisonJson {
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory()
+            .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+
+    private ComparisonJson() {
+    }
+
+    /**
+     * Creates a UTF-8 generator over an output stream
+     *
+     * @param pretty Whether to indent the output
+     */
+    public static JsonGenerator createGenerator(OutputStream out, boolean pretty) throws IOException {
+        JsonGenerator generator = JSON_FACTORY.createGenerator(out, JsonEncoding.UTF8);
+        return pretty ? generator.useDefaultPrettyPrinter() : generator;
+    }
+
+    /**
+     * Creates a generator over a character writer
+     *
+     * @param pretty Whether to indent the output
+     */
+    public static JsonGenerator createGenerator(Writer out, boolean pretty) throws IOException {
+        JsonGenerator generator = JSON_FACTORY.createGenerator(out);
+        return pretty ? generator.useDefaultPrettyPrinter() : generator;
+    }
+
+    /**
+     * Renders a JSON value to a string, e.g. one line of a newline-delimited result stream
+     */
+    public static String write(JsonWriter writer, boolean pretty) {
+        StringWriter out = new StringWriter();
+        try (JsonGenerator generator = createGenerator(out, pretty)) {
+            writer.write(generator);
+        } catch (IOException e) {
+            // A StringWriter does not fail; only a broken writer callback gets here
+            throw new UncheckedIOException(e);
+        }
+        return out.toString();
+    }
+
+    /**
+     * Writes one JSON value to a generator
+     */
+    @FunctionalInterface
+    public interface JsonWriter {
+        void write(JsonGenerator generator) throws IOException;
+    }
+}
\ No newline at end of file
@@ -1,11 +1,19 @@
 package com.trade.comparison.model;
 
+import com.trade.comparison.metrics.PipelineMetrics;
 import com.trade.comparison.service.AIDocumentService;
-import org.json.JSONArray;
-import org.json.JSONObject;
-import org.springframework.beans.factory.annotation.Autowired;
+import com.trade.comparison.service.FieldComparisonScheduler;
+import com.trade.comparison.service.TieredFieldMatcher;
+import com.trade.comparison.service.TypedFieldComparator;
+import com.fasterxml.jackson.core.JsonGenerator;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.*;
+import java.util.concurrent.Future;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 /**
  * Class responsible for comparing trade documents and generating comparison results
@@ -16,123 +24,244 @@ public class DocumentComparison {
     private TermSheet termSheet;
     private Map<String, ComparisonResult> comparisonResults;
     private double matchPercentage;
+    private boolean partial;
     
-    @Autowired
     private AIDocumentService aiService;
+    private TypedFieldComparator typedFieldComparator;
+    private FieldComparisonScheduler fieldScheduler;
     
     public DocumentComparison(TradeAgreement tradeAgreement, TermSheet termSheet) {
         this.tradeAgreement = tradeAgreement;
         this.termSheet = termSheet;
-        this.comparisonResults = new HashMap<>();
+        this.comparisonResults = new LinkedHashMap<>(32);
+        this.typedFieldComparator = new TypedFieldComparator();
     }
     
     /**
-     * Compares the trade agreement and term sheet documents using AI-enhanced techniques
+     * Compares the trade agreement and term sheet documents using AI-enhanced techniques.
+     * Documents that were already extracted, or whose fields were loaded from a store, are not parsed again.
+     * With a field scheduler, costly semantic comparisons run in parallel and any still running at
+     * the scheduler's deadline are reported as timed out, marking the comparison as partial.
      */
     public void compare() {
         if (tradeAgreement == null || termSheet == null) {
             throw new IllegalStateException("Both trade agreement and term sheet must be provided for comparison");
         }
+        // Extract fields from both documents unless that already happened
+        tradeAgreement.ensureExtracted();
+        termSheet.ensureExtracted();
         
-        // Extract fields from both documents
-        tradeAgreement.extractFields();
-        termSheet.extractFields();
-        
-        // Use AI to enhance document fields extraction
+        // Use AI to enhance document fields extraction; a no-op for documents enhanced when loaded
         if (aiService != null) {
             aiService.enhanceDocumentFields(tradeAgreement);
             aiService.enhanceDocumentFields(termSheet);
         }
         
-        // Get all unique field keys from both documents
-        Set<String> allKeys = new HashSet<>();
-        allKeys.addAll(tradeAgreement.getExtractedFields().keySet());
-        allKeys.addAll(termSheet.getExtractedFields().keySet());
+        Map<String, String> agreementFields = tradeAgreement.getExtractedFields();
+        Map<String, String> termSheetFields = termSheet.getExtractedFields();
         
-        int totalFields = 0;
-        double totalSimilarityScore = 0.0;
+        long scoringStart = System.nanoTime();
         
-        // Compare each field using semantic similarity
-        for (String key : allKeys) {
-            String agreementValue = tradeAgreement.getField(key);
-            String termSheetValue = termSheet.getField(key);
-            
-            // Skip fields that don't exist in both documents
-            if (agreementValue == null || termSheetValue == null) {
-                ComparisonResult result = new ComparisonResult(key, agreementValue, termSheetValue, false);
-                comparisonResults.put(key, result);
-                continue;
+        // Every field of the agreement, then the fields only the term sheet has
+        List<String> keys = new ArrayList<>(agreementFields.size() + termSheetFields.size());
+        keys.addAll(agreementFields.keySet());
+        for (String key : termSheetFields.keySet()) {
+            if (!agreementFields.containsKey(key)) {
+                keys.add(key);
             }
-            
-            totalFields++;
-            
-            // Calculate semantic similarity using AI
-            double similarityScore = 0.0;
-            if (aiService != null) {
-                similarityScore = aiService.calculateSemanticSimilarity(agreementValue, termSheetValue);
+        }
+        
+        // Cheap fields are scored inline while the costly ones run on the scheduler
+        TieredFieldMatcher matcher = new TieredFieldMatcher(typedFieldComparator, aiService);
+        ComparisonResult[] results = new ComparisonResult[keys.size()];
+        List<Future<ComparisonResult>> futures = new ArrayList<>(Collections.nCopies(keys.size(), null));
+        for (int i = 0; i < keys.size(); i++) {
+            String key = keys.get(i);
+            results[i] = compareFieldInline(matcher, key, fieldScheduler != null);
+            if (results[i] != null) {
+                if (fieldScheduler != null) {
+                    fieldScheduler.recordInline();
+                }
             } else {
-                // Fallback to traditional comparison if AI service is not available
-                String normalizedAgreementValue = normalizeValue(agreementValue);
-                String normalizedTermSheetValue = normalizeValue(termSheetValue);
-                similarityScore = normalizedAgreementValue.equals(normalizedTermSheetValue) ? 1.0 : 0.0;
+                futures.set(i, fieldScheduler.submit(() -> compareFieldSemantically(matcher, key)));
+            }
+        }
+        
+        partial = false;
+        int totalFields = 0;
+        double totalSimilarityScore = 0.0;
+        comparisonResults.clear();
+        for (int i = 0; i < keys.size(); i++) {
+            ComparisonResult result = results[i] != null ? results[i] : awaitField(keys.get(i), futures.get(i), scoringStart);
+            comparisonResults.put(result.getFieldName(), result);
+            if (result.getTradeAgreementValue() != null && result.getTermSheetValue() != null && !result.isTimedOut()) {
+                totalFields++;
+                totalSimilarityScore += result.getSimilarityScore();
             }
-            
-            totalSimilarityScore += similarityScore;
-            
-            // Consider a match if similarity is above threshold (0.8 or 80%)
-            boolean isMatch = similarityScore >= 0.8;
-            
-            ComparisonResult result = new ComparisonResult(key, agreementValue, termSheetValue, isMatch, similarityScore);
-            comparisonResults.put(key, result);
         }
         
         // Calculate match percentage based on average similarity score
         this.matchPercentage = totalFields > 0 ? (totalSimilarityScore / totalFields) * 100 : 0;
+        PipelineMetrics.record(PipelineMetrics.Stage.SIMILARITY_SCORING, scoringStart);
     }
     
     /**
-     * Normalizes a value for comparison
+     * Scores a single field on the calling thread. Values equal up to formatting, and typed values,
+     * are decided without the semantic tier.
+     * 
+     * @param deferCostly Whether to leave a costly semantic comparison to the scheduler
+     * @return The result, or null if the field was deferred
      */
-    private String normalizeValue(String value) {
-        if (value == null) {
-            return "";
+    private ComparisonResult compareFieldInline(TieredFieldMatcher matcher, String key, boolean deferCostly) {
+        String agreementValue = tradeAgreement.getField(key);
+        String termSheetValue = termSheet.getField(key);
+        
+        // Fields that don't exist in both documents are reported as mismatches without a score
+        if (agreementValue == null || termSheetValue == null) {
+            return new ComparisonResult(key, agreementValue, termSheetValue, false);
         }
         
-        // Remove currency symbols, commas, and normalize whitespace
-        return value.trim()
-                .replaceAll("[$€£]", "")
-                .replaceAll(",", "")
-                .replaceAll("\\s+", " ")
-                .toLowerCase();
+        Double score = matcher.matchWithoutSemantics(key, agreementValue, termSheetValue);
+        if (score != null) {
+            return scoredResult(key, agreementValue, termSheetValue, score);
+        }
+        if (deferCostly && fieldScheduler.shouldRunInParallel(
+                matcher.estimateSemanticCost(key, agreementValue, termSheetValue))) {
+            return null;
+        }
+        return compareFieldSemantically(matcher, key);
+    }
+    
+    /**
+     * Scores a field present in both documents with the semantic tier
+     */
+    private ComparisonResult compareFieldSemantically(TieredFieldMatcher matcher, String key) {
+        String agreementValue = tradeAgreement.getField(key);
+        String termSheetValue = termSheet.getField(key);
+        double similarityScore = matcher.matchSemantically(key, agreementValue, termSheetValue);
+        return scoredResult(key, agreementValue, termSheetValue, similarityScore);
+    }
+    
+    private static ComparisonResult scoredResult(String key, String agreementValue, String termSheetValue, double similarityScore) {
+        // Consider a match if similarity is above threshold (0.8 or 80%)
+        boolean isMatch = similarityScore >= 0.8;
+        return new ComparisonResult(key, agreementValue, termSheetValue, isMatch, similarityScore);
+    }
+    
+    /**
+     * Waits for a field scored in parallel until the comparison's deadline, cancelling it if it is missed
+     * 
+     * @param scoringStart Value of {@link System#nanoTime()} when scoring started, after extraction and enhancement
+     * @return The field's result, or a timed-out result if it missed the deadline
+     */
+    private ComparisonResult awaitField(String key, Future<ComparisonResult> future, long scoringStart) {
+        long deadlineNanos = fieldScheduler.getDeadlineNanos();
+        try {
+            if (deadlineNanos == 0) {
+                return future.get();
+            }
+            long remaining = scoringStart + deadlineNanos - System.nanoTime();
+            return future.get(Math.max(0L, remaining), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.cancel(true);
+        } catch (ExecutionException e) {
+            System.err.println("Error comparing field " + key + ": " + e.getCause().getMessage());
+            return new ComparisonResult(key, tradeAgreement.getField(key), termSheet.getField(key), false);
+        }
+        partial = true;
+        fieldScheduler.recordTimedOut();
+        return ComparisonResult.timedOut(key, tradeAgreement.getField(key), termSheet.getField(key));
     }
     
     /**
      * Generates a JSON representation of the comparison results
      */
     public String toJson() {
-        JSONObject result = new JSONObject();
+        return ComparisonJson.write(this::writeJson, false);
+    }
+    
+    /**
+     * Streams the comparison results as JSON
+     * 
+     * @param out Target stream; left open
+     * @param pretty Whether to indent the output
+     */
+    public void writeJson(OutputStream out, boolean pretty) throws IOException {
+        try (JsonGenerator generator = ComparisonJson.createGenerator(out, pretty)) {
+            writeJson(generator);
+        }
+    }
+    
+    /**
+     * Writes the comparison results as a JSON object
+     */
+    public void writeJson(JsonGenerator generator) throws IOException {
+        generator.writeStartObject();
+        writeJsonFields(generator);
+        generator.writeEndObject();
+    }
+    
+    /**
+     * Writes the fields of the comparison results into an object the caller has started,
+     * so they can be combined with fields of its own (e.g. a result type)
+     */
+    public void writeJsonFields(JsonGenerator generator) throws IOException {
+        long start = System.nanoTime();
         
         // Add document information
-        result.put("tradeAgreementFile", tradeAgreement.getFileName());
-        result.put("termSheetFile", termSheet.getFileName());
-        result.put("matchPercentage", Math.round(matchPercentage * 100.0) / 100.0); // Round to 2 decimal places
+        generator.writeStringField("tradeAgreementFile", tradeAgreement.getFileName());
+        generator.writeStringField("termSheetFile", termSheet.getFileName());
+        generator.writeNumberField("matchPercentage", Math.round(matchPercentage * 100.0) / 100.0); // Round to 2 decimal places
+        generator.writeBooleanField("partial", partial);
         
         // Add comparison details
-        JSONArray differences = new JSONArray();
+        generator.writeArrayFieldStart("differences");
         for (ComparisonResult comparisonResult : comparisonResults.values()) {
             if (!comparisonResult.isMatch()) {
-                JSONObject difference = new JSONObject();
-                difference.put("field", comparisonResult.getFieldName());
-                difference.put("tradeAgreementValue", comparisonResult.getTradeAgreementValue() != null ? 
+                generator.writeStartObject();
+                generator.writeStringField("field", comparisonResult.getFieldName());
+                generator.writeStringField("tradeAgreementValue", comparisonResult.getTradeAgreementValue() != null ? 
                         comparisonResult.getTradeAgreementValue() : "N/A");
-                difference.put("termSheetValue", comparisonResult.getTermSheetValue() != null ? 
+                generator.writeStringField("termSheetValue", comparisonResult.getTermSheetValue() != null ? 
                         comparisonResult.getTermSheetValue() : "N/A");
-                differences.put(difference);
+                generator.writeNumberField("similarityScore",
+                        Math.round(comparisonResult.getSimilarityScore() * 10000.0) / 10000.0); // Round to 4 decimal places
+                if (comparisonResult.isTimedOut()) {
+                    generator.writeBooleanField("timedOut", true);
+                }
+                generator.writeEndObject();
             }
         }
+        generator.writeEndArray();
         
-        result.put("differences", differences);
-        return result.toString(2); // Pretty print with 2 space indentation
+        PipelineMetrics.record(PipelineMetrics.Stage.JSON_SERIALIZATION, start);
+    }
+    
+    /**
+     * Sets the AI service used to enhance fields and score similarity.
+     * Without it, fields are compared by exact match after normalization.
+     */
+    public void setAiService(AIDocumentService aiService) {
+        this.aiService = aiService;
+    }
+    
+    /**
+     * Sets the comparator used for typed fields (amounts, rates, dates, currencies).
+     * Passing null compares every field as text.
+     */
+    public void setTypedFieldComparator(TypedFieldComparator typedFieldComparator) {
+        this.typedFieldComparator = typedFieldComparator;
+    }
+    
+    /**
+     * Sets the scheduler that runs costly field comparisons in parallel under a deadline.
+     * Without it, every field is scored in turn on the calling thread.
+     */
+    public void setFieldScheduler(FieldComparisonScheduler fieldScheduler) {
+        this.fieldScheduler = fieldScheduler;
     }
     
     public TradeAgreement getTradeAgreement() {
@@ -151,6 +280,13 @@ public class DocumentComparison {
         return matchPercentage;
     }
     
+    /**
+     * Whether some fields missed the comparison's deadline, so the match percentage covers only the fields scored
+     */
+    public boolean isPartial() {
+        return partial;
+    }
+    
     /**
      * Inner class to hold comparison result for a single field
      * Enhanced with similarity score from AI analysis
@@ -161,6 +297,7 @@ public class DocumentComparison {
         private final String termSheetValue;
         private final boolean isMatch;
         private final double similarityScore;
+        private final boolean timedOut;
         
         public ComparisonResult(String fieldName, String tradeAgreementValue, String termSheetValue, boolean isMatch) {
             this(fieldName, tradeAgreementValue, termSheetValue, isMatch, isMatch ? 1.0 : 0.0);
@@ -168,11 +305,24 @@ public class DocumentComparison {
         
         public ComparisonResult(String fieldName, String tradeAgreementValue, String termSheetValue, 
                                boolean isMatch, double similarityScore) {
+            this(fieldName, tradeAgreementValue, termSheetValue, isMatch, similarityScore, false);
+        }
+        
+        private ComparisonResult(String fieldName, String tradeAgreementValue, String termSheetValue,
+                                 boolean isMatch, double similarityScore, boolean timedOut) {
             this.fieldName = fieldName;
             this.tradeAgreementValue = tradeAgreementValue;
             this.termSheetValue = termSheetValue;
             this.isMatch = isMatch;
             this.similarityScore = similarityScore;
+            this.timedOut = timedOut;
+        }
+        
+        /**
+         * A field that was not scored before the comparison's deadline; reported as a mismatch
+         */
+        public static ComparisonResult timedOut(String fieldName, String tradeAgreementValue, String termSheetValue) {
+            return new ComparisonResult(fieldName, tradeAgreementValue, termSheetValue, false, 0.0, true);
         }
         
         public String getFieldName() {
@@ -194,5 +344,9 @@ public class DocumentComparison {
         public double getSimilarityScore() {
             return similarityScore;
         }
+        
+        public boolean isTimedOut() {
+            return timedOut;
+        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,104 @@
+package com.trade.comparison.model;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Extracts labelled fields (e.g. "Trade ID: TR00123456") from document text in a single pass.
+ * All field labels are compiled once into one alternation; each label hit is then checked
+ * against the precompiled value pattern of its field, anchored at the end of the label.
+ * The first occurrence of each field wins, and scanning stops once every field has been found.
+ */
+public class FieldExtractionEngine {
+
+    private final List<FieldDefinition> definitions;
+    private final Pattern labelPattern;
+
+    public FieldExtractionEngine(List<FieldDefinition> definitions) {
+        if (definitions.isEmpty()) {
+            throw new IllegalArgumentException("At least one field definition is required");
+        }
+        this.definitions = Collections.unmodifiableList(new ArrayList<>(definitions));
+        // Longest labels first so that a label which prefixes another cannot shadow it
+        this.labelPattern = Pattern.compile(definitions.stream()
+                .map(FieldDefinition::getLabel)
+                .sorted(Comparator.comparingInt(String::length).reversed())
+                .map(Pattern::quote)
+                .collect(Collectors.joining("|")), Pattern.CASE_INSENSITIVE);
+    }
+
+    public List<FieldDefinition> getDefinitions() {
+        return definitions;
+    }
+
+    /**
+     * Scans the text once and adds every field not yet present on the document
+     *
+     * @param text The document text
+     * @param document The document receiving the extracted fields
+     * @return true if every defined field is now present on the document
+     */
+    public boolean extract(String text, TradeDocument document) {
+        int remaining = 0;
+        for (FieldDefinition definition : definitions) {
+            if (document.getField(definition.getFieldName()) == null) {
+                remaining++;
+            }
+        }
+
+        Matcher labelMatcher = labelPattern.matcher(text);
+        int searchFrom = 0;
+        while (remaining > 0 && searchFrom < text.length() && labelMatcher.find(searchFrom)) {
+            int labelStart = labelMatcher.start();
+            for (FieldDefinition definition : definitions) {
+                String label = definition.getLabel();
+                if (document.getField(definition.getFieldName()) != null
+                        || !text.regionMatches(true, labelStart, label, 0, label.length())) {
+                    continue;
+                }
+                Matcher valueMatcher = definition.getValuePattern().matcher(text)
+                        .region(labelStart + label.length(), text.length());
+                if (valueMatcher.lookingAt()) {
+                    document.addField(definition.getFieldName(), valueMatcher.group(1).trim());
+                    remaining--;
+                }
+            }
+            // Resume just after the label start so overlapping labels are still seen
+            searchFrom = labelStart + 1;
+        }
+        return remaining == 0;
+    }
+
+    /**
+     * A labelled field: the text label that introduces it and the pattern its value must match.
+     * The value pattern is applied directly after the label and captures the value in group 1.
+     */
+    public static class FieldDefinition {
+        private final String fieldName;
+        private final String label;
+        private final Pattern valuePattern;
+
+        public FieldDefinition(String fieldName, String label, String valueRegex) {
+            this.fieldName = fieldName;
+            this.label = label;
+            this.valuePattern = Pattern.compile("[:\\s]+(" + valueRegex + ")", Pattern.CASE_INSENSITIVE);
+        }
+
+        public String getFieldName() {
+            return fieldName;
+        }
+
+        public String getLabel() {
+            return label;
+        }
+
+        public Pattern getValuePattern() {
+            return valuePattern;
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,247 @@
+package com.trade.comparison.model;
+
+import java.lang.ref.WeakReference;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+import java.util.WeakHashMap;
+
+/**
+ * Compact map of extracted fields. Standard fields are stored in an array indexed by
+ * {@link StandardField} ordinal; any other field goes to an overflow map that is only created
+ * when needed. Values of low-cardinality standard fields are deduplicated through a shared
+ * dictionary so documents holding the same counterparty or currency share one string.
+ * A null value is treated as an absent field.
+ * <p>
+ * The store also carries the SimHash fingerprint of the text the fields were extracted from, so the
+ * fingerprint is cached and indexed with the fields and need not be recomputed from other sources.
+ */
+public class FieldStore extends AbstractMap<String, String> {
+
+    /**
+     * Shared values, weakly held so a value is dropped once no document refers to it
+     */
+    private static final Map<String, WeakReference<String>> VALUE_DICTIONARY = new WeakHashMap<>();
+
+    private final String[] standardValues = new String[StandardField.count()];
+    private int standardCount;
+    private Map<String, String> overflow;
+    private long simHash;
+
+    public FieldStore() {
+    }
+
+    /**
+     * Copies fields, and the text fingerprint if they are held in another store
+     */
+    public FieldStore(Map<String, String> fields) {
+        putAll(fields);
+        if (fields instanceof FieldStore) {
+            simHash = ((FieldStore) fields).simHash;
+        }
+    }
+
+    /**
+     * SimHash fingerprint of the document text the fields were extracted from
+     *
+     * @return The fingerprint, or 0 if the text was too short to fingerprint or was not seen
+     */
+    public long getSimHash() {
+        return simHash;
+    }
+
+    public void setSimHash(long simHash) {
+        this.simHash = simHash;
+    }
+
+    @Override
+    public String get(Object key) {
+        StandardField field = StandardField.fromFieldName(key);
+        if (field != null) {
+            return standardValues[field.ordinal()];
+        }
+        return overflow != null ? overflow.get(key) : null;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return get(key) != null;
+    }
+
+    @Override
+    public String put(String key, String value) {
+        if (value == null) {
+            return remove(key);
+        }
+        StandardField field = StandardField.fromFieldName(key);
+        if (field != null) {
+            String previous = standardValues[field.ordinal()];
+            standardValues[field.ordinal()] = field.isLowCardinality() ? canonicalize(value) : value;
+            if (previous == null) {
+                standardCount++;
+            }
+            return previous;
+        }
+        if (overflow == null) {
+            overflow = new HashMap<>(4);
+        }
+        return overflow.put(key, value);
+    }
+
+    @Override
+    public String remove(Object key) {
+        StandardField field = StandardField.fromFieldName(key);
+        if (field != null) {
+            String previous = standardValues[field.ordinal()];
+            if (previous != null) {
+                standardValues[field.ordinal()] = null;
+                standardCount--;
+            }
+            return previous;
+        }
+        return overflow != null ? overflow.remove(key) : null;
+    }
+
+    @Override
+    public int size() {
+        return standardCount + (overflow != null ? overflow.size() : 0);
+    }
+
+    @Override
+    public void clear() {
+        for (int i = 0; i < standardValues.length; i++) {
+            standardValues[i] = null;
+        }
+        standardCount = 0;
+        overflow = null;
+    }
+
+    @Override
+    public Set<Entry<String, String>> entrySet() {
+        return new AbstractSet<>() {
+            @Override
+            public Iterator<Entry<String, String>> iterator() {
+                return new EntryIterator();
+            }
+
+            @Override
+            public int size() {
+                return FieldStore.this.size();
+            }
+        };
+    }
+
+    private static String canonicalize(String value) {
+        synchronized (VALUE_DICTIONARY) {
+            WeakReference<String> reference = VALUE_DICTIONARY.get(value);
+            String canonical = reference != null ? reference.get() : null;
+            if (canonical != null) {
+                return canonical;
+            }
+            VALUE_DICTIONARY.put(value, new WeakReference<>(value));
+            return value;
+        }
+    }
+
+    /**
+     * Iterates the standard fields in declaration order, then the overflow fields
+     */
+    private class EntryIterator implements Iterator<Entry<String, String>> {
+        private int nextOrdinal = advance(0);
+        private int lastOrdinal = -1;
+        private Iterator<Entry<String, String>> overflowIterator;
+        private boolean lastFromOverflow;
+
+        private int advance(int from) {
+            int ordinal = from;
+            while (ordinal < standardValues.length && standardValues[ordinal] == null) {
+                ordinal++;
+            }
+            return ordinal;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (nextOrdinal < standardValues.length) {
+                return true;
+            }
+            if (overflowIterator == null && overflow != null) {
+                overflowIterator = overflow.entrySet().iterator();
+            }
+            return overflowIterator != null && overflowIterator.hasNext();
+        }
+
+        @Override
+        public Entry<String, String> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            if (nextOrdinal < standardValues.length) {
+                lastOrdinal = nextOrdinal;
+                lastFromOverflow = false;
+                nextOrdinal = advance(nextOrdinal + 1);
+                return new StandardEntry(lastOrdinal);
+            }
+            lastFromOverflow = true;
+            return overflowIterator.next();
+        }
+
+        @Override
+        public void remove() {
+            if (lastFromOverflow) {
+                overflowIterator.remove();
+            } else if (lastOrdinal >= 0 && standardValues[lastOrdinal] != null) {
+                standardValues[lastOrdinal] = null;
+                standardCount--;
+                lastOrdinal = -1;
+            } else {
+                throw new IllegalStateException();
+            }
+        }
+    }
+
+    /**
+     * Entry view of a standard field slot
+     */
+    private class StandardEntry implements Entry<String, String> {
+        private final int ordinal;
+
+        StandardEntry(int ordinal) {
+            this.ordinal = ordinal;
+        }
+
+        @Override
+        public String getKey() {
+            return StandardField.byOrdinal(ordinal).getFieldName();
+        }
+
+        @Override
+        public String getValue() {
+            return standardValues[ordinal];
+        }
+
+        @Override
+        public String setValue(String value) {
+            return put(getKey(), value);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Entry)) {
+                return false;
+            }
+            Entry<?, ?> other = (Entry<?, ?>) o;
+            return getKey().equals(other.getKey()) && Objects.equals(getValue(), other.getValue());
+        }
+
+        @Override
+        public int hashCode() {
+            return getKey().hashCode() ^ Objects.hashCode(getValue());
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,217 @@
+package com.trade.comparison.model;
+
+import org.apache.pdfbox.io.RandomAccessRead;
+
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Random-access view of a document file held outside the Java heap, for parsers that seek
+ * around a file (PDFBox reads the cross-reference table at the end first, then objects on demand).
+ * Files larger than a pooled buffer are memory-mapped, so pages are read lazily by the OS and no
+ * copy of the file is made; smaller files are read once into a direct buffer borrowed from a pool.
+ * Intended for documents staged on local disk: mapping a file on a network share gives no benefit
+ * and a truncated file fails with an error on access.
+ * <p>
+ * Not thread-safe; each parse opens its own source. Closing a pooled source returns its buffer to
+ * the pool, while a mapped region is released when it is garbage collected.
+ */
+public final class MappedFileSource implements RandomAccessRead {
+
+    /**
+     * Files up to this size are read into a pooled direct buffer rather than mapped
+     */
+    static final int POOLED_BUFFER_BYTES = 1024 * 1024;
+
+    /**
+     * Buffers kept for reuse; further buffers are allocated on demand and dropped when closed
+     */
+    private static final int MAX_POOLED_BUFFERS = 16;
+
+    private static final Queue<ByteBuffer> BUFFER_POOL = new ConcurrentLinkedQueue<>();
+    private static final AtomicInteger POOLED_BUFFERS = new AtomicInteger();
+
+    private final ByteBuffer buffer;
+    private final boolean pooled;
+    private final int length;
+    private int position;
+    private boolean closed;
+
+    private MappedFileSource(ByteBuffer buffer, boolean pooled, int length) {
+        this.buffer = buffer;
+        this.pooled = pooled;
+        this.length = length;
+    }
+
+    /**
+     * Whether a file can be loaded this way; a mapping is limited to 2 GB
+     */
+    public static boolean supports(File file) {
+        return file.length() <= Integer.MAX_VALUE;
+    }
+
+    /**
+     * Opens a file, mapping it if it is larger than a pooled buffer
+     *
+     * @throws IOException If the file cannot be read or is larger than 2 GB
+     */
+    public static MappedFileSource open(File file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("File too large to map: " + file);
+            }
+            if (size > POOLED_BUFFER_BYTES) {
+                // The mapping stays valid after the channel is closed
+                return new MappedFileSource(channel.map(FileChannel.MapMode.READ_ONLY, 0, size), false, (int) size);
+            }
+
+            ByteBuffer buffer = borrowBuffer();
+            try {
+                buffer.clear().limit((int) size);
+                while (buffer.hasRemaining()) {
+                    if (channel.read(buffer) < 0) {
+                        throw new EOFException("File truncated while reading: " + file);
+                    }
+                }
+                return new MappedFileSource(buffer, true, (int) size);
+            } catch (IOException | RuntimeException e) {
+                returnBuffer(buffer);
+                throw e;
+            }
+        }
+    }
+
+    private static ByteBuffer borrowBuffer() {
+        ByteBuffer buffer = BUFFER_POOL.poll();
+        if (buffer != null) {
+            POOLED_BUFFERS.decrementAndGet();
+            return buffer;
+        }
+        return ByteBuffer.allocateDirect(POOLED_BUFFER_BYTES);
+    }
+
+    private static void returnBuffer(ByteBuffer buffer) {
+        if (POOLED_BUFFERS.incrementAndGet() <= MAX_POOLED_BUFFERS) {
+            BUFFER_POOL.offer(buffer);
+        } else {
+            POOLED_BUFFERS.decrementAndGet();
+        }
+    }
+
+    @Override
+    public int read() throws IOException {
+        checkOpen();
+        if (position >= length) {
+            return -1;
+        }
+        return buffer.get(position++) & 0xff;
+    }
+
+    @Override
+    public int read(byte[] b) throws IOException {
+        return read(b, 0, b.length);
+    }
+
+    @Override
+    public int read(byte[] b, int offset, int len) throws IOException {
+        checkOpen();
+        if (len == 0) {
+            return 0;
+        }
+        if (position >= length) {
+            return -1;
+        }
+        int count = Math.min(len, length - position);
+        buffer.get(position, b, offset, count);
+        position += count;
+        return count;
+    }
+
+    @Override
+    public long getPosition() throws IOException {
+        checkOpen();
+        return position;
+    }
+
+    @Override
+    public void seek(long newPosition) throws IOException {
+        checkOpen();
+        if (newPosition < 0) {
+            throw new IOException("Invalid position " + newPosition);
+        }
+        position = (int) Math.min(newPosition, length);
+    }
+
+    @Override
+    public long length() throws IOException {
+        checkOpen();
+        return length;
+    }
+
+    @Override
+    public boolean isClosed() {
+        return closed;
+    }
+
+    @Override
+    public int peek() throws IOException {
+        checkOpen();
+        return position < length ? buffer.get(position) & 0xff : -1;
+    }
+
+    @Override
+    public void rewind(int bytes) throws IOException {
+        checkOpen();
+        position = Math.max(0, position - bytes);
+    }
+
+    @Override
+    @Deprecated
+    public byte[] readFully(int len) throws IOException {
+        checkOpen();
+        if (len > length - position) {
+            throw new EOFException("Premature end of file");
+        }
+        byte[] bytes = new byte[len];
+        buffer.get(position, bytes, 0, len);
+        position += len;
+        return bytes;
+    }
+
+    @Override
+    public boolean isEOF() throws IOException {
+        checkOpen();
+        return position >= length;
+    }
+
+    @Override
+    public int available() throws IOException {
+        checkOpen();
+        return length - position;
+    }
+
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        if (pooled) {
+            returnBuffer(buffer);
+        }
+    }
+
+    private void checkOpen() throws IOException {
+        if (closed) {
+            throw new IOException("Source is closed");
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,201 @@
+package com.trade.comparison.model;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.ref.Cleaner;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Handle to the raw text of a document, captured during the extraction pass so later stages
+ * (e.g. NLP enhancement) do not read the file again. Text up to {@link #MAX_INLINE_CHARS} is kept
+ * on the heap; longer text is spilled to a temporary file while it is captured and only
+ * materialized, through a memory-mapped read, when {@link #getText()} is called.
+ */
+public final class RawText {
+
+    /**
+     * Characters held on the heap per document before the text is spilled to a temporary file
+     */
+    public static final int MAX_INLINE_CHARS = 256 * 1024;
+
+    private static final Cleaner TEMP_FILE_CLEANER = Cleaner.create();
+
+    private final String inlineText;
+    private final Path spillFile;
+    private final long length;
+    private final Cleaner.Cleanable cleanable;
+
+    private RawText(String inlineText, Path spillFile, long length) {
+        this.inlineText = inlineText;
+        this.spillFile = spillFile;
+        this.length = length;
+        // A spilled file is removed on release, or once the handle is no longer reachable
+        this.cleanable = spillFile != null ? TEMP_FILE_CLEANER.register(this, new DeleteFile(spillFile)) : null;
+    }
+
+    /**
+     * Wraps text that is already in memory
+     */
+    public static RawText of(String text) {
+        return new RawText(text, null, text.length());
+    }
+
+    /**
+     * Number of characters of text
+     */
+    public long length() {
+        return length;
+    }
+
+    /**
+     * Whether the text was spilled to a temporary file
+     */
+    public boolean isSpilled() {
+        return spillFile != null;
+    }
+
+    /**
+     * Gets the text, reading a spilled file through a memory mapping
+     *
+     * @throws IOException If the spilled file cannot be read or was already released
+     */
+    public String getText() throws IOException {
+        if (spillFile == null) {
+            return inlineText;
+        }
+        try (FileChannel channel = FileChannel.open(spillFile, StandardOpenOption.READ)) {
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return StandardCharsets.UTF_8.decode(mapped).toString();
+        } catch (NoSuchFileException e) {
+            throw new IOException("Raw text was already released: " + spillFile, e);
+        }
+    }
+
+    /**
+     * Deletes a spilled file; the handle can no longer be read afterwards
+     */
+    public void release() {
+        if (cleanable != null) {
+            cleanable.clean();
+        }
+    }
+
+    /**
+     * Accumulates text, e.g. page by page, spilling to a temporary file once it exceeds the inline limit.
+     * Closing a builder that was not built deletes its temporary file, so a builder abandoned when
+     * extraction fails part-way should be opened in a try-with-resources block.
+     */
+    public static class Builder implements AutoCloseable {
+        private final StringBuilder buffer = new StringBuilder();
+        private Path spillFile;
+        private Writer spillWriter;
+        private long length;
+        private boolean failed;
+        private boolean built;
+
+        public Builder append(CharSequence text) {
+            if (failed) {
+                return this;
+            }
+            length += text.length();
+            try {
+                if (spillWriter == null && buffer.length() + text.length() > MAX_INLINE_CHARS) {
+                    spillFile = Files.createTempFile("trade-comparison-text-", ".txt");
+                    spillWriter = Files.newBufferedWriter(spillFile, StandardCharsets.UTF_8);
+                    spillWriter.append(buffer);
+                    buffer.setLength(0);
+                    buffer.trimToSize();
+                }
+                if (spillWriter != null) {
+                    spillWriter.append(text);
+                } else {
+                    buffer.append(text);
+                }
+            } catch (IOException e) {
+                // Raw text only feeds enhancement; losing it must not fail extraction
+                System.err.println("Error spilling raw text to a temporary file: " + e.getMessage());
+                discard();
+            }
+            return this;
+        }
+
+        /**
+         * Completes the text
+         *
+         * @return The handle, or null if spilling failed
+         */
+        public RawText build() {
+            if (failed) {
+                return null;
+            }
+            // From here the spilled file belongs to the handle, or has been discarded
+            built = true;
+            if (spillWriter == null) {
+                return of(buffer.toString());
+            }
+            try {
+                spillWriter.close();
+                return new RawText(null, spillFile, length);
+            } catch (IOException e) {
+                System.err.println("Error spilling raw text to a temporary file: " + e.getMessage());
+                discard();
+                return null;
+            }
+        }
+
+        /**
+         * Discards the text unless it was built
+         */
+        @Override
+        public void close() {
+            if (!built && !failed) {
+                discard();
+            }
+        }
+
+        Path getSpillFile() {
+            return spillFile;
+        }
+
+        private void discard() {
+            failed = true;
+            buffer.setLength(0);
+            try {
+                if (spillWriter != null) {
+                    spillWriter.close();
+                }
+                if (spillFile != null) {
+                    Files.deleteIfExists(spillFile);
+                }
+            } catch (IOException e) {
+                System.err.println("Error deleting raw text file " + spillFile + ": " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Cleanup action; must not reference the handle itself, or it would never become unreachable
+     */
+    private static class DeleteFile implements Runnable {
+        private final Path file;
+
+        DeleteFile(Path file) {
+            this.file = file;
+        }
+
+        @Override
+        public void run() {
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException e) {
+                System.err.println("Error deleting raw text file " + file + ": " + e.getMessage());
+            }
+        }
+    }
+}
\ No newline at end of file
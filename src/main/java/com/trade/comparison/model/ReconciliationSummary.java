@@ -0,0 +1,245 @@
+package com.trade.comparison.model;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Summary of a batch reconciliation between a folder of trade agreements and a folder of term sheets.
+ * Documents are paired by their extracted trade ID.
+ */
+public class ReconciliationSummary {
+
+    /**
+     * Why a document was left out of the comparison as a duplicate of another
+     */
+    public enum DuplicateReason {
+        /** Byte-identical to the kept document */
+        IDENTICAL("identical"),
+        /** Text nearly the same as the kept document's */
+        NEAR_DUPLICATE("near-duplicate"),
+        /** Same trade ID as a more recently modified document */
+        SUPERSEDED("superseded");
+
+        private final String label;
+
+        DuplicateReason(String label) {
+            this.label = label;
+        }
+
+        public String getLabel() {
+            return label;
+        }
+    }
+
+    private final String tradeAgreementFolder;
+    private final String termSheetFolder;
+    private int totalTradeAgreements;
+    private int totalTermSheets;
+    private final List<DocumentComparison> matched;
+    private final List<String> unmatchedTradeAgreements;
+    private final List<String> unmatchedTermSheets;
+    private final List<String> orphanedDocuments;
+    private final List<DuplicateDocument> duplicateDocuments;
+
+    public ReconciliationSummary(String tradeAgreementFolder, String termSheetFolder) {
+        this.tradeAgreementFolder = tradeAgreementFolder;
+        this.termSheetFolder = termSheetFolder;
+        this.matched = new ArrayList<>();
+        this.unmatchedTradeAgreements = new ArrayList<>();
+        this.unmatchedTermSheets = new ArrayList<>();
+        this.orphanedDocuments = new ArrayList<>();
+        this.duplicateDocuments = new ArrayList<>();
+    }
+
+    public void addMatched(DocumentComparison comparison) {
+        matched.add(comparison);
+    }
+
+    public void addUnmatchedTradeAgreement(String filePath) {
+        unmatchedTradeAgreements.add(filePath);
+    }
+
+    public void addUnmatchedTermSheet(String filePath) {
+        unmatchedTermSheets.add(filePath);
+    }
+
+    /**
+     * Records a document that could not be paired because no trade ID was extracted from it
+     */
+    public void addOrphanedDocument(String filePath) {
+        orphanedDocuments.add(filePath);
+    }
+
+    /**
+     * Records a document that was not compared because it duplicates another document on the same side
+     *
+     * @param filePath The duplicate left out
+     * @param duplicateOf The document compared in its place
+     * @param reason How the duplicate was detected
+     */
+    public void addDuplicateDocument(String filePath, String duplicateOf, DuplicateReason reason) {
+        duplicateDocuments.add(new DuplicateDocument(filePath, duplicateOf, reason));
+    }
+
+    /**
+     * Number of paired documents whose comparison reported no differences
+     */
+    public int getFullyMatchedCount() {
+        int count = 0;
+        for (DocumentComparison comparison : matched) {
+            if (comparison.getComparisonResults().values().stream().allMatch(DocumentComparison.ComparisonResult::isMatch)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Generates a JSON representation of the reconciliation summary
+     */
+    public String toJson() {
+        return ComparisonJson.write(this::writeJson, false);
+    }
+
+    /**
+     * Streams the reconciliation summary as JSON, writing each paired comparison in turn
+     *
+     * @param out Target stream; left open
+     * @param pretty Whether to indent the output
+     */
+    public void writeJson(OutputStream out, boolean pretty) throws IOException {
+        try (JsonGenerator generator = ComparisonJson.createGenerator(out, pretty)) {
+            writeJson(generator);
+        }
+    }
+
+    /**
+     * Writes the reconciliation summary, including its paired comparisons, as a JSON object
+     */
+    public void writeJson(JsonGenerator generator) throws IOException {
+        generator.writeStartObject();
+        writeJsonFields(generator, true);
+        generator.writeEndObject();
+    }
+
+    /**
+     * Writes the fields of the summary into an object the caller has started
+     *
+     * @param includeMatched Whether to write the paired comparisons, or only their counts
+     */
+    public void writeJsonFields(JsonGenerator generator, boolean includeMatched) throws IOException {
+        generator.writeStringField("tradeAgreementFolder", tradeAgreementFolder);
+        generator.writeStringField("termSheetFolder", termSheetFolder);
+        generator.writeNumberField("totalTradeAgreements", totalTradeAgreements);
+        generator.writeNumberField("totalTermSheets", totalTermSheets);
+        generator.writeNumberField("matchedCount", matched.size());
+        generator.writeNumberField("fullyMatchedCount", getFullyMatchedCount());
+        generator.writeNumberField("unmatchedCount", unmatchedTradeAgreements.size() + unmatchedTermSheets.size());
+        generator.writeNumberField("orphanedCount", orphanedDocuments.size());
+        generator.writeNumberField("duplicateCount", duplicateDocuments.size());
+
+        if (includeMatched) {
+            generator.writeArrayFieldStart("matched");
+            for (DocumentComparison comparison : matched) {
+                comparison.writeJson(generator);
+            }
+            generator.writeEndArray();
+        }
+        writeStringArray(generator, "unmatchedTradeAgreements", unmatchedTradeAgreements);
+        writeStringArray(generator, "unmatchedTermSheets", unmatchedTermSheets);
+        writeStringArray(generator, "orphanedDocuments", orphanedDocuments);
+
+        generator.writeArrayFieldStart("duplicateDocuments");
+        for (DuplicateDocument duplicate : duplicateDocuments) {
+            generator.writeStartObject();
+            generator.writeStringField("path", duplicate.getFilePath());
+            generator.writeStringField("duplicateOf", duplicate.getDuplicateOf());
+            generator.writeStringField("reason", duplicate.getReason().getLabel());
+            generator.writeEndObject();
+        }
+        generator.writeEndArray();
+    }
+
+    private static void writeStringArray(JsonGenerator generator, String fieldName, List<String> values) throws IOException {
+        generator.writeArrayFieldStart(fieldName);
+        for (String value : values) {
+            generator.writeString(value);
+        }
+        generator.writeEndArray();
+    }
+
+    public String getTradeAgreementFolder() {
+        return tradeAgreementFolder;
+    }
+
+    public String getTermSheetFolder() {
+        return termSheetFolder;
+    }
+
+    public int getTotalTradeAgreements() {
+        return totalTradeAgreements;
+    }
+
+    public void setTotalTradeAgreements(int totalTradeAgreements) {
+        this.totalTradeAgreements = totalTradeAgreements;
+    }
+
+    public int getTotalTermSheets() {
+        return totalTermSheets;
+    }
+
+    public void setTotalTermSheets(int totalTermSheets) {
+        this.totalTermSheets = totalTermSheets;
+    }
+
+    public List<DocumentComparison> getMatched() {
+        return matched;
+    }
+
+    public List<String> getUnmatchedTradeAgreements() {
+        return unmatchedTradeAgreements;
+    }
+
+    public List<String> getUnmatchedTermSheets() {
+        return unmatchedTermSheets;
+    }
+
+    public List<String> getOrphanedDocuments() {
+        return orphanedDocuments;
+    }
+
+    public List<DuplicateDocument> getDuplicateDocuments() {
+        return duplicateDocuments;
+    }
+
+    /**
+     * A document left out of the comparison and the document compared in its place
+     */
+    public static class DuplicateDocument {
+        private final String filePath;
+        private final String duplicateOf;
+        private final DuplicateReason reason;
+
+        public DuplicateDocument(String filePath, String duplicateOf, DuplicateReason reason) {
+            this.filePath = filePath;
+            this.duplicateOf = duplicateOf;
+            this.reason = reason;
+        }
+
+        public String getFilePath() {
+            return filePath;
+        }
+
+        public String getDuplicateOf() {
+            return duplicateOf;
+        }
+
+        public DuplicateReason getReason() {
+            return reason;
+        }
+    }
+}
\ No newline at end of file
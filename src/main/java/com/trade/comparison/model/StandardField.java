@@ -0,0 +1,68 @@
+package com.trade.comparison.model;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The fixed vocabulary of standardized fields shared by trade agreements and term sheets
+ */
+public enum StandardField {
+    TRADE_ID("tradeId", false),
+    COUNTERPARTY("counterparty", true),
+    TRADE_DATE("tradeDate", false),
+    SETTLEMENT_DATE("settlementDate", false),
+    CURRENCY("currency", true),
+    NOTIONAL_AMOUNT("notionalAmount", false),
+    INTEREST_RATE("interestRate", false),
+    MATURITY_DATE("maturityDate", false);
+
+    private static final StandardField[] VALUES = values();
+    private static final Map<String, StandardField> BY_FIELD_NAME = new HashMap<>();
+
+    static {
+        for (StandardField field : VALUES) {
+            BY_FIELD_NAME.put(field.fieldName, field);
+        }
+    }
+
+    private final String fieldName;
+    private final boolean lowCardinality;
+
+    StandardField(String fieldName, boolean lowCardinality) {
+        this.fieldName = fieldName;
+        this.lowCardinality = lowCardinality;
+    }
+
+    /**
+     * The field name used as the key in extracted-field maps (e.g. tradeId)
+     */
+    public String getFieldName() {
+        return fieldName;
+    }
+
+    /**
+     * Whether values of this field come from a small set repeated across many documents
+     * (currencies, counterparties) and are therefore worth sharing between documents.
+     * Dates, amounts and rates take too many distinct values to be worth sharing.
+     */
+    public boolean isLowCardinality() {
+        return lowCardinality;
+    }
+
+    /**
+     * Looks up a standard field by its field name
+     *
+     * @return The standard field, or null for any other field name
+     */
+    public static StandardField fromFieldName(Object fieldName) {
+        return BY_FIELD_NAME.get(fieldName);
+    }
+
+    static StandardField byOrdinal(int ordinal) {
+        return VALUES[ordinal];
+    }
+
+    static int count() {
+        return VALUES.length;
+    }
+}
\ No newline at end of file
@@ -1,11 +1,24 @@
 package com.trade.comparison.model;
 
-import org.apache.poi.ss.usermodel.*;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import com.trade.comparison.metrics.PipelineMetrics;
+import org.apache.poi.openxml4j.exceptions.InvalidFormatException;
+import org.apache.poi.openxml4j.exceptions.OpenXML4JException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.util.XMLHelper;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.xml.sax.Attributes;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
+import org.xml.sax.helpers.DefaultHandler;
 
+import javax.xml.parsers.ParserConfigurationException;
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.util.Iterator;
 
 /**
  * Represents a Term Sheet document (typically Excel format)
@@ -28,66 +41,70 @@ public class TermSheet extends TradeDocument {
                 throw new IOException("Term Sheet file not found: " + getFilePath());
             }
             
-            try (FileInputStream fis = new FileInputStream(file);
-                 Workbook workbook = new XSSFWorkbook(fis)) {
+            // Stream the worksheet XML instead of building the whole workbook in memory;
+            // other sheets (e.g. large hidden pricing tabs) are never parsed
+            long openStart = System.nanoTime();
+            OPCPackage pkg = OPCPackage.open(file, PackageAccess.READ);
+            // A text spilled to a temporary file is deleted if parsing fails before it is built
+            try (RawText.Builder rawText = new RawText.Builder()) {
+                XSSFReader reader = new XSSFReader(pkg);
+                Iterator<InputStream> sheets = reader.getSheetsData();
+                PipelineMetrics.record(PipelineMetrics.Stage.FILE_OPEN, openStart);
+                if (!sheets.hasNext()) {
+                    return;
+                }
                 
-                // Assume the first sheet contains the term sheet data
-                Sheet sheet = workbook.getSheetAt(0);
+                long parseStart = System.nanoTime();
                 
-                // Process each row to extract key-value pairs
-                for (Row row : sheet) {
-                    if (row.getPhysicalNumberOfCells() >= 2) {
-                        Cell keyCell = row.getCell(0);
-                        Cell valueCell = row.getCell(1);
-                        
-                        if (keyCell != null && valueCell != null) {
-                            String key = getCellValueAsString(keyCell);
-                            String value = getCellValueAsString(valueCell);
-                            
+                TermSheetRowHandler handler = new TermSheetRowHandler(
+                        new ReadOnlySharedStringsTable(pkg), reader.getStylesTable(), isDate1904(reader),
+                        (key, value) -> {
+                            rawText.append(key).append(": ").append(value).append("\n");
                             if (key != null && !key.trim().isEmpty()) {
                                 // Map Excel field names to standardized field names
-                                String standardizedKey = standardizeFieldName(key);
-                                addField(standardizedKey, value);
+                                addField(standardizeFieldName(key), value);
                             }
-                        }
-                    }
+                        });
+                
+                // Assume the first sheet contains the term sheet data
+                try (InputStream sheet = sheets.next()) {
+                    XMLReader parser = XMLHelper.newXMLReader();
+                    parser.setContentHandler(handler);
+                    parser.parse(new InputSource(sheet));
                 }
+                setRawText(rawText.build());
+                PipelineMetrics.record(PipelineMetrics.Stage.SPREADSHEET_PARSE, parseStart);
+                PipelineMetrics.documentProcessed(PipelineMetrics.DocumentType.TERM_SHEET,
+                        file.length(), getExtractedFields().size());
+            } finally {
+                // Read-only packages are reverted rather than closed so nothing is written back
+                pkg.revert();
             }
-        } catch (IOException e) {
+        } catch (IOException | OpenXML4JException | SAXException | ParserConfigurationException e) {
             System.err.println("Error extracting fields from Term Sheet: " + e.getMessage());
         }
     }
     
-    private String getCellValueAsString(Cell cell) {
-        if (cell == null) {
-            return "";
-        }
-        
-        switch (cell.getCellType()) {
-            case STRING:
-                return cell.getStringCellValue();
-            case NUMERIC:
-                if (DateUtil.isCellDateFormatted(cell)) {
-                    return cell.getLocalDateTimeCellValue().toString();
-                } else {
-                    // Format numeric values to avoid scientific notation
-                    return String.valueOf(cell.getNumericCellValue());
-                }
-            case BOOLEAN:
-                return String.valueOf(cell.getBooleanCellValue());
-            case FORMULA:
-                try {
-                    return cell.getStringCellValue();
-                } catch (Exception e) {
-                    try {
-                        return String.valueOf(cell.getNumericCellValue());
-                    } catch (Exception ex) {
-                        return cell.getCellFormula();
+    /**
+     * Reads the workbook's date system, which decides how date-formatted cells are converted
+     */
+    private boolean isDate1904(XSSFReader reader) throws IOException, InvalidFormatException, SAXException,
+            ParserConfigurationException {
+        boolean[] date1904 = new boolean[1];
+        try (InputStream workbook = reader.getWorkbookData()) {
+            XMLReader parser = XMLHelper.newXMLReader();
+            parser.setContentHandler(new DefaultHandler() {
+                @Override
+                public void startElement(String uri, String localName, String qName, Attributes attributes) {
+                    if ("workbookPr".equals(localName)) {
+                        String value = attributes.getValue("date1904");
+                        date1904[0] = "1".equals(value) || "true".equalsIgnoreCase(value);
                     }
                 }
-            default:
-                return "";
+            });
+            parser.parse(new InputSource(workbook));
         }
+        return date1904[0];
     }
     
     private String standardizeFieldName(String excelFieldName) {
@@ -0,0 +1,284 @@
+package com.trade.comparison.model;
+
+import org.apache.poi.ss.usermodel.DateUtil;
+import org.apache.poi.ss.util.CellReference;
+import org.apache.poi.xssf.model.SharedStrings;
+import org.apache.poi.xssf.model.StylesTable;
+import org.apache.poi.xssf.usermodel.XSSFCellStyle;
+import org.xml.sax.Attributes;
+import org.xml.sax.helpers.DefaultHandler;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * SAX handler that streams the key/value rows (columns A and B) of a term sheet worksheet.
+ * Cell values are rendered exactly as the workbook model would render them for a term sheet:
+ * strings as-is, numbers via {@code String.valueOf(double)}, date-formatted numbers as
+ * {@code LocalDateTime.toString()}, booleans as {@code true}/{@code false}, and formulas as their
+ * cached string or numeric result, falling back to the formula text. A cell sharing another cell's
+ * formula falls back to that formula with its relative references moved to the cell, as the
+ * workbook model expands it.
+ * Unlike the workbook model, percent-formatted numbers are rendered as a percentage with a '%' sign
+ * (0.0425 as "4.25%"), so a rate keeps its scale: a bare "0.50" could be a fraction or half a percent.
+ * Only rows with at least two cells, both present in columns A and B, are emitted.
+ */
+class TermSheetRowHandler extends DefaultHandler {
+
+    private static final int KEY_COLUMN = 0;
+    private static final int VALUE_COLUMN = 1;
+
+    /**
+     * String literals and quoted sheet names, which are copied as-is, or an A1 cell reference
+     */
+    private static final Pattern FORMULA_TOKEN = Pattern.compile(
+            "\"(?:[^\"]|\"\")*\"|'(?:[^']|'')*'|(?<![A-Za-z0-9_.])(\\$?)([A-Z]{1,3})(\\$?)([0-9]+)(?![A-Za-z0-9_.(])");
+
+    private final SharedStrings sharedStrings;
+    private final StylesTable styles;
+    private final boolean date1904;
+    private final BiConsumer<String, String> rowConsumer;
+    private final Map<String, SharedFormula> sharedFormulas = new HashMap<>();
+
+    // Row state
+    private int row;
+    private int nextRow;
+    private int cellCount;
+    private int nextColumn;
+    private String key;
+    private String value;
+
+    // Cell state
+    private int cellRow;
+    private int column;
+    private String cellType;
+    private String styleIndex;
+    private boolean hasFormula;
+    private String sharedFormulaIndex;
+    private boolean inInlineString;
+    private final StringBuilder cellValue = new StringBuilder();
+    private final StringBuilder formula = new StringBuilder();
+    private StringBuilder activeBuffer;
+
+    TermSheetRowHandler(SharedStrings sharedStrings, StylesTable styles, boolean date1904,
+                        BiConsumer<String, String> rowConsumer) {
+        this.sharedStrings = sharedStrings;
+        this.styles = styles;
+        this.date1904 = date1904;
+        this.rowConsumer = rowConsumer;
+    }
+
+    @Override
+    public void startElement(String uri, String localName, String qName, Attributes attributes) {
+        switch (localName) {
+            case "row":
+                String rowNumber = attributes.getValue("r");
+                row = rowNumber != null ? Integer.parseInt(rowNumber) - 1 : nextRow;
+                nextRow = row + 1;
+                cellCount = 0;
+                nextColumn = 0;
+                key = null;
+                value = null;
+                break;
+            case "c":
+                String reference = attributes.getValue("r");
+                CellReference cellReference = reference != null ? new CellReference(reference) : null;
+                cellRow = cellReference != null ? cellReference.getRow() : row;
+                column = cellReference != null ? cellReference.getCol() : nextColumn;
+                nextColumn = column + 1;
+                cellType = attributes.getValue("t");
+                styleIndex = attributes.getValue("s");
+                hasFormula = false;
+                sharedFormulaIndex = null;
+                cellValue.setLength(0);
+                formula.setLength(0);
+                cellCount++;
+                break;
+            case "v":
+                activeBuffer = isTrackedColumn() ? cellValue : null;
+                break;
+            case "f":
+                hasFormula = true;
+                sharedFormulaIndex = "shared".equals(attributes.getValue("t")) ? attributes.getValue("si") : null;
+                activeBuffer = isTrackedColumn() ? formula : null;
+                break;
+            case "is":
+                inInlineString = true;
+                break;
+            case "t":
+                activeBuffer = inInlineString && isTrackedColumn() ? cellValue : null;
+                break;
+            default:
+                break;
+        }
+    }
+
+    @Override
+    public void characters(char[] ch, int start, int length) {
+        if (activeBuffer != null) {
+            activeBuffer.append(ch, start, length);
+        }
+    }
+
+    @Override
+    public void endElement(String uri, String localName, String qName) {
+        switch (localName) {
+            case "f":
+                activeBuffer = null;
+                if (sharedFormulaIndex != null && isTrackedColumn()) {
+                    resolveSharedFormula();
+                }
+                break;
+            case "v":
+            case "t":
+                activeBuffer = null;
+                break;
+            case "is":
+                inInlineString = false;
+                break;
+            case "c":
+                if (column == KEY_COLUMN) {
+                    key = renderCellValue();
+                } else if (column == VALUE_COLUMN) {
+                    value = renderCellValue();
+                }
+                break;
+            case "row":
+                if (cellCount >= 2 && key != null && value != null) {
+                    rowConsumer.accept(key, value);
+                }
+                break;
+            default:
+                break;
+        }
+    }
+
+    private boolean isTrackedColumn() {
+        return column == KEY_COLUMN || column == VALUE_COLUMN;
+    }
+
+    /**
+     * The first cell of a shared formula group carries its text; the others only its index. A group's
+     * first cell is its top-left one, so a group reaching columns A or B is always recorded here.
+     */
+    private void resolveSharedFormula() {
+        if (formula.length() > 0) {
+            sharedFormulas.put(sharedFormulaIndex, new SharedFormula(formula.toString(), cellRow, column));
+        } else {
+            SharedFormula shared = sharedFormulas.get(sharedFormulaIndex);
+            if (shared != null) {
+                formula.append(shared.movedTo(cellRow, column));
+            }
+        }
+    }
+
+    private String renderCellValue() {
+        String raw = cellValue.toString();
+        if (cellType == null || "n".equals(cellType)) {
+            if (hasFormula) {
+                return renderNumber(raw.isEmpty() ? 0.0 : Double.parseDouble(raw));
+            }
+            if (raw.isEmpty()) {
+                return ""; // Blank cell
+            }
+            double number = Double.parseDouble(raw);
+            if (isDateFormatted(number)) {
+                return DateUtil.getLocalDateTime(number, date1904).toString();
+            }
+            return renderNumber(number);
+        }
+
+        switch (cellType) {
+            case "s":
+                return raw.isEmpty() ? "" : sharedStrings.getItemAt(Integer.parseInt(raw.trim())).getString();
+            case "inlineStr":
+            case "str":
+                return raw;
+            case "b":
+                if (hasFormula) {
+                    return formula.toString();
+                }
+                return String.valueOf("1".equals(raw) || "true".equalsIgnoreCase(raw));
+            case "e":
+                return hasFormula ? formula.toString() : "";
+            default:
+                return "";
+        }
+    }
+
+    private String renderNumber(double number) {
+        if (isPercentFormatted()) {
+            return BigDecimal.valueOf(number).movePointRight(2).stripTrailingZeros().toPlainString() + "%";
+        }
+        // Format numeric values to avoid scientific notation
+        return String.valueOf(number);
+    }
+
+    private boolean isDateFormatted(double number) {
+        if (!DateUtil.isValidExcelDate(number)) {
+            return false;
+        }
+        XSSFCellStyle style = cellStyle();
+        return style != null && DateUtil.isADateFormat(style.getDataFormat(), style.getDataFormatString());
+    }
+
+    private boolean isPercentFormatted() {
+        XSSFCellStyle style = cellStyle();
+        String format = style != null ? style.getDataFormatString() : null;
+        return format != null && format.indexOf('%') >= 0;
+    }
+
+    private XSSFCellStyle cellStyle() {
+        if (styles == null) {
+            return null;
+        }
+        int index = styleIndex != null ? Integer.parseInt(styleIndex) : 0;
+        return index < styles.getNumCellStyles() ? styles.getStyleAt(index) : null;
+    }
+
+    /**
+     * A shared formula as written in the first cell of its group
+     */
+    private static final class SharedFormula {
+        private final String formula;
+        private final int row;
+        private final int column;
+
+        SharedFormula(String formula, int row, int column) {
+            this.formula = formula;
+            this.row = row;
+            this.column = column;
+        }
+
+        /**
+         * The formula of another cell in the group: relative references move by the cell's offset
+         * from the first cell, absolute ones ($A$1) stay
+         */
+        String movedTo(int cellRow, int cellColumn) {
+            Matcher matcher = FORMULA_TOKEN.matcher(formula);
+            StringBuilder moved = new StringBuilder();
+            while (matcher.find()) {
+                String replacement = matcher.group();
+                if (matcher.group(2) != null) {
+                    String columnName = matcher.group(2);
+                    if (matcher.group(1).isEmpty()) {
+                        columnName = CellReference.convertNumToColString(
+                                CellReference.convertColStringToIndex(columnName) + cellColumn - column);
+                    }
+                    long rowNumber = Long.parseLong(matcher.group(4));
+                    if (matcher.group(3).isEmpty()) {
+                        rowNumber += cellRow - row;
+                    }
+                    replacement = matcher.group(1) + columnName + matcher.group(3) + rowNumber;
+                }
+                matcher.appendReplacement(moved, Matcher.quoteReplacement(replacement));
+            }
+            matcher.appendTail(moved);
+            return moved.toString();
+        }
+    }
+}
\ No newline at end of file
@@ -1,24 +1,70 @@
 package com.trade.comparison.model;
 
+import com.trade.comparison.metrics.PipelineMetrics;
+import org.apache.pdfbox.io.IOUtils;
+import org.apache.pdfbox.io.MemoryUsageSetting;
+import org.apache.pdfbox.io.ScratchFile;
+import org.apache.pdfbox.pdfparser.PDFParser;
 import org.apache.pdfbox.pdmodel.PDDocument;
 import org.apache.pdfbox.text.PDFTextStripper;
 
 import java.io.File;
 import java.io.IOException;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.List;
 
 /**
- * Represents a Trade Agreement document
+ * Represents a Trade Agreement document (PDF format)
  */
 public class TradeAgreement extends TradeDocument {
     
+    /**
+     * Heap budget for a parsed PDF before PDFBox moves buffers to a temporary scratch file
+     */
+    private static final long MAX_MAIN_MEMORY_BYTES = 16L * 1024 * 1024;
+    
+    /**
+     * Characters carried over from the end of one page when scanning the next
+     */
+    private static final int PAGE_OVERLAP_CHARS = 256;
+    
+    private static final String DATE_VALUE = "\\d{2}/\\d{2}/\\d{4}|\\d{4}-\\d{2}-\\d{2}";
+    
+    /**
+     * Labelled fields found in trade agreements. Add new fields here; they are picked up
+     * by the same single scan over the document text.
+     */
+    static final List<FieldExtractionEngine.FieldDefinition> FIELD_DEFINITIONS = List.of(
+            new FieldExtractionEngine.FieldDefinition("tradeId", "Trade ID", "\\w+"),
+            new FieldExtractionEngine.FieldDefinition("counterparty", "Counterparty", "[\\w\\s]+"),
+            new FieldExtractionEngine.FieldDefinition("tradeDate", "Trade Date", DATE_VALUE),
+            new FieldExtractionEngine.FieldDefinition("settlementDate", "Settlement Date", DATE_VALUE),
+            new FieldExtractionEngine.FieldDefinition("currency", "Currency", "[A-Z]{3}"),
+            new FieldExtractionEngine.FieldDefinition("notionalAmount", "Notional Amount", "[$€£]?\\s?[\\d,]+\\.?\\d*"),
+            new FieldExtractionEngine.FieldDefinition("interestRate", "Interest Rate", "\\d+\\.?\\d*%"),
+            new FieldExtractionEngine.FieldDefinition("maturityDate", "Maturity Date", DATE_VALUE)
+    );
+    
+    private static final FieldExtractionEngine FIELD_EXTRACTOR = new FieldExtractionEngine(FIELD_DEFINITIONS);
+    
+    private final boolean memoryMapped;
+    
     public TradeAgreement() {
         super();
+        this.memoryMapped = false;
     }
     
     public TradeAgreement(String filePath) {
+        this(filePath, false);
+    }
+    
+    /**
+     * @param filePath Path to the PDF file
+     * @param memoryMapped Whether to parse the PDF from a memory-mapped or pooled direct buffer
+     *                     instead of a buffered file stream; suited to documents staged on local disk
+     */
+    public TradeAgreement(String filePath, boolean memoryMapped) {
         super(filePath);
+        this.memoryMapped = memoryMapped;
     }
     
     @Override
@@ -29,63 +75,71 @@ public class TradeAgreement extends TradeDocument {
                 throw new IOException("Trade Agreement file not found: " + getFilePath());
             }
             
-            try (PDDocument document = PDDocument.load(file)) {
+            long openStart = System.nanoTime();
+            try (PDDocument document = openDocument(file, memoryMapped);
+                 RawText.Builder rawText = new RawText.Builder()) {
+                PipelineMetrics.record(PipelineMetrics.Stage.FILE_OPEN, openStart);
                 PDFTextStripper stripper = new PDFTextStripper();
-                String text = stripper.getText(document);
+                int pageCount = document.getNumberOfPages();
+                String previousPageTail = "";
+                long stripNanos = 0;
+                long extractNanos = 0;
+                
+                // Strip one page at a time and stop as soon as every field has been found,
+                // since the key fields sit in the header block and trade details section
+                for (int page = 1; page <= pageCount; page++) {
+                    long stripStart = System.nanoTime();
+                    stripper.setStartPage(page);
+                    stripper.setEndPage(page);
+                    String pageText = stripper.getText(document);
+                    long extractStart = System.nanoTime();
+                    stripNanos += extractStart - stripStart;
+                    rawText.append(pageText);
+                    
+                    // Prefix the end of the previous page so a field split across the page break is still matched
+                    boolean complete = FIELD_EXTRACTOR.extract(previousPageTail + pageText, this);
+                    extractNanos += System.nanoTime() - extractStart;
+                    if (complete) {
+                        break;
+                    }
+                    previousPageTail = pageText.substring(Math.max(0, pageText.length() - PAGE_OVERLAP_CHARS));
+                }
+                // Keep the stripped pages for NLP enhancement; pages after the last field was found are not needed
+                setRawText(rawText.build());
                 
-                // Extract common fields from trade agreement
-                extractTradeId(text);
-                extractCounterparty(text);
-                extractTradeDate(text);
-                extractSettlementDate(text);
-                extractCurrency(text);
-                extractNotionalAmount(text);
-                extractInterestRate(text);
-                extractMaturityDate(text);
-                // Add more field extractions as needed
+                PipelineMetrics.recordNanos(PipelineMetrics.Stage.PDF_TEXT_STRIP, stripNanos);
+                PipelineMetrics.recordNanos(PipelineMetrics.Stage.REGEX_EXTRACTION, extractNanos);
+                PipelineMetrics.documentProcessed(PipelineMetrics.DocumentType.TRADE_AGREEMENT,
+                        file.length(), getExtractedFields().size());
             }
         } catch (IOException e) {
             System.err.println("Error extracting fields from Trade Agreement: " + e.getMessage());
         }
     }
     
-    private void extractTradeId(String text) {
-        extractFieldWithPattern(text, "Trade ID[:\\s]+(\\w+)", "tradeId");
-    }
-    
-    private void extractCounterparty(String text) {
-        extractFieldWithPattern(text, "Counterparty[:\\s]+([\\w\\s]+)", "counterparty");
-    }
-    
-    private void extractTradeDate(String text) {
-        extractFieldWithPattern(text, "Trade Date[:\\s]+(\\d{2}/\\d{2}/\\d{4}|\\d{4}-\\d{2}-\\d{2})", "tradeDate");
-    }
-    
-    private void extractSettlementDate(String text) {
-        extractFieldWithPattern(text, "Settlement Date[:\\s]+(\\d{2}/\\d{2}/\\d{4}|\\d{4}-\\d{2}-\\d{2})", "settlementDate");
-    }
-    
-    private void extractCurrency(String text) {
-        extractFieldWithPattern(text, "Currency[:\\s]+([A-Z]{3})", "currency");
-    }
-    
-    private void extractNotionalAmount(String text) {
-        extractFieldWithPattern(text, "Notional Amount[:\\s]+([$€£]?\\s?[\\d,]+\\.?\\d*)", "notionalAmount");
-    }
-    
-    private void extractInterestRate(String text) {
-        extractFieldWithPattern(text, "Interest Rate[:\\s]+(\\d+\\.?\\d*%)", "interestRate");
-    }
-    
-    private void extractMaturityDate(String text) {
-        extractFieldWithPattern(text, "Maturity Date[:\\s]+(\\d{2}/\\d{2}/\\d{4}|\\d{4}-\\d{2}-\\d{2})", "maturityDate");
-    }
-    
-    private void extractFieldWithPattern(String text, String patternString, String fieldName) {
-        Pattern pattern = Pattern.compile(patternString, Pattern.CASE_INSENSITIVE);
-        Matcher matcher = pattern.matcher(text);
-        if (matcher.find()) {
-            addField(fieldName, matcher.group(1).trim());
+    /**
+     * Opens the PDF from a memory-mapped or pooled direct buffer when requested, otherwise through
+     * PDFBox's buffered file stream. Either way, large documents spill parsed objects to a scratch
+     * file instead of holding them on the heap.
+     */
+    private static PDDocument openDocument(File file, boolean memoryMapped) throws IOException {
+        MemoryUsageSetting memoryUsage = MemoryUsageSetting.setupMixed(MAX_MAIN_MEMORY_BYTES);
+        if (!memoryMapped || !MappedFileSource.supports(file)) {
+            return PDDocument.load(file, memoryUsage);
+        }
+        
+        MappedFileSource source = MappedFileSource.open(file);
+        ScratchFile scratchFile = null;
+        try {
+            scratchFile = new ScratchFile(memoryUsage);
+            PDFParser parser = new PDFParser(source, "", scratchFile);
+            parser.parse();
+            // The document closes the source and scratch file
+            return parser.getPDDocument();
+        } catch (IOException | RuntimeException e) {
+            IOUtils.closeQuietly(scratchFile);
+            source.close();
+            throw e;
         }
     }
 }
\ No newline at end of file
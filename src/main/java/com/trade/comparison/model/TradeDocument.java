@@ -1,7 +1,7 @@
 package com.trade.comparison.model;
 
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * Base class for trade documents (agreements and term sheets)
@@ -9,10 +9,15 @@ import java.util.Map;
 public abstract class TradeDocument {
     private String filePath;
     private String fileName;
-    private Map<String, String> extractedFields;
+    private FieldStore extractedFields;
+    private volatile boolean extracted;
+    // Text seen by the extraction pass; dropped once enhancement has consumed it
+    private volatile RawText rawText;
+    // A lock rather than a monitor, so a virtual thread parsing the file does not pin its carrier thread
+    private final ReentrantLock extractionLock = new ReentrantLock();
     
     public TradeDocument() {
-        this.extractedFields = new HashMap<>();
+        this.extractedFields = new FieldStore();
     }
     
     public TradeDocument(String filePath) {
@@ -38,8 +43,15 @@ public abstract class TradeDocument {
         return extractedFields;
     }
     
+    /**
+     * Replaces the document's fields with ones extracted earlier (e.g. from a cache or store)
+     * and marks the document as extracted so the file is not parsed again.
+     * The fields are copied into a compact {@link FieldStore} unless they already are one.
+     */
     public void setExtractedFields(Map<String, String> extractedFields) {
-        this.extractedFields = extractedFields;
+        this.extractedFields = extractedFields instanceof FieldStore
+                ? (FieldStore) extractedFields : new FieldStore(extractedFields);
+        this.extracted = true;
     }
     
     public void addField(String key, String value) {
@@ -51,7 +63,82 @@ public abstract class TradeDocument {
     }
     
     /**
-     * Method to be implemented by subclasses to extract fields from the document
+     * Gets the SimHash fingerprint of the document text, computed when the document was extracted
+     * and kept with its fields in the cache and index
+     *
+     * @return The fingerprint, or 0 if the document has none
+     */
+    public long getSimHash() {
+        return extractedFields.getSimHash();
+    }
+    
+    public void setSimHash(long simHash) {
+        extractedFields.setSimHash(simHash);
+    }
+    
+    /**
+     * Gets the raw text captured when the document was extracted
+     *
+     * @return The text handle, or null if the fields were supplied from a store or the text was released
+     */
+    public RawText getRawText() {
+        return rawText;
+    }
+    
+    /**
+     * Sets the raw text of the document, replacing (and releasing) any earlier text
+     */
+    public void setRawText(String text) {
+        setRawText(text != null ? RawText.of(text) : null);
+    }
+    
+    /**
+     * Sets the raw text captured by the extraction pass, replacing (and releasing) any earlier text
+     */
+    protected void setRawText(RawText rawText) {
+        RawText previous = this.rawText;
+        this.rawText = rawText;
+        if (previous != null && previous != rawText) {
+            previous.release();
+        }
+    }
+    
+    /**
+     * Releases the raw text, deleting any temporary file it was spilled to
+     */
+    public void releaseRawText() {
+        setRawText((RawText) null);
+    }
+    
+    /**
+     * Whether the document's fields have been extracted or supplied
+     */
+    public boolean isExtracted() {
+        return extracted;
+    }
+    
+    /**
+     * Extracts the document's fields unless that has already happened.
+     * Safe to call any number of times; the underlying file is parsed at most once.
+     */
+    public void ensureExtracted() {
+        if (extracted) {
+            return;
+        }
+        extractionLock.lock();
+        try {
+            if (!extracted) {
+                extractFields();
+                extracted = true;
+            }
+        } finally {
+            extractionLock.unlock();
+        }
+    }
+    
+    /**
+     * Method to be implemented by subclasses to extract fields from the document.
+     * Callers should normally go through {@link #ensureExtracted()} to avoid parsing the file twice.
      */
     public abstract void extractFields();
 }
\ No newline at end of file
@@ -1,18 +1,26 @@
 package com.trade.comparison.service;
 
+import com.trade.comparison.metrics.PipelineMetrics;
+import com.trade.comparison.model.RawText;
 import com.trade.comparison.model.TradeDocument;
-import opennlp.tools.namefind.NameFinderME;
-import opennlp.tools.namefind.TokenNameFinderModel;
+import com.trade.comparison.service.similarity.JaccardSimilarity;
+import com.trade.comparison.service.similarity.IdentifierSimilarity;
+import com.trade.comparison.service.similarity.NumericSimilarity;
+import com.trade.comparison.service.similarity.SimilarityMeasure;
 import opennlp.tools.tokenize.SimpleTokenizer;
 import opennlp.tools.tokenize.Tokenizer;
 import opennlp.tools.util.Span;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.Arrays;
-import java.util.HashSet;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Service that uses AI/ML/NLP techniques for document processing and comparison
@@ -20,196 +28,187 @@ import java.util.HashSet;
 @Service
 public class AIDocumentService {
 
+    private final Tokenizer tokenizer;
+    private final SimilarityMeasure similarityMeasure;
+    private final Map<String, SimilarityMeasure> fieldSimilarityMeasures;
+    private final LabelEntityRecognizer entityRecognizer;
+    private final NlpModelPool nlpModelPool;
+
+    public AIDocumentService() {
+        this(null, null);
+    }
+
     /**
-     * Interface for measuring similarity between two strings
+     * @param nlpModelPool Name finders run after the label pass, or null to use the label pass only
+     * @param counterpartyResolver Resolver used to compare counterparties, or null for one without reference data
      */
-    private interface SimilarityMeasure {
-        /**
-         * Calculate similarity between two strings
-         * @param text1 First text
-         * @param text2 Second text
-         * @return Similarity score between 0 and 1
-         */
-        double getSimilarity(String text1, String text2);
+    @Autowired
+    public AIDocumentService(NlpModelPool nlpModelPool, CounterpartyResolver counterpartyResolver) {
+        this.nlpModelPool = nlpModelPool;
+        this.tokenizer = SimpleTokenizer.INSTANCE;
+        this.similarityMeasure = new JaccardSimilarity();
+        this.fieldSimilarityMeasures = new ConcurrentHashMap<>();
+        this.entityRecognizer = new LabelEntityRecognizer(tokenizer);
+        
+        // Amounts match to the cent and rates exactly; trade IDs match exactly up to case and separators
+        fieldSimilarityMeasures.put("notionalAmount", new NumericSimilarity(similarityMeasure, 0.01));
+        fieldSimilarityMeasures.put("interestRate", new NumericSimilarity(similarityMeasure, 0.0));
+        fieldSimilarityMeasures.put("tradeId", new IdentifierSimilarity());
+        // Counterparties compare by resolved counterparty id, tolerating suffixes and abbreviations
+        fieldSimilarityMeasures.put("counterparty",
+                counterpartyResolver != null ? counterpartyResolver : new CounterpartyResolver());
     }
     
     /**
-     * Vector Space Model implementation of SimilarityMeasure
+     * Selects the similarity measure used for a field
+     * 
+     * @param fieldName Standardized field name (e.g. notionalAmount)
+     * @param measure Measure to use for that field
      */
-    private static class VSMSimilarity implements SimilarityMeasure {
-        @Override
-        public double getSimilarity(String text1, String text2) {
-            if (text1 == null || text2 == null || text1.isEmpty() || text2.isEmpty()) {
-                return 0.0;
-            }
-            
-            // Simple implementation using word overlap
-            String[] words1 = text1.toLowerCase().split("\\s+");
-            String[] words2 = text2.toLowerCase().split("\\s+");
-            
-            HashSet<String> set1 = new HashSet<>(Arrays.asList(words1));
-            HashSet<String> set2 = new HashSet<>(Arrays.asList(words2));
-            
-            // Count common words
-            int commonWords = 0;
-            for (String word : set1) {
-                if (set2.contains(word)) {
-                    commonWords++;
-                }
-            }
-            
-            // Calculate Jaccard similarity: intersection size / union size
-            return (double) commonWords / (set1.size() + set2.size() - commonWords);
-        }
+    public void setSimilarityMeasure(String fieldName, SimilarityMeasure measure) {
+        fieldSimilarityMeasures.put(fieldName, measure);
     }
-
-    private final Tokenizer tokenizer;
-    private final SimilarityMeasure similarityMeasure;
-
-    public AIDocumentService() {
-        this.tokenizer = SimpleTokenizer.INSTANCE;
-        this.similarityMeasure = new VSMSimilarity();
+    
+    /**
+     * Gets the similarity measure used for a field, falling back to word-overlap Jaccard similarity
+     */
+    public SimilarityMeasure getSimilarityMeasure(String fieldName) {
+        return fieldName != null ? fieldSimilarityMeasures.getOrDefault(fieldName, similarityMeasure) : similarityMeasure;
     }
 
     /**
-     * Uses NLP to extract entities from text that might be missed by regular expressions
+     * Uses NLP to extract entities from text that might be missed by regular expressions.
+     * The text is tokenized once and every entity type is recognized in the same scan.
+     * When the name-finder models are loaded, organizations, dates and amounts they find fill
+     * the fields that have no labelled value.
      * 
      * @param text The text to analyze
      * @return Map of extracted entities and their values
      */
     public Map<String, String> extractEntitiesWithNLP(String text) {
         Map<String, String> entities = new HashMap<>();
-        
         try {
-            // Extract dates
-            extractDates(text, entities);
-            
-            // Extract monetary amounts
-            extractMonetaryAmounts(text, entities);
-            
-            // Extract organization names (counterparties)
-            extractOrganizations(text, entities);
-            
-            // Extract trade IDs and other identifiers
-            extractIdentifiers(text, entities);
+            entities.putAll(entityRecognizer.recognize(text));
+            if (nlpModelPool != null && nlpModelPool.isReady()) {
+                addModelEntities(text, entities);
+            }
         } catch (Exception e) {
             System.err.println("Error in NLP entity extraction: " + e.getMessage());
         }
-        
         return entities;
     }
     
     /**
-     * Extracts dates from text using NLP
+     * Runs the pooled name finders over the sentences of the text and maps what they find to fields:
+     * the first organization is the counterparty, a date goes to the date named in its sentence
+     * (trade date unless settlement or maturity is mentioned), and the first amount is the notional
      */
-    private void extractDates(String text, Map<String, String> entities) {
-        // In a real implementation, this would use a pre-trained model
-        // For now, we'll use a simplified approach
-        String[] tokens = tokenizer.tokenize(text);
-        
-        // Simple date pattern detection (this would be more sophisticated with actual models)
-        for (int i = 0; i < tokens.length - 2; i++) {
-            if (tokens[i].equalsIgnoreCase("trade") && tokens[i+1].equalsIgnoreCase("date")) {
-                if (i + 2 < tokens.length) {
-                    entities.put("tradeDate", tokens[i+2]);
-                }
-            }
-            
-            if (tokens[i].equalsIgnoreCase("settlement") && tokens[i+1].equalsIgnoreCase("date")) {
-                if (i + 2 < tokens.length) {
-                    entities.put("settlementDate", tokens[i+2]);
-                }
-            }
-            
-            if (tokens[i].equalsIgnoreCase("maturity") && tokens[i+1].equalsIgnoreCase("date")) {
-                if (i + 2 < tokens.length) {
-                    entities.put("maturityDate", tokens[i+2]);
+    private void addModelEntities(String text, Map<String, String> entities) {
+        List<Span[]> sentenceSpans = splitSentences(text);
+        List<String[]> sentences = new ArrayList<>(sentenceSpans.size());
+        for (Span[] spans : sentenceSpans) {
+            sentences.add(Span.spansToStrings(spans, text));
+        }
+
+        List<List<Span>> found = nlpModelPool.findEntities(sentences);
+        if (found == null) {
+            return;
+        }
+
+        for (int i = 0; i < sentences.size(); i++) {
+            Span[] tokenSpans = sentenceSpans.get(i);
+            for (Span entity : found.get(i)) {
+                String value = text.substring(tokenSpans[entity.getStart()].getStart(),
+                        tokenSpans[entity.getEnd() - 1].getEnd());
+                switch (entity.getType()) {
+                    case "organization":
+                        entities.putIfAbsent("counterparty", value);
+                        break;
+                    case "date":
+                        entities.putIfAbsent(dateField(sentences.get(i)), value);
+                        break;
+                    case "money":
+                        entities.putIfAbsent("notionalAmount", value);
+                        break;
+                    default:
+                        break;
                 }
             }
         }
     }
     
     /**
-     * Extracts monetary amounts from text using NLP
+     * Splits text into sentences of token spans, breaking at line ends and at sentence-ending
+     * punctuation followed by whitespace
      */
-    private void extractMonetaryAmounts(String text, Map<String, String> entities) {
-        // In a real implementation, this would use a pre-trained model
-        String[] tokens = tokenizer.tokenize(text);
-        
-        // Simple monetary amount detection
-        for (int i = 0; i < tokens.length - 2; i++) {
-            if (tokens[i].equalsIgnoreCase("notional") && tokens[i+1].equalsIgnoreCase("amount")) {
-                if (i + 2 < tokens.length) {
-                    entities.put("notionalAmount", tokens[i+2]);
-                }
-            }
-            
-            if (tokens[i].equalsIgnoreCase("interest") && tokens[i+1].equalsIgnoreCase("rate")) {
-                if (i + 2 < tokens.length) {
-                    entities.put("interestRate", tokens[i+2]);
-                }
+    private List<Span[]> splitSentences(String text) {
+        Span[] spans = tokenizer.tokenizePos(text);
+        List<Span[]> sentences = new ArrayList<>();
+        int start = 0;
+        for (int i = 0; i < spans.length; i++) {
+            boolean last = i + 1 == spans.length;
+            boolean lineEnd = !last && text.substring(spans[i].getEnd(), spans[i + 1].getStart()).indexOf('\n') >= 0;
+            char c = text.charAt(spans[i].getStart());
+            boolean sentenceEnd = (c == '.' || c == '!' || c == '?') && (last || spans[i + 1].getStart() > spans[i].getEnd());
+            if (last || lineEnd || sentenceEnd) {
+                sentences.add(Arrays.copyOfRange(spans, start, i + 1));
+                start = i + 1;
             }
         }
+        return sentences;
     }
     
-    /**
-     * Extracts organization names from text using NLP
-     */
-    private void extractOrganizations(String text, Map<String, String> entities) {
-        // In a real implementation, this would use a pre-trained model
-        String[] tokens = tokenizer.tokenize(text);
-        
-        // Simple organization detection
-        for (int i = 0; i < tokens.length - 1; i++) {
-            if (tokens[i].equalsIgnoreCase("counterparty")) {
-                if (i + 1 < tokens.length) {
-                    entities.put("counterparty", tokens[i+1]);
-                }
+    private static String dateField(String[] sentence) {
+        for (String token : sentence) {
+            if (token.equalsIgnoreCase("settlement") || token.equalsIgnoreCase("settles")) {
+                return "settlementDate";
+            }
+            if (token.equalsIgnoreCase("maturity") || token.equalsIgnoreCase("matures")) {
+                return "maturityDate";
             }
         }
+        return "tradeDate";
     }
     
     /**
-     * Extracts identifiers from text using NLP
+     * Compares two field values using semantic similarity rather than exact matching
+     * 
+     * @param value1 First value to compare
+     * @param value2 Second value to compare
+     * @return Similarity score between 0 and 1
      */
-    private void extractIdentifiers(String text, Map<String, String> entities) {
-        // In a real implementation, this would use a pre-trained model
-        String[] tokens = tokenizer.tokenize(text);
-        
-        // Simple identifier detection
-        for (int i = 0; i < tokens.length - 2; i++) {
-            if (tokens[i].equalsIgnoreCase("trade") && tokens[i+1].equalsIgnoreCase("id")) {
-                if (i + 2 < tokens.length) {
-                    entities.put("tradeId", tokens[i+2]);
-                }
-            }
-        }
+    public double calculateSemanticSimilarity(String value1, String value2) {
+        return calculateSemanticSimilarity(null, value1, value2);
     }
     
     /**
-     * Compares two field values using semantic similarity rather than exact matching
+     * Compares two values of a field using the similarity measure selected for that field
      * 
+     * @param fieldName Standardized field name, or null for the default measure
      * @param value1 First value to compare
      * @param value2 Second value to compare
      * @return Similarity score between 0 and 1
      */
-    public double calculateSemanticSimilarity(String value1, String value2) {
+    public double calculateSemanticSimilarity(String fieldName, String value1, String value2) {
         if (value1 == null || value2 == null) {
             return 0.0;
         }
         
+        // Values equal up to case, whitespace and currency formatting are found without normalizing
+        if (TieredFieldMatcher.equalsIgnoringFormatting(value1, value2)) {
+            return 1.0;
+        }
+        
         // Normalize values
         value1 = normalizeValue(value1);
         value2 = normalizeValue(value2);
         
-        // If values are identical after normalization, return 1.0
-        if (value1.equals(value2)) {
-            return 1.0;
-        }
-        
         // Calculate semantic similarity using vector space model
         try {
-            return similarityMeasure.getSimilarity(value1, value2);
+            return getSimilarityMeasure(fieldName).getSimilarity(value1, value2);
+        } catch (CancellationException e) {
+            // The comparison missed its deadline; its result is no longer wanted
+            throw e;
         } catch (Exception e) {
             System.err.println("Error calculating similarity: " + e.getMessage());
             return 0.0;
@@ -217,52 +216,85 @@ public class AIDocumentService {
     }
     
     /**
-     * Enhances document fields with AI-extracted information
+     * Estimates the cost of {@link #calculateSemanticSimilarity(String, String, String)} for two
+     * values of a field, as reported by the field's similarity measure
      * 
-     * @param document The document to enhance
+     * @param fieldName Standardized field name, or null for the default measure
+     * @param value1 First value
+     * @param value2 Second value
+     * @return Estimated cost in characters visited
      */
-    public void enhanceDocumentFields(TradeDocument document) {
-        // Get the raw text from the document (this would need to be implemented in TradeDocument)
-        String rawText = getRawTextFromDocument(document);
-        
-        // Extract entities using NLP
-        Map<String, String> nlpEntities = extractEntitiesWithNLP(rawText);
-        
-        // Merge NLP-extracted entities with existing fields
-        for (Map.Entry<String, String> entry : nlpEntities.entrySet()) {
-            // Only add if the field doesn't already exist or is empty
-            if (document.getField(entry.getKey()) == null || document.getField(entry.getKey()).isEmpty()) {
-                document.addField(entry.getKey(), entry.getValue());
-            }
+    public long estimateSimilarityCost(String fieldName, String value1, String value2) {
+        if (value1 == null || value2 == null) {
+            return 0L;
         }
+        return getSimilarityMeasure(fieldName).estimateCost(value1, value2);
     }
     
     /**
-     * Gets raw text from a document (placeholder method)
+     * Enhances document fields with AI-extracted information, read from the raw text captured
+     * when the document was extracted. The text is released afterwards: its entities have been
+     * merged into the fields, so a later call has nothing to add.
+     * Documents loaded through DocumentService are enhanced when they are parsed, before their fields
+     * are cached and indexed; documents whose fields came from the cache or index carry no raw text
+     * and are left as they are.
+     * 
+     * @param document The document to enhance
      */
-    private String getRawTextFromDocument(TradeDocument document) {
-        // This would need to be implemented based on the document type
-        // For now, we'll just concatenate all field values
-        StringBuilder sb = new StringBuilder();
-        for (Map.Entry<String, String> entry : document.getExtractedFields().entrySet()) {
-            sb.append(entry.getKey()).append(" ").append(entry.getValue()).append(" ");
+    public void enhanceDocumentFields(TradeDocument document) {
+        RawText rawText = document.getRawText();
+        if (rawText == null) {
+            return;
         }
-        return sb.toString();
+        long start = System.nanoTime();
+        
+        try {
+            // Extract entities using NLP
+            Map<String, String> nlpEntities = extractEntitiesWithNLP(rawText.getText());
+            
+            // Merge NLP-extracted entities with existing fields
+            for (Map.Entry<String, String> entry : nlpEntities.entrySet()) {
+                // Only add if the field doesn't already exist or is empty
+                if (document.getField(entry.getKey()) == null || document.getField(entry.getKey()).isEmpty()) {
+                    document.addField(entry.getKey(), entry.getValue());
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("Error reading raw text of " + document.getFileName() + ": " + e.getMessage());
+        } finally {
+            document.releaseRawText();
+        }
+        
+        PipelineMetrics.record(PipelineMetrics.Stage.NLP_ENHANCEMENT, start);
     }
     
     /**
-     * Normalizes a value for comparison
+     * Normalizes a value for comparison: removes currency symbols and commas,
+     * collapses whitespace runs to a single space and lower-cases, in one pass
      */
     private String normalizeValue(String value) {
         if (value == null) {
             return "";
         }
         
-        // Remove currency symbols, commas, and normalize whitespace
-        return value.trim()
-                .replaceAll("[$€£]", "")
-                .replaceAll(",", "")
-                .replaceAll("\\s+", " ")
-                .toLowerCase();
+        String trimmed = value.trim();
+        StringBuilder normalized = new StringBuilder(trimmed.length());
+        boolean inWhitespace = false;
+        for (int i = 0; i < trimmed.length(); i++) {
+            char c = trimmed.charAt(i);
+            if (c == '$' || c == '€' || c == '£' || c == ',') {
+                continue;
+            }
+            if (Character.isWhitespace(c)) {
+                if (!inWhitespace) {
+                    normalized.append(' ');
+                    inWhitespace = true;
+                }
+                continue;
+            }
+            normalized.append(Character.toLowerCase(c));
+            inWhitespace = false;
+        }
+        return normalized.toString();
     }
 }
\ No newline at end of file
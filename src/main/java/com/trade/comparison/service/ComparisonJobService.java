@@ -0,0 +1,283 @@
+package com.trade.comparison.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.trade.comparison.model.ComparisonJob;
+import com.trade.comparison.model.ComparisonJson;
+import com.trade.comparison.model.DocumentComparison;
+import com.trade.comparison.model.ReconciliationSummary;
+import com.trade.comparison.model.TradeDocument;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs comparisons and batch reconciliations as asynchronous jobs.
+ * Jobs execute on a bounded pool with a bounded queue; once the queue is full, submissions are
+ * rejected so callers back off instead of piling up work. Results are collected on the job as
+ * they complete and can be polled or streamed as newline-delimited JSON.
+ * Finished jobs are expired on a schedule once their retention period has passed, and a job's
+ * results beyond a configurable number are spilled to a temporary file rather than held in memory.
+ */
+@Service
+public class ComparisonJobService {
+
+    /**
+     * How long a streaming client waits for the next result before checking the job again
+     */
+    private static final long STREAM_POLL_MILLIS = 1000;
+
+    /**
+     * Longest interval between checks for expired jobs
+     */
+    private static final long MAX_EXPIRY_INTERVAL_MILLIS = 60_000;
+
+    private final DocumentService documentService;
+    private final long retentionMillis;
+    private final int maxResultsInMemory;
+    private final ThreadPoolExecutor executor;
+    private final ScheduledExecutorService expiryScheduler;
+    private final Map<String, ComparisonJob> jobs = new ConcurrentHashMap<>();
+
+    /**
+     * @param documentService Service that performs the comparisons
+     * @param workers Number of jobs run concurrently
+     * @param queueCapacity Number of jobs that may wait for a worker before submissions are rejected
+     * @param retentionMillis How long finished jobs and their results are kept
+     * @param maxResultsInMemory Result lines a job holds in memory before spilling them to a temporary file
+     */
+    @Autowired
+    public ComparisonJobService(DocumentService documentService,
+                                @Value("${trade.comparison.jobs.workers:4}") int workers,
+                                @Value("${trade.comparison.jobs.queue-capacity:100}") int queueCapacity,
+                                @Value("${trade.comparison.jobs.retention-ms:3600000}") long retentionMillis,
+                                @Value("${trade.comparison.jobs.max-results-in-memory:1000}") int maxResultsInMemory) {
+        this.documentService = documentService;
+        this.retentionMillis = retentionMillis;
+        this.maxResultsInMemory = maxResultsInMemory;
+        this.executor = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(queueCapacity), Thread.ofVirtual().name("comparison-job-", 1).factory());
+        this.expiryScheduler = Executors.newSingleThreadScheduledExecutor(
+                Thread.ofPlatform().name("comparison-job-expiry").daemon().factory());
+        long expiryInterval = Math.max(1, Math.min(retentionMillis, MAX_EXPIRY_INTERVAL_MILLIS));
+        expiryScheduler.scheduleWithFixedDelay(this::removeExpiredJobs, expiryInterval, expiryInterval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Submits a comparison of a trade agreement and term sheet
+     *
+     * @return The queued job
+     * @throws RejectedExecutionException If the job queue is full
+     */
+    public ComparisonJob submitComparison(String tradeAgreementPath, String termSheetPath) {
+        Map<String, String> parameters = new LinkedHashMap<>();
+        parameters.put("tradeAgreementPath", tradeAgreementPath);
+        parameters.put("termSheetPath", termSheetPath);
+        ComparisonJob job = new ComparisonJob(ComparisonJob.Type.COMPARE, parameters, maxResultsInMemory);
+        job.setDocumentsTotal(2);
+
+        return submit(job, () -> documentService.compareDocuments(tradeAgreementPath, termSheetPath, progressListener(job)));
+    }
+
+    /**
+     * Submits a batch reconciliation of two folders. Each comparison is published as soon as it
+     * completes; a final summary line lists the unmatched and orphaned documents.
+     *
+     * @return The queued job
+     * @throws RejectedExecutionException If the job queue is full
+     */
+    public ComparisonJob submitReconciliation(String tradeAgreementFolder, String termSheetFolder) {
+        Map<String, String> parameters = new LinkedHashMap<>();
+        parameters.put("tradeAgreementFolder", tradeAgreementFolder);
+        parameters.put("termSheetFolder", termSheetFolder);
+        ComparisonJob job = new ComparisonJob(ComparisonJob.Type.RECONCILE, parameters, maxResultsInMemory);
+
+        return submit(job, () -> {
+            ReconciliationSummary summary = documentService.reconcileFolders(tradeAgreementFolder, termSheetFolder,
+                    progressListener(job));
+
+            // Comparisons were already streamed; the summary carries the counts and the unpaired documents
+            job.addResult(ComparisonJson.write(generator -> {
+                generator.writeStartObject();
+                generator.writeStringField("type", "summary");
+                summary.writeJsonFields(generator, false);
+                generator.writeEndObject();
+            }, false));
+        });
+    }
+
+    /**
+     * Gets a job by id
+     *
+     * @return The job, or null if it does not exist or has expired
+     */
+    public ComparisonJob getJob(String jobId) {
+        return jobs.get(jobId);
+    }
+
+    /**
+     * Writes a job's results as newline-delimited JSON, following the job until it finishes.
+     * A failed job ends the stream with an error line.
+     *
+     * @param job The job
+     * @param out The response stream
+     * @throws IOException If the client disconnects or the stream is interrupted
+     */
+    public void streamResults(ComparisonJob job, OutputStream out) throws IOException {
+        int written = 0;
+        try {
+            while (true) {
+                boolean finished = job.isFinished();
+                List<String> lines = job.awaitResults(written, STREAM_POLL_MILLIS);
+                for (String line : lines) {
+                    out.write(line.getBytes(StandardCharsets.UTF_8));
+                    out.write('\n');
+                }
+                if (!lines.isEmpty()) {
+                    out.flush();
+                    written += lines.size();
+                } else if (finished) {
+                    break;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Result stream was interrupted", e);
+        }
+
+        if (job.getStatus() == ComparisonJob.Status.FAILED) {
+            try (JsonGenerator generator = ComparisonJson.createGenerator(out, false)) {
+                generator.writeStartObject();
+                generator.writeStringField("type", "error");
+                generator.writeStringField("error", job.getError());
+                generator.writeEndObject();
+            }
+            out.write('\n');
+            out.flush();
+        }
+    }
+
+    /**
+     * Jobs waiting for a worker and jobs held in memory
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("queued", getQueuedJobCount());
+        stats.put("running", getRunningJobCount());
+        stats.put("remainingCapacity", executor.getQueue().remainingCapacity());
+        stats.put("jobs", jobs.size());
+        return stats;
+    }
+
+    public int getQueuedJobCount() {
+        return executor.getQueue().size();
+    }
+
+    public int getRunningJobCount() {
+        return executor.getActiveCount();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        expiryScheduler.shutdownNow();
+        executor.shutdownNow();
+        jobs.values().forEach(ComparisonJob::discardResults);
+        jobs.clear();
+    }
+
+    private ComparisonJob submit(ComparisonJob job, JobTask task) {
+        removeExpiredJobs();
+        jobs.put(job.getId(), job);
+        try {
+            executor.execute(() -> run(job, task));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(job.getId());
+            throw e;
+        }
+        return job;
+    }
+
+    private void run(ComparisonJob job, JobTask task) {
+        job.markRunning();
+        try {
+            task.run();
+            job.complete();
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Comparison job " + job.getId() + " failed: " + e.getMessage());
+            job.fail(e.getMessage());
+        }
+    }
+
+    /**
+     * Drops finished jobs whose retention period has passed, deleting any spilled results
+     */
+    void removeExpiredJobs() {
+        long cutoff = System.currentTimeMillis() - retentionMillis;
+        jobs.values().removeIf(job -> {
+            if (job.isFinished() && job.getFinishedAt() < cutoff) {
+                job.discardResults();
+                return true;
+            }
+            return false;
+        });
+    }
+
+    /**
+     * Tracks a job's progress as its documents are loaded and compared, publishing each comparison
+     */
+    private static DocumentService.ReconciliationListener progressListener(ComparisonJob job) {
+        return new DocumentService.ReconciliationListener() {
+            @Override
+            public void onDocumentsListed(int documentCount) {
+                job.setDocumentsTotal(documentCount);
+            }
+
+            @Override
+            public void onDocumentLoaded(TradeDocument document) {
+                job.documentLoaded();
+            }
+
+            @Override
+            public void onComparisonScheduled() {
+                job.comparisonScheduled();
+            }
+
+            @Override
+            public void onComparisonCompleted(DocumentComparison comparison) {
+                job.comparisonCompleted();
+                job.addResult(comparisonLine(comparison));
+            }
+        };
+    }
+
+    private static String comparisonLine(DocumentComparison comparison) {
+        return ComparisonJson.write(generator -> {
+            generator.writeStartObject();
+            generator.writeStringField("type", "comparison");
+            comparison.writeJsonFields(generator);
+            generator.writeEndObject();
+        }, false);
+    }
+
+    /**
+     * The work performed by a job
+     */
+    @FunctionalInterface
+    private interface JobTask {
+        void run() throws IOException;
+    }
+}
\ No newline at end of file
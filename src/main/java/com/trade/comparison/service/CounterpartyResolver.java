@@ -0,0 +1,274 @@
+package com.trade.comparison.service;
+
+import com.trade.comparison.service.similarity.SimilarityMeasure;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Resolves counterparty names to canonical counterparty ids from a local reference file of legal
+ * names and aliases, so "ACME Fin. Svcs Ltd" and "Acme Financial Services" compare as the same party.
+ * Names are normalized (case, punctuation, legal suffixes such as Ltd/Inc/LLC, common desk
+ * abbreviations) before lookup. An exact normalized match, with or without spaces between words,
+ * is a hash lookup; otherwise candidates are found through a precomputed trigram index, so a lookup
+ * only visits names sharing a trigram with the query rather than scanning the whole reference list.
+ * <p>
+ * The reference file has one name per line as {@code counterpartyId,name}; an id may appear on
+ * several lines (legal name and aliases). Blank lines and lines starting with {@code #} are ignored.
+ */
+@Component
+public class CounterpartyResolver implements SimilarityMeasure {
+
+    private static final Set<String> LEGAL_SUFFIXES = Set.of(
+            "ltd", "limited", "inc", "incorporated", "llc", "plc", "corp", "corporation", "co", "company",
+            "ag", "aktiengesellschaft", "sa", "gmbh", "nv", "bv", "lp", "llp", "pte", "pty", "srl", "spa");
+
+    private static final Set<String> STOP_WORDS = Set.of("the", "and", "of");
+
+    private static final Map<String, String> ABBREVIATIONS = Map.ofEntries(
+            Map.entry("fin", "financial"),
+            Map.entry("finl", "financial"),
+            Map.entry("svc", "services"),
+            Map.entry("svcs", "services"),
+            Map.entry("serv", "services"),
+            Map.entry("servs", "services"),
+            Map.entry("intl", "international"),
+            Map.entry("mgmt", "management"),
+            Map.entry("cap", "capital"),
+            Map.entry("bk", "bank"),
+            Map.entry("grp", "group"),
+            Map.entry("hldg", "holdings"),
+            Map.entry("hldgs", "holdings"),
+            Map.entry("natl", "national"),
+            Map.entry("assoc", "associates"),
+            Map.entry("ptnrs", "partners"),
+            Map.entry("prtnrs", "partners"),
+            Map.entry("secs", "securities"),
+            Map.entry("mkts", "markets"),
+            Map.entry("bros", "brothers"));
+
+    private final double minSimilarity;
+
+    // Normalized name -> counterparty id, and the same without spaces ("Euro Bank" vs "EuroBank")
+    private final Map<String, String> idsByName = new HashMap<>();
+    private final Map<String, String> idsByCompactName = new HashMap<>();
+    // Reference names by position, with the id and number of distinct trigrams of each
+    private final List<String> nameIds = new ArrayList<>();
+    private int[] trigramCounts = new int[0];
+    // Trigram -> positions of the reference names containing it
+    private final Map<String, int[]> trigramIndex = new HashMap<>();
+
+    /**
+     * Creates a resolver without reference data; names are still compared after normalization
+     */
+    public CounterpartyResolver() {
+        this.minSimilarity = 0.8;
+    }
+
+    /**
+     * @param referenceFile Path to the counterparty reference file; empty for none
+     * @param minSimilarity Smallest trigram similarity at which a name resolves to a reference name
+     */
+    @Autowired
+    public CounterpartyResolver(@Value("${trade.comparison.counterparty.reference-file:}") String referenceFile,
+                                @Value("${trade.comparison.counterparty.min-similarity:0.8}") double minSimilarity) {
+        this.minSimilarity = minSimilarity;
+        if (referenceFile != null && !referenceFile.trim().isEmpty()) {
+            try {
+                load(Paths.get(referenceFile.trim()));
+            } catch (IOException e) {
+                System.err.println("Error loading counterparty reference file " + referenceFile + ": " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Loads reference names and builds the trigram index
+     */
+    private void load(Path referenceFile) throws IOException {
+        Map<String, List<Integer>> postings = new HashMap<>();
+        List<Integer> counts = new ArrayList<>();
+        try (BufferedReader reader = Files.newBufferedReader(referenceFile, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                int comma = line.indexOf(',');
+                if (line.isBlank() || line.startsWith("#") || comma <= 0) {
+                    continue;
+                }
+                String id = line.substring(0, comma).trim();
+                String name = normalize(line.substring(comma + 1));
+                if (id.isEmpty() || name.isEmpty() || idsByName.putIfAbsent(name, id) != null) {
+                    continue;
+                }
+                idsByCompactName.putIfAbsent(compact(name), id);
+
+                int position = nameIds.size();
+                nameIds.add(id);
+                Set<String> trigrams = trigrams(name);
+                counts.add(trigrams.size());
+                for (String trigram : trigrams) {
+                    postings.computeIfAbsent(trigram, key -> new ArrayList<>()).add(position);
+                }
+            }
+        }
+
+        trigramCounts = counts.stream().mapToInt(Integer::intValue).toArray();
+        postings.forEach((trigram, positions) ->
+                trigramIndex.put(trigram, positions.stream().mapToInt(Integer::intValue).toArray()));
+    }
+
+    /**
+     * Resolves a counterparty name to its canonical id
+     *
+     * @param name Counterparty name as written in a document
+     * @return The counterparty id, or null if no reference name is close enough
+     */
+    public String resolve(String name) {
+        String normalized = normalize(name);
+        if (normalized.isEmpty()) {
+            return null;
+        }
+        String id = idsByName.get(normalized);
+        if (id == null) {
+            id = idsByCompactName.get(compact(normalized));
+        }
+        return id != null ? id : resolveFuzzy(normalized);
+    }
+
+    private String resolveFuzzy(String normalized) {
+        if (trigramIndex.isEmpty()) {
+            return null;
+        }
+        Set<String> trigrams = trigrams(normalized);
+        Map<Integer, Integer> shared = new HashMap<>();
+        for (String trigram : trigrams) {
+            int[] positions = trigramIndex.get(trigram);
+            if (positions != null) {
+                for (int position : positions) {
+                    shared.merge(position, 1, Integer::sum);
+                }
+            }
+        }
+
+        String bestId = null;
+        double bestScore = minSimilarity;
+        for (Map.Entry<Integer, Integer> candidate : shared.entrySet()) {
+            double score = dice(candidate.getValue(), trigrams.size(), trigramCounts[candidate.getKey()]);
+            if (score >= bestScore) {
+                bestScore = score;
+                bestId = nameIds.get(candidate.getKey());
+            }
+        }
+        return bestId;
+    }
+
+    /**
+     * Scores two counterparty names: 1.0 if they resolve to the same id and 0.0 if they resolve to
+     * different ids; otherwise the trigram similarity of their normalized forms
+     */
+    @Override
+    public double getSimilarity(String text1, String text2) {
+        if (text1 == null || text2 == null) {
+            return 0.0;
+        }
+        String id1 = resolve(text1);
+        String id2 = resolve(text2);
+        if (id1 != null && id2 != null) {
+            return id1.equals(id2) ? 1.0 : 0.0;
+        }
+
+        String normalized1 = normalize(text1);
+        String normalized2 = normalize(text2);
+        if (normalized1.isEmpty() || normalized2.isEmpty()) {
+            return 0.0;
+        }
+        if (compact(normalized1).equals(compact(normalized2))) {
+            return 1.0;
+        }
+        Set<String> trigrams1 = trigrams(normalized1);
+        Set<String> trigrams2 = trigrams(normalized2);
+        int shared = 0;
+        for (String trigram : trigrams1) {
+            if (trigrams2.contains(trigram)) {
+                shared++;
+            }
+        }
+        return dice(shared, trigrams1.size(), trigrams2.size());
+    }
+
+    /**
+     * Number of names in the reference data
+     */
+    public int size() {
+        return nameIds.size();
+    }
+
+    /**
+     * Lower-cases, drops punctuation, legal suffixes and filler words, and expands abbreviations,
+     * e.g. "ACME Fin. Svcs Ltd" becomes "acme financial services"
+     */
+    static String normalize(String name) {
+        if (name == null) {
+            return "";
+        }
+        StringBuilder cleaned = new StringBuilder(name.length());
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                cleaned.append(Character.toLowerCase(c));
+            } else if (c != '\'' && c != '’') {
+                // Apostrophes join (Int'l -> intl); other punctuation separates words
+                cleaned.append(' ');
+            }
+        }
+
+        List<String> words = new ArrayList<>();
+        for (String token : cleaned.toString().split(" ")) {
+            if (token.isEmpty() || STOP_WORDS.contains(token)) {
+                continue;
+            }
+            words.add(ABBREVIATIONS.getOrDefault(token, token));
+        }
+        // Suffixes are only dropped after the first word, so a name like "Co" is kept
+        List<String> result = new ArrayList<>(words.size());
+        for (int i = 0; i < words.size(); i++) {
+            if (i == 0 || !LEGAL_SUFFIXES.contains(words.get(i))) {
+                result.add(words.get(i));
+            }
+        }
+        return String.join(" ", result);
+    }
+
+    private static String compact(String normalized) {
+        return normalized.replace(" ", "");
+    }
+
+    /**
+     * Distinct character trigrams of a normalized name, padded so word boundaries count
+     */
+    private static Set<String> trigrams(String normalized) {
+        String padded = " " + normalized + " ";
+        Set<String> trigrams = new HashSet<>();
+        for (int i = 0; i + 3 <= padded.length(); i++) {
+            trigrams.add(padded.substring(i, i + 3));
+        }
+        return trigrams;
+    }
+
+    private static double dice(int shared, int count1, int count2) {
+        return count1 + count2 == 0 ? 0.0 : 2.0 * shared / (count1 + count2);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,84 @@
+package com.trade.comparison.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Caps the number of CPU-bound operations (parsing a document, comparing a pair) running at once.
+ * Batch work is fanned out on virtual threads so that blocking share I/O does not tie up platform
+ * threads, but virtual threads place no bound on concurrency: without a cap, every parse of a
+ * large folder would be in flight at once, competing for the same cores and holding its document
+ * in memory. Callers queue fairly for one of a number of permits sized to the available cores.
+ */
+@Component
+public class CpuWorkLimiter {
+
+    private final int permits;
+    private final Semaphore semaphore;
+
+    public CpuWorkLimiter() {
+        this(0);
+    }
+
+    /**
+     * @param permits Largest number of concurrent CPU-bound operations; 0 uses the number of available processors
+     */
+    @Autowired
+    public CpuWorkLimiter(@Value("${trade.comparison.cpu.max-concurrent-work:0}") int permits) {
+        if (permits < 0) {
+            throw new IllegalArgumentException("Permits must not be negative: " + permits);
+        }
+        this.permits = permits > 0 ? permits : Runtime.getRuntime().availableProcessors();
+        this.semaphore = new Semaphore(this.permits, true);
+    }
+
+    /**
+     * Runs a CPU-bound operation while holding a permit
+     *
+     * @param operation The operation
+     * @return The operation's result
+     * @throws IOException If the operation fails, or the caller is interrupted while waiting for a permit
+     */
+    public <T> T run(CpuOperation<T> operation) throws IOException {
+        try {
+            semaphore.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted waiting for a processor", e);
+        }
+        try {
+            return operation.run();
+        } finally {
+            semaphore.release();
+        }
+    }
+
+    public int getPermits() {
+        return permits;
+    }
+
+    /**
+     * Permits in use and callers waiting
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("permits", permits);
+        stats.put("inUse", permits - semaphore.availablePermits());
+        stats.put("waiting", semaphore.getQueueLength());
+        return stats;
+    }
+
+    /**
+     * A CPU-bound operation
+     */
+    @FunctionalInterface
+    public interface CpuOperation<T> {
+        T run() throws IOException;
+    }
+}
\ No newline at end of file
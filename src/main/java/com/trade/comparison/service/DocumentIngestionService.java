@@ -0,0 +1,372 @@
+package com.trade.comparison.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Background ingestion of documents as they land on the network share.
+ * Configured folders are watched with a {@link WatchService}, or polled when the folder sits on a
+ * network mount (where file-system events are unreliable). New or modified trade agreements and
+ * term sheets are queued and extracted ahead of time on a bounded worker pool, so later comparisons
+ * are answered from the extraction cache and persistent index.
+ * <p>
+ * Watched folders are scanned for existing documents in the background, waiting for room in the
+ * queue rather than dropping documents when it is full. Polls drop what does not fit and queue it
+ * again on the next poll.
+ */
+@Service
+public class DocumentIngestionService {
+
+    /**
+     * How folders are monitored: file-system events, polling, or events unless the folder is on a network mount
+     */
+    public enum Mode {
+        AUTO, WATCH, POLL
+    }
+
+    private static final Set<String> NETWORK_FILE_STORE_TYPES = Set.of(
+            "cifs", "smbfs", "smb2", "smb3", "nfs", "nfs4", "afpfs", "webdav", "fuse.sshfs", "9p");
+
+    private final DocumentService documentService;
+    private final ExtractedFieldIndex extractedFieldIndex;
+    private final List<String> folders;
+    private final Mode mode;
+    private final long pollIntervalMillis;
+    private final int workers;
+    private final int queueCapacity;
+
+    // Path -> time it was queued; doubles as de-duplication of pending work
+    private final Map<String, Long> pending = new ConcurrentHashMap<>();
+    // Path -> size/last-modified seen by the last poll
+    private final Map<String, String> polledStamps = new ConcurrentHashMap<>();
+
+    private final AtomicLong processed = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong lastLagMillis = new AtomicLong();
+
+    private ThreadPoolExecutor workerPool;
+    private ScheduledExecutorService pollScheduler;
+    private ExecutorService scanExecutor;
+    private WatchService watchService;
+    private Thread watchThread;
+
+    @Autowired
+    public DocumentIngestionService(DocumentService documentService,
+                                    ExtractedFieldIndex extractedFieldIndex,
+                                    @Value("${trade.comparison.ingestion.folders:}") List<String> folders,
+                                    @Value("${trade.comparison.ingestion.mode:AUTO}") Mode mode,
+                                    @Value("${trade.comparison.ingestion.poll-interval-ms:30000}") long pollIntervalMillis,
+                                    @Value("${trade.comparison.ingestion.workers:2}") int workers,
+                                    @Value("${trade.comparison.ingestion.queue-capacity:1000}") int queueCapacity) {
+        this.documentService = documentService;
+        this.extractedFieldIndex = extractedFieldIndex;
+        this.folders = new ArrayList<>();
+        for (String folder : folders) {
+            if (folder != null && !folder.trim().isEmpty()) {
+                this.folders.add(folder.trim());
+            }
+        }
+        this.mode = mode;
+        this.pollIntervalMillis = pollIntervalMillis;
+        this.workers = workers;
+        this.queueCapacity = queueCapacity;
+    }
+
+    /**
+     * Starts monitoring the configured folders and queues every document not yet in the index
+     */
+    @PostConstruct
+    public void start() {
+        if (folders.isEmpty()) {
+            return;
+        }
+
+        workerPool = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(queueCapacity), daemonThreads("document-ingestion"));
+        // Workers must be running for documents put straight onto the queue to be taken
+        workerPool.prestartAllCoreThreads();
+        scanExecutor = Executors.newSingleThreadExecutor(daemonThreads("document-ingestion-scan"));
+
+        List<Path> watched = new ArrayList<>();
+        List<Path> polled = new ArrayList<>();
+        for (String folder : folders) {
+            Path path = Paths.get(folder);
+            if (!Files.isDirectory(path)) {
+                System.err.println("Ingestion folder does not exist: " + folder);
+                continue;
+            }
+            if (mode == Mode.POLL || (mode == Mode.AUTO && isNetworkMount(path))) {
+                polled.add(path);
+            } else {
+                watched.add(path);
+            }
+        }
+
+        if (!watched.isEmpty() && !startWatching(watched)) {
+            polled.addAll(watched);
+            watched.clear();
+        }
+        if (!polled.isEmpty()) {
+            pollScheduler = Executors.newSingleThreadScheduledExecutor(daemonThreads("document-ingestion-poll"));
+            pollScheduler.scheduleWithFixedDelay(() -> polled.forEach(this::poll),
+                    0, pollIntervalMillis, TimeUnit.MILLISECONDS);
+        }
+        // Watched folders still need their existing contents ingested once, without holding up startup
+        watched.forEach(folder -> scanExecutor.execute(() -> scan(folder)));
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (watchService != null) {
+            try {
+                watchService.close();
+            } catch (IOException e) {
+                System.err.println("Error closing folder watcher: " + e.getMessage());
+            }
+        }
+        if (watchThread != null) {
+            watchThread.interrupt(); // In case it is waiting for room in the queue
+        }
+        if (pollScheduler != null) {
+            pollScheduler.shutdownNow();
+        }
+        if (scanExecutor != null) {
+            scanExecutor.shutdownNow();
+        }
+        if (workerPool != null) {
+            workerPool.shutdownNow();
+        }
+    }
+
+    /**
+     * Queue depth, lag and throughput of the ingestion pipeline
+     */
+    public Map<String, Object> getStatus() {
+        long now = System.currentTimeMillis();
+        long oldestPending = pending.values().stream().mapToLong(Long::longValue).min().orElse(now);
+
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("folders", folders);
+        status.put("mode", mode);
+        status.put("queueDepth", pending.size());
+        status.put("oldestPendingAgeMillis", now - oldestPending);
+        status.put("lastLagMillis", lastLagMillis.get());
+        status.put("processed", processed.get());
+        status.put("failed", failed.get());
+        status.put("dropped", dropped.get());
+        return status;
+    }
+
+    public int getQueueDepth() {
+        return pending.size();
+    }
+
+    /**
+     * Registers the folders with a watch service
+     *
+     * @return false if file-system events are unavailable and the folders should be polled instead
+     */
+    private boolean startWatching(List<Path> paths) {
+        try {
+            watchService = FileSystems.getDefault().newWatchService();
+            for (Path path : paths) {
+                path.register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                        StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE);
+            }
+        } catch (IOException e) {
+            System.err.println("Folder watching unavailable, polling instead: " + e.getMessage());
+            return false;
+        }
+
+        watchThread = new Thread(this::watchLoop, "document-ingestion-watch");
+        watchThread.setDaemon(true);
+        watchThread.start();
+        return true;
+    }
+
+    private void watchLoop() {
+        try {
+            while (true) {
+                WatchKey key = watchService.take();
+                Path folder = (Path) key.watchable();
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                        // Events were lost; fall back to a full scan of the folder
+                        scanExecutor.execute(() -> scan(folder));
+                        continue;
+                    }
+                    Path file = folder.resolve((Path) event.context());
+                    if (event.kind() == StandardWatchEventKinds.ENTRY_DELETE) {
+                        documentService.evictDocument(file.toString());
+                    } else if (isDocument(file)) {
+                        // While the queue is full, further events wait in the watch service
+                        enqueueAndWait(file);
+                    }
+                }
+                key.reset();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ClosedWatchServiceException e) {
+            // Shutting down
+        }
+    }
+
+    /**
+     * Queues every document in the folder that the index does not hold in its current form,
+     * waiting for room in the queue as needed
+     */
+    private void scan(Path folder) {
+        try (Stream<Path> paths = Files.walk(folder, 1)) {
+            Iterator<Path> documents = paths.filter(Files::isRegularFile)
+                    .filter(this::isDocument)
+                    .filter(path -> !extractedFieldIndex.isCurrent(path.toFile()))
+                    .iterator();
+            while (documents.hasNext()) {
+                enqueueAndWait(documents.next());
+            }
+        } catch (IOException | UncheckedIOException e) {
+            System.err.println("Error scanning ingestion folder " + folder + ": " + e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Compares the folder with the previous poll and queues new or modified documents
+     */
+    private void poll(Path folder) {
+        Set<String> seen = ConcurrentHashMap.newKeySet();
+        try (Stream<Path> paths = Files.walk(folder, 1)) {
+            paths.filter(Files::isRegularFile).filter(this::isDocument).forEach(path -> {
+                File file = path.toFile();
+                String key = file.getAbsolutePath();
+                String stamp = file.length() + ":" + file.lastModified();
+                seen.add(key);
+                if (!stamp.equals(polledStamps.put(key, stamp)) && !extractedFieldIndex.isCurrent(file)) {
+                    enqueue(path);
+                }
+            });
+        } catch (IOException e) {
+            System.err.println("Error polling ingestion folder " + folder + ": " + e.getMessage());
+            return;
+        }
+
+        // Only files directly in this folder; keys of a sibling or nested polled folder are left alone
+        Path folderPath = folder.toAbsolutePath();
+        for (String key : polledStamps.keySet()) {
+            if (folderPath.equals(Paths.get(key).getParent()) && !seen.contains(key)) {
+                polledStamps.remove(key);
+                documentService.evictDocument(key);
+            }
+        }
+    }
+
+    private void enqueue(Path path) {
+        String key = path.toString();
+        long queuedAt = System.currentTimeMillis();
+        if (pending.putIfAbsent(key, queuedAt) != null) {
+            return; // Already queued
+        }
+        try {
+            workerPool.execute(() -> ingest(key, queuedAt));
+        } catch (RejectedExecutionException e) {
+            // Queue is full; forgetting the stamp makes the next poll queue the document again
+            pending.remove(key);
+            polledStamps.remove(path.toFile().getAbsolutePath());
+            dropped.incrementAndGet();
+        }
+    }
+
+    /**
+     * Queues a document, waiting for room in the queue rather than dropping it
+     */
+    private void enqueueAndWait(Path path) throws InterruptedException {
+        String key = path.toString();
+        long queuedAt = System.currentTimeMillis();
+        if (pending.putIfAbsent(key, queuedAt) != null) {
+            return; // Already queued
+        }
+        try {
+            workerPool.getQueue().put(() -> ingest(key, queuedAt));
+        } catch (InterruptedException e) {
+            pending.remove(key);
+            throw e;
+        }
+    }
+
+    private void ingest(String path, long queuedAt) {
+        pending.remove(path);
+        try {
+            if (path.toLowerCase().endsWith(".pdf")) {
+                documentService.loadTradeAgreement(path);
+            } else {
+                documentService.loadTermSheet(path);
+            }
+            processed.incrementAndGet();
+        } catch (IOException | RuntimeException e) {
+            failed.incrementAndGet();
+            System.err.println("Error ingesting document " + path + ": " + e.getMessage());
+        }
+        lastLagMillis.set(System.currentTimeMillis() - queuedAt);
+    }
+
+    private boolean isDocument(Path path) {
+        String name = path.getFileName().toString().toLowerCase();
+        return name.endsWith(".pdf") || name.endsWith(".xlsx");
+    }
+
+    private static boolean isNetworkMount(Path path) {
+        if (path.toString().startsWith("\\\\")) {
+            return true; // UNC path
+        }
+        try {
+            return NETWORK_FILE_STORE_TYPES.contains(Files.getFileStore(path).type().toLowerCase());
+        } catch (IOException e) {
+            return true; // Polling is the safe choice when the mount cannot be inspected
+        }
+    }
+
+    private static ThreadFactory daemonThreads(String name) {
+        AtomicLong counter = new AtomicLong();
+        return runnable -> {
+            Thread thread = new Thread(runnable, name + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
\ No newline at end of file
@@ -1,8 +1,15 @@
 package com.trade.comparison.service;
 
 import com.trade.comparison.model.DocumentComparison;
+import com.trade.comparison.model.ReconciliationSummary;
 import com.trade.comparison.model.TermSheet;
 import com.trade.comparison.model.TradeAgreement;
+import com.trade.comparison.model.TradeDocument;
+import com.trade.comparison.service.similarity.IdentifierSimilarity;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.io.File;
@@ -10,7 +17,18 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -20,6 +38,49 @@ import java.util.stream.Stream;
 @Service
 public class DocumentService {
     
+    private static final ReconciliationListener NO_LISTENER = new ReconciliationListener() {
+    };
+    
+    private final ExtractionCache extractionCache;
+    private final AIDocumentService aiDocumentService;
+    private final TypedFieldComparator typedFieldComparator;
+    private final ExtractedFieldIndex extractedFieldIndex;
+    private final ShareAccessLimiter shareAccessLimiter;
+    private final CpuWorkLimiter cpuWorkLimiter;
+    private final DuplicateDetector duplicateDetector;
+    private final FieldComparisonScheduler fieldComparisonScheduler;
+    private final ObservationRegistry observationRegistry;
+    private final boolean memoryMappedLoading;
+    
+    public DocumentService() {
+        this(new ExtractionCache(), new AIDocumentService(), new TypedFieldComparator(), new ExtractedFieldIndex(),
+                new ShareAccessLimiter(), new CpuWorkLimiter(), new DuplicateDetector(), new FieldComparisonScheduler(),
+                ObservationRegistry.NOOP, false);
+    }
+    
+    /**
+     * @param memoryMappedLoading Whether trade agreements are parsed from memory-mapped or pooled direct
+     *                            buffers; suited to documents staged on local disk
+     */
+    @Autowired
+    public DocumentService(ExtractionCache extractionCache, AIDocumentService aiDocumentService,
+                           TypedFieldComparator typedFieldComparator, ExtractedFieldIndex extractedFieldIndex,
+                           ShareAccessLimiter shareAccessLimiter, CpuWorkLimiter cpuWorkLimiter,
+                           DuplicateDetector duplicateDetector, FieldComparisonScheduler fieldComparisonScheduler,
+                           ObservationRegistry observationRegistry,
+                           @Value("${trade.comparison.loading.memory-mapped:false}") boolean memoryMappedLoading) {
+        this.extractionCache = extractionCache;
+        this.aiDocumentService = aiDocumentService;
+        this.typedFieldComparator = typedFieldComparator;
+        this.extractedFieldIndex = extractedFieldIndex;
+        this.shareAccessLimiter = shareAccessLimiter;
+        this.cpuWorkLimiter = cpuWorkLimiter;
+        this.duplicateDetector = duplicateDetector;
+        this.fieldComparisonScheduler = fieldComparisonScheduler;
+        this.observationRegistry = observationRegistry;
+        this.memoryMappedLoading = memoryMappedLoading;
+    }
+    
     /**
      * Fetches a list of available trade agreement files from the network folder
      * 
@@ -56,13 +117,15 @@ public class DocumentService {
             throw new IOException("Folder does not exist: " + folderPath);
         }
         
-        try (Stream<Path> paths = Files.walk(path, 1)) {
-            return paths
-                    .filter(Files::isRegularFile)
-                    .filter(p -> p.toString().toLowerCase().endsWith(extension.toLowerCase()))
-                    .map(Path::toString)
-                    .collect(Collectors.toList());
-        }
+        return shareAccessLimiter.run(folderPath, () -> {
+            try (Stream<Path> paths = Files.walk(path, 1)) {
+                return paths
+                        .filter(Files::isRegularFile)
+                        .filter(p -> p.toString().toLowerCase().endsWith(extension.toLowerCase()))
+                        .map(Path::toString)
+                        .collect(Collectors.toList());
+            }
+        });
     }
     
     /**
@@ -78,8 +141,8 @@ public class DocumentService {
             throw new IOException("Trade agreement file not found: " + filePath);
         }
         
-        TradeAgreement tradeAgreement = new TradeAgreement(filePath);
-        tradeAgreement.extractFields();
+        TradeAgreement tradeAgreement = new TradeAgreement(filePath, memoryMappedLoading);
+        populateFields(file, tradeAgreement);
         return tradeAgreement;
     }
     
@@ -97,10 +160,146 @@ public class DocumentService {
         }
         
         TermSheet termSheet = new TermSheet(filePath);
-        termSheet.extractFields();
+        populateFields(file, termSheet);
         return termSheet;
     }
     
+    /**
+     * Populates a document's fields from the in-memory cache, then the persistent index (under
+     * its own path, or that of a byte-identical copy), parsing the file only when neither holds
+     * its current contents.
+     * A parsed document is enhanced with NLP entities before its fields are cached and indexed, so
+     * fields loaded later from either store are the enhanced ones.
+     * Reading the file (to hash or parse it) holds a permit for its share, and parsing it also
+     * holds a processor permit.
+     */
+    private void populateFields(File file, TradeDocument document) throws IOException {
+        Map<String, String> cachedFields = extractionCache.get(file);
+        if (cachedFields != null) {
+            document.setExtractedFields(cachedFields);
+            return;
+        }
+        
+        shareAccessLimiter.run(file.getPath(), () -> {
+            readFields(file, document);
+            return null;
+        });
+    }
+    
+    private void readFields(File file, TradeDocument document) throws IOException {
+        Map<String, String> indexedFields = extractedFieldIndex.lookup(file);
+        if (indexedFields != null) {
+            document.setExtractedFields(indexedFields);
+            extractionCache.put(file, file.length(), file.lastModified(), indexedFields);
+            return;
+        }
+        
+        // Hash once, before parsing and under the stamp the fields are recorded with: the hash finds
+        // an identical indexed copy now, and is stored so later copies can find this document
+        long size = file.length();
+        long lastModified = file.lastModified();
+        String contentHash = extractedFieldIndex.contentHash(file, size, lastModified);
+        Map<String, String> identicalFields = extractedFieldIndex.lookupIdentical(file, size, lastModified, contentHash);
+        if (identicalFields != null) {
+            document.setExtractedFields(identicalFields);
+            extractionCache.put(file, size, lastModified, identicalFields);
+            return;
+        }
+        
+        cpuWorkLimiter.run(() -> {
+            document.ensureExtracted();
+            // Fingerprint the text before enhancement releases it, so the fingerprint is stored with the fields
+            document.setSimHash(duplicateDetector.simHash(document));
+            aiDocumentService.enhanceDocumentFields(document);
+            return null;
+        });
+        // Failed extractions yield no fields and are retried on the next load
+        if (!document.getExtractedFields().isEmpty()) {
+            extractionCache.put(file, size, lastModified, document.getExtractedFields());
+            extractedFieldIndex.record(file, size, lastModified, contentHash, document.getExtractedFields());
+        }
+    }
+    
+    /**
+     * Drops a document from the extraction cache and persistent index, e.g. after it was deleted from the share
+     * 
+     * @param filePath Path to the document file
+     */
+    public void evictDocument(String filePath) {
+        File file = new File(filePath);
+        extractionCache.invalidate(file);
+        extractedFieldIndex.remove(file.getAbsolutePath());
+    }
+    
+    /**
+     * Brings the persistent index up to date for a folder: new or changed documents are extracted,
+     * unchanged ones are skipped and documents no longer on the share are dropped
+     * 
+     * @param folderPath Path to a folder of trade agreements and/or term sheets
+     * @return Counts of scanned, unchanged, updated and removed documents
+     * @throws IOException If the folder cannot be accessed or the re-scan is interrupted
+     */
+    public Map<String, Integer> rescanFolder(String folderPath) throws IOException {
+        List<String> agreementPaths = getAvailableTradeAgreements(folderPath);
+        List<String> termSheetPaths = getAvailableTermSheets(folderPath);
+        
+        int unchanged = 0;
+        ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+        try {
+            List<Future<TradeDocument>> updates = new ArrayList<>();
+            for (String path : agreementPaths) {
+                if (extractedFieldIndex.isCurrent(new File(path))) {
+                    unchanged++;
+                } else {
+                    updates.add(executor.submit(() -> loadForBatch(path, this::loadTradeAgreement, TradeAgreement::new)));
+                }
+            }
+            for (String path : termSheetPaths) {
+                if (extractedFieldIndex.isCurrent(new File(path))) {
+                    unchanged++;
+                } else {
+                    updates.add(executor.submit(() -> loadForBatch(path, this::loadTermSheet, TermSheet::new)));
+                }
+            }
+            awaitAll(updates);
+            
+            int removed = 0;
+            for (String indexedPath : extractedFieldIndex.getIndexedPaths(folderPath)) {
+                if (!new File(indexedPath).exists()) {
+                    extractedFieldIndex.remove(indexedPath);
+                    removed++;
+                }
+            }
+            
+            Map<String, Integer> result = new LinkedHashMap<>();
+            result.put("scanned", agreementPaths.size() + termSheetPaths.size());
+            result.put("unchanged", unchanged);
+            result.put("updated", updates.size());
+            result.put("removed", removed);
+            return result;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+    
+    /**
+     * Permits in use and callers waiting for each network share
+     * 
+     * @return Share access statistics keyed by share
+     */
+    public Map<String, Object> getShareAccessStats() {
+        return shareAccessLimiter.getStats();
+    }
+    
+    /**
+     * Metrics for the extracted-field cache
+     * 
+     * @return Hit, miss, eviction and invalidation counts
+     */
+    public Map<String, Object> getExtractionCacheStats() {
+        return extractionCache.getStats();
+    }
+    
     /**
      * Compares a trade agreement and term sheet
      * 
@@ -110,11 +309,330 @@ public class DocumentService {
      * @throws IOException If files cannot be accessed
      */
     public DocumentComparison compareDocuments(String tradeAgreementPath, String termSheetPath) throws IOException {
-        TradeAgreement tradeAgreement = loadTradeAgreement(tradeAgreementPath);
-        TermSheet termSheet = loadTermSheet(termSheetPath);
-        
+        return compareDocuments(tradeAgreementPath, termSheetPath, NO_LISTENER);
+    }
+    
+    /**
+     * Compares a trade agreement and term sheet as {@link #compareDocuments(String, String)} does,
+     * reporting each loaded document and the comparison to a listener as they complete
+     * 
+     * @param tradeAgreementPath Path to the trade agreement file
+     * @param termSheetPath Path to the term sheet file
+     * @param listener Receives progress and the completed comparison
+     * @return DocumentComparison object containing comparison results
+     * @throws IOException If files cannot be accessed
+     */
+    public DocumentComparison compareDocuments(String tradeAgreementPath, String termSheetPath,
+                                               ReconciliationListener listener) throws IOException {
+        // One span per comparison, covering the document loads
+        Observation observation = Observation.createNotStarted("trade.comparison.compare", observationRegistry)
+                .contextualName("compare-documents")
+                .lowCardinalityKeyValue("mode", "single")
+                .start();
+        try (Observation.Scope scope = observation.openScope()) {
+            TradeAgreement tradeAgreement = reportLoaded(loadTradeAgreement(tradeAgreementPath), listener);
+            TermSheet termSheet = reportLoaded(loadTermSheet(termSheetPath), listener);
+            
+            DocumentComparison comparison = newComparison(tradeAgreement, termSheet);
+            listener.onComparisonScheduled();
+            cpuWorkLimiter.run(() -> {
+                comparison.compare();
+                return null;
+            });
+            listener.onComparisonCompleted(comparison);
+            return comparison;
+        } catch (IOException | RuntimeException e) {
+            observation.error(e);
+            throw e;
+        } finally {
+            observation.stop();
+        }
+    }
+    
+    /**
+     * Creates a comparison wired to the AI service, typed field comparator and field scheduler
+     */
+    private DocumentComparison newComparison(TradeAgreement tradeAgreement, TermSheet termSheet) {
         DocumentComparison comparison = new DocumentComparison(tradeAgreement, termSheet);
-        comparison.compare();
+        comparison.setAiService(aiDocumentService);
+        comparison.setTypedFieldComparator(typedFieldComparator);
+        comparison.setFieldScheduler(fieldComparisonScheduler);
         return comparison;
     }
+    
+    /**
+     * Reconciles every trade agreement in one folder against every term sheet in another.
+     * Documents are loaded and compared on virtual threads, with file access bounded per share
+     * and parsing and comparison bounded by the available processors, and paired by their
+     * extracted trade ID. Byte-identical copies are dropped before loading, and of several
+     * documents with the same trade ID only the most recently modified is compared; both are
+     * reported as duplicates.
+     * 
+     * @param tradeAgreementFolder Path to the folder containing trade agreements
+     * @param termSheetFolder Path to the folder containing term sheets
+     * @return ReconciliationSummary with matched, unmatched and orphaned documents
+     * @throws IOException If either folder cannot be accessed or the batch is interrupted
+     */
+    public ReconciliationSummary reconcileFolders(String tradeAgreementFolder, String termSheetFolder) throws IOException {
+        return reconcileFolders(tradeAgreementFolder, termSheetFolder, NO_LISTENER);
+    }
+    
+    /**
+     * Reconciles two folders as {@link #reconcileFolders(String, String)} does, reporting progress
+     * and each comparison to a listener as soon as it completes
+     * 
+     * @param tradeAgreementFolder Path to the folder containing trade agreements
+     * @param termSheetFolder Path to the folder containing term sheets
+     * @param listener Receives progress and completed comparisons; called from worker threads
+     * @return ReconciliationSummary with matched, unmatched, orphaned and duplicate documents
+     * @throws IOException If either folder cannot be accessed or the batch is interrupted
+     */
+    public ReconciliationSummary reconcileFolders(String tradeAgreementFolder, String termSheetFolder,
+                                                  ReconciliationListener listener) throws IOException {
+        List<String> agreementPaths = getAvailableTradeAgreements(tradeAgreementFolder);
+        List<String> termSheetPaths = getAvailableTermSheets(termSheetFolder);
+        
+        ReconciliationSummary summary = new ReconciliationSummary(tradeAgreementFolder, termSheetFolder);
+        summary.setTotalTradeAgreements(agreementPaths.size());
+        summary.setTotalTermSheets(termSheetPaths.size());
+        agreementPaths = dropIdenticalFiles(tradeAgreementFolder, agreementPaths, summary);
+        termSheetPaths = dropIdenticalFiles(termSheetFolder, termSheetPaths, summary);
+        listener.onDocumentsListed(agreementPaths.size() + termSheetPaths.size());
+        
+        ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+        try {
+            List<Future<TradeAgreement>> agreementFutures = new ArrayList<>(agreementPaths.size());
+            for (String path : agreementPaths) {
+                agreementFutures.add(executor.submit(() ->
+                        reportLoaded(loadForBatch(path, this::loadTradeAgreement, TradeAgreement::new), listener)));
+            }
+            List<Future<TermSheet>> termSheetFutures = new ArrayList<>(termSheetPaths.size());
+            for (String path : termSheetPaths) {
+                termSheetFutures.add(executor.submit(() ->
+                        reportLoaded(loadForBatch(path, this::loadTermSheet, TermSheet::new), listener)));
+            }
+            
+            Map<String, TradeAgreement> agreementsByTradeId = indexByTradeId(awaitAll(agreementFutures), summary);
+            Map<String, TermSheet> termSheetsByTradeId = indexByTradeId(awaitAll(termSheetFutures), summary);
+            
+            List<Future<DocumentComparison>> comparisonFutures = new ArrayList<>();
+            for (Map.Entry<String, TradeAgreement> entry : agreementsByTradeId.entrySet()) {
+                TermSheet termSheet = termSheetsByTradeId.remove(entry.getKey());
+                if (termSheet == null) {
+                    summary.addUnmatchedTradeAgreement(entry.getValue().getFilePath());
+                    continue;
+                }
+                
+                TradeAgreement tradeAgreement = entry.getValue();
+                listener.onComparisonScheduled();
+                comparisonFutures.add(executor.submit(() -> {
+                    DocumentComparison comparison = newComparison(tradeAgreement, termSheet);
+                    cpuWorkLimiter.run(() -> {
+                        Observation.createNotStarted("trade.comparison.compare", observationRegistry)
+                                .contextualName("compare-documents")
+                                .lowCardinalityKeyValue("mode", "batch")
+                                .observe(comparison::compare);
+                        return null;
+                    });
+                    listener.onComparisonCompleted(comparison);
+                    return comparison;
+                }));
+            }
+            for (TermSheet termSheet : termSheetsByTradeId.values()) {
+                summary.addUnmatchedTermSheet(termSheet.getFilePath());
+            }
+            
+            for (DocumentComparison comparison : awaitAll(comparisonFutures)) {
+                summary.addMatched(comparison);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        
+        return summary;
+    }
+    
+    /**
+     * Removes byte-identical copies from a folder listing, recording each as a duplicate of the copy kept
+     */
+    private List<String> dropIdenticalFiles(String folderPath, List<String> paths, ReconciliationSummary summary)
+            throws IOException {
+        Map<String, String> identical = shareAccessLimiter.run(folderPath, () -> duplicateDetector.findIdenticalFiles(paths));
+        if (identical.isEmpty()) {
+            return paths;
+        }
+        List<String> remaining = new ArrayList<>(paths.size() - identical.size());
+        for (String path : paths) {
+            String kept = identical.get(path);
+            if (kept == null) {
+                remaining.add(path);
+            } else {
+                summary.addDuplicateDocument(path, kept, ReconciliationSummary.DuplicateReason.IDENTICAL);
+            }
+        }
+        return remaining;
+    }
+    
+    private <T extends TradeDocument> T reportLoaded(T document, ReconciliationListener listener) {
+        listener.onDocumentLoaded(document);
+        return document;
+    }
+    
+    /**
+     * Loads a document for a batch run. A document that fails to parse, or that cannot be read
+     * (e.g. deleted or locked since the folder was listed), is returned without fields so that it
+     * is reported as orphaned instead of aborting the whole batch.
+     * 
+     * @throws IOException If the batch is interrupted
+     */
+    private <T extends TradeDocument> T loadForBatch(String path, DocumentLoader<T> loader, Function<String, T> emptyDocument)
+            throws IOException {
+        try {
+            return loader.load(path);
+        } catch (IOException | RuntimeException e) {
+            // An interrupted wait for the share still cancels the batch
+            if (Thread.currentThread().isInterrupted()) {
+                throw e instanceof IOException ? (IOException) e : new IOException("Batch reconciliation was interrupted", e);
+            }
+            System.err.println("Error loading document for reconciliation " + path + ": " + e.getMessage());
+            return emptyDocument.apply(path);
+        }
+    }
+    
+    /**
+     * Groups documents by trade ID, keeping the most recently modified document of each trade
+     * and recording the earlier revisions as superseded. A document without a trade ID is recorded
+     * as a near-duplicate if its text nearly matches a kept document (or an earlier document
+     * without a trade ID), and as orphaned otherwise.
+     */
+    private <T extends TradeDocument> Map<String, T> indexByTradeId(List<T> documents, ReconciliationSummary summary) {
+        Map<String, T> byTradeId = new LinkedHashMap<>();
+        List<T> withoutTradeId = new ArrayList<>();
+        for (T document : documents) {
+            // Paired by the same rule the trade ID comparison applies, ignoring case and separators
+            String tradeId = IdentifierSimilarity.key(document.getField("tradeId"));
+            if (tradeId == null) {
+                withoutTradeId.add(document);
+                continue;
+            }
+            T previous = byTradeId.putIfAbsent(tradeId, document);
+            if (previous == null) {
+                continue;
+            }
+            if (lastModified(document) > lastModified(previous)) {
+                byTradeId.put(tradeId, document);
+                dropDuplicate(previous, document, ReconciliationSummary.DuplicateReason.SUPERSEDED, summary);
+            } else {
+                dropDuplicate(document, previous, ReconciliationSummary.DuplicateReason.SUPERSEDED, summary);
+            }
+        }
+        
+        if (!withoutTradeId.isEmpty()) {
+            // Fingerprints of kept documents by band, so each lookup only visits likely near-duplicates
+            Map<Long, List<T>> candidatesByBand = new HashMap<>();
+            Map<T, Long> simHashes = new IdentityHashMap<>();
+            for (T document : byTradeId.values()) {
+                addSimHash(document, simHashes, candidatesByBand);
+            }
+            for (T document : withoutTradeId) {
+                T original = findNearDuplicate(document, simHashes, candidatesByBand);
+                if (original != null) {
+                    dropDuplicate(document, original, ReconciliationSummary.DuplicateReason.NEAR_DUPLICATE, summary);
+                } else {
+                    summary.addOrphanedDocument(document.getFilePath());
+                    addSimHash(document, simHashes, candidatesByBand);
+                }
+            }
+        }
+        return byTradeId;
+    }
+    
+    private <T extends TradeDocument> void addSimHash(T document, Map<T, Long> simHashes, Map<Long, List<T>> candidatesByBand) {
+        long simHash = document.getSimHash();
+        simHashes.put(document, simHash);
+        if (simHash == 0L) {
+            return;
+        }
+        for (long band : duplicateDetector.simHashBands(simHash)) {
+            candidatesByBand.computeIfAbsent(band, key -> new ArrayList<>()).add(document);
+        }
+    }
+    
+    private <T extends TradeDocument> T findNearDuplicate(T document, Map<T, Long> simHashes, Map<Long, List<T>> candidatesByBand) {
+        long simHash = document.getSimHash();
+        if (simHash == 0L) {
+            return null;
+        }
+        for (long band : duplicateDetector.simHashBands(simHash)) {
+            for (T candidate : candidatesByBand.getOrDefault(band, Collections.emptyList())) {
+                if (duplicateDetector.isNearDuplicate(simHash, simHashes.get(candidate))) {
+                    return candidate;
+                }
+            }
+        }
+        return null;
+    }
+    
+    private static void dropDuplicate(TradeDocument duplicate, TradeDocument kept,
+                                      ReconciliationSummary.DuplicateReason reason, ReconciliationSummary summary) {
+        summary.addDuplicateDocument(duplicate.getFilePath(), kept.getFilePath(), reason);
+        duplicate.releaseRawText();
+    }
+    
+    private static long lastModified(TradeDocument document) {
+        return new File(document.getFilePath()).lastModified();
+    }
+    
+    /**
+     * Waits for every submitted task, preserving submission order
+     */
+    private <T> List<T> awaitAll(List<Future<T>> futures) throws IOException {
+        List<T> results = new ArrayList<>(futures.size());
+        try {
+            for (Future<T> future : futures) {
+                results.add(future.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Batch reconciliation was interrupted", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw new IOException("Batch reconciliation failed: " + e.getCause().getMessage(), e.getCause());
+        }
+        return results;
+    }
+    
+    /**
+     * Receives progress of a batch reconciliation or single comparison. Methods are called from worker threads.
+     */
+    public interface ReconciliationListener {
+        
+        /**
+         * Called once the folders have been listed, with the number of documents to load
+         */
+        default void onDocumentsListed(int documentCount) {
+        }
+        
+        default void onDocumentLoaded(TradeDocument document) {
+        }
+        
+        /**
+         * Called for each pair of documents as its comparison is scheduled
+         */
+        default void onComparisonScheduled() {
+        }
+        
+        default void onComparisonCompleted(DocumentComparison comparison) {
+        }
+    }
+    
+    /**
+     * Loads a single document from a file path
+     */
+    @FunctionalInterface
+    private interface DocumentLoader<T extends TradeDocument> {
+        T load(String filePath) throws IOException;
+    }
 }
\ No newline at end of file
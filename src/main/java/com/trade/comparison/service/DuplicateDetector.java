@@ -0,0 +1,284 @@
+package com.trade.comparison.service;
+
+import com.trade.comparison.model.RawText;
+import com.trade.comparison.model.TradeDocument;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Finds copies of the same document on the share so a batch parses and compares each document once.
+ * Byte-identical files are found in stages that only read more of a file when the cheaper stage
+ * could not tell it apart: file size, then a hash of the first and last blocks, then a full hash.
+ * Near-duplicates (e.g. a re-sent agreement saved by another tool) are found with a 64-bit SimHash
+ * of the document text: documents whose fingerprints differ in at most a few bits are near-duplicates.
+ * The fingerprint is always computed from the raw text, once, when a document is extracted, and is
+ * kept with its fields so fingerprints of parsed, cached and indexed documents are comparable.
+ * Text of only a few words is not fingerprinted, as too few shingles make unrelated texts collide.
+ */
+@Component
+public class DuplicateDetector {
+
+    /**
+     * Bytes read from each end of a file for the partial hash
+     */
+    private static final int EDGE_BLOCK_BYTES = 64 * 1024;
+
+    /**
+     * Words per shingle hashed into the SimHash
+     */
+    private static final int SHINGLE_WORDS = 3;
+
+    private static final HexFormat HEX = HexFormat.of();
+
+    private final int maxSimHashDistance;
+    private final int minSimHashWords;
+
+    public DuplicateDetector() {
+        this(3);
+    }
+
+    public DuplicateDetector(int maxSimHashDistance) {
+        this(maxSimHashDistance, 20);
+    }
+
+    /**
+     * @param maxSimHashDistance Largest number of differing fingerprint bits at which two documents are near-duplicates
+     * @param minSimHashWords Fewest words a document's text needs to be fingerprinted
+     */
+    @Autowired
+    public DuplicateDetector(@Value("${trade.comparison.duplicates.simhash-max-distance:3}") int maxSimHashDistance,
+                             @Value("${trade.comparison.duplicates.simhash-min-words:20}") int minSimHashWords) {
+        this.maxSimHashDistance = maxSimHashDistance;
+        this.minSimHashWords = minSimHashWords;
+    }
+
+    /**
+     * Finds byte-identical files. Of each group of identical files the most recently modified is kept.
+     *
+     * @param paths Files to check
+     * @return Each redundant copy mapped to the file kept in its place; empty if all files differ
+     * @throws IOException If a file cannot be read
+     */
+    public Map<String, String> findIdenticalFiles(List<String> paths) throws IOException {
+        Map<Long, List<File>> bySize = new HashMap<>();
+        for (String path : paths) {
+            File file = new File(path);
+            bySize.computeIfAbsent(file.length(), size -> new ArrayList<>()).add(file);
+        }
+
+        Map<String, String> duplicates = new LinkedHashMap<>();
+        for (List<File> sameSize : bySize.values()) {
+            if (sameSize.size() < 2) {
+                continue;
+            }
+            for (List<File> sameEdges : groupBy(sameSize, DuplicateDetector::edgeHash)) {
+                for (List<File> identical : groupBy(sameEdges, DuplicateDetector::fullHash)) {
+                    identical.sort(Comparator.comparingLong(File::lastModified).reversed()
+                            .thenComparing(File::getPath));
+                    String kept = identical.get(0).getPath();
+                    for (int i = 1; i < identical.size(); i++) {
+                        duplicates.put(identical.get(i).getPath(), kept);
+                    }
+                }
+            }
+        }
+        return duplicates;
+    }
+
+    /**
+     * Computes the SimHash fingerprint of a document from the raw text captured when it was extracted,
+     * to be stored with its fields. Call before the raw text is released.
+     *
+     * @return The fingerprint, or 0 if the document has no raw text or too few words
+     */
+    public long simHash(TradeDocument document) {
+        RawText rawText = document.getRawText();
+        if (rawText == null) {
+            return 0L;
+        }
+        try {
+            List<String> words = words(rawText.getText());
+            return words.size() >= minSimHashWords ? simHash(words) : 0L;
+        } catch (IOException e) {
+            System.err.println("Error reading raw text of " + document.getFileName() + ": " + e.getMessage());
+            return 0L;
+        }
+    }
+
+    /**
+     * Computes a 64-bit SimHash over word shingles of the text, ignoring case and punctuation
+     *
+     * @return The fingerprint, or 0 if the text has no words
+     */
+    static long simHash(String text) {
+        return simHash(words(text));
+    }
+
+    /**
+     * Splits text into lower-cased words of letters and digits
+     */
+    private static List<String> words(String text) {
+        List<String> words = new ArrayList<>();
+        StringBuilder word = new StringBuilder();
+        for (int i = 0; i <= text.length(); i++) {
+            char c = i < text.length() ? text.charAt(i) : ' ';
+            if (Character.isLetterOrDigit(c)) {
+                word.append(Character.toLowerCase(c));
+            } else if (word.length() > 0) {
+                words.add(word.toString());
+                word.setLength(0);
+            }
+        }
+        return words;
+    }
+
+    private static long simHash(List<String> words) {
+        if (words.isEmpty()) {
+            return 0L;
+        }
+
+        int[] weights = new int[64];
+        int shingles = Math.max(1, words.size() - SHINGLE_WORDS + 1);
+        for (int i = 0; i < shingles; i++) {
+            long hash = shingleHash(words, i, Math.min(words.size(), i + SHINGLE_WORDS));
+            for (int bit = 0; bit < 64; bit++) {
+                weights[bit] += ((hash >>> bit) & 1L) != 0 ? 1 : -1;
+            }
+        }
+
+        long fingerprint = 0L;
+        for (int bit = 0; bit < 64; bit++) {
+            if (weights[bit] > 0) {
+                fingerprint |= 1L << bit;
+            }
+        }
+        return fingerprint;
+    }
+
+    /**
+     * Whether two fingerprints are close enough for their documents to be near-duplicates.
+     * Documents without text (fingerprint 0) are never near-duplicates.
+     */
+    public boolean isNearDuplicate(long simHash1, long simHash2) {
+        return simHash1 != 0L && simHash2 != 0L && Long.bitCount(simHash1 ^ simHash2) <= maxSimHashDistance;
+    }
+
+    /**
+     * Splits a fingerprint into bands for a lookup table of near-duplicate candidates: two fingerprints
+     * within the maximum distance share at least one band, as the differing bits cannot touch every band
+     *
+     * @return One key per band, each tagged with its band number
+     */
+    public long[] simHashBands(long simHash) {
+        int bands = maxSimHashDistance + 1;
+        int bandBits = 64 / bands;
+        long[] keys = new long[bands];
+        for (int band = 0; band < bands; band++) {
+            int shift = band * bandBits;
+            int bits = band == bands - 1 ? 64 - shift : bandBits;
+            long mask = bits == 64 ? -1L : (1L << bits) - 1;
+            keys[band] = ((simHash >>> shift) & mask) * bands + band;
+        }
+        return keys;
+    }
+
+    /**
+     * FNV-1a over the words of a shingle
+     */
+    private static long shingleHash(List<String> words, int from, int to) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = from; i < to; i++) {
+            String word = words.get(i);
+            for (int j = 0; j < word.length(); j++) {
+                hash ^= word.charAt(j);
+                hash *= 0x100000001b3L;
+            }
+            hash ^= ' ';
+            hash *= 0x100000001b3L;
+        }
+        // Final avalanche so every bit depends on every character
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+
+    private static List<List<File>> groupBy(List<File> files, FileHasher hasher) throws IOException {
+        Map<String, List<File>> groups = new HashMap<>();
+        for (File file : files) {
+            groups.computeIfAbsent(hasher.hash(file), hash -> new ArrayList<>()).add(file);
+        }
+        List<List<File>> result = new ArrayList<>();
+        for (List<File> group : groups.values()) {
+            if (group.size() > 1) {
+                result.add(group);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Hash of the first and last blocks of a file; files too small to have separate ends are hashed whole
+     */
+    private static String edgeHash(File file) throws IOException {
+        MessageDigest digest = newDigest();
+        byte[] block = new byte[EDGE_BLOCK_BYTES];
+        try (RandomAccessFile in = new RandomAccessFile(file, "r")) {
+            long length = in.length();
+            int read = (int) Math.min(length, EDGE_BLOCK_BYTES);
+            in.readFully(block, 0, read);
+            digest.update(block, 0, read);
+            if (length > 2L * EDGE_BLOCK_BYTES) {
+                in.seek(length - EDGE_BLOCK_BYTES);
+                in.readFully(block);
+                digest.update(block);
+            } else if (length > EDGE_BLOCK_BYTES) {
+                int rest = (int) (length - EDGE_BLOCK_BYTES);
+                in.readFully(block, 0, rest);
+                digest.update(block, 0, rest);
+            }
+        }
+        return HEX.formatHex(digest.digest());
+    }
+
+    private static String fullHash(File file) throws IOException {
+        MessageDigest digest = newDigest();
+        byte[] buffer = new byte[EDGE_BLOCK_BYTES];
+        try (InputStream in = Files.newInputStream(file.toPath())) {
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                digest.update(buffer, 0, read);
+            }
+        }
+        return HEX.formatHex(digest.digest());
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    @FunctionalInterface
+    private interface FileHasher {
+        String hash(File file) throws IOException;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,431 @@
+package com.trade.comparison.service;
+
+import com.trade.comparison.model.FieldStore;
+import jakarta.annotation.PreDestroy;
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiConsumer;
+
+/**
+ * Persistent index of extracted document fields, so a restart does not mean re-parsing every document.
+ * Each document is recorded with its path, size, last-modified time, SHA-256 content hash and the
+ * SimHash fingerprint of its text.
+ * The index is an append-only log of JSON lines under a configurable directory; it is replayed
+ * into memory on startup (last record per path wins) and compacted when it has grown stale.
+ * Documents are also indexed by content, so a byte-identical copy saved under another name
+ * reuses the fields already extracted instead of being parsed again.
+ */
+@Component
+public class ExtractedFieldIndex {
+
+    private static final String LOG_FILE_NAME = "extracted-fields.log";
+
+    /**
+     * Compact the log on startup once it holds this many times more records than live entries
+     */
+    private static final int COMPACTION_RATIO = 2;
+
+    private final Path logFile;
+    private final Map<String, IndexEntry> entries = new ConcurrentHashMap<>();
+    // Size -> number of indexed documents of that size, and "size:sha256" -> a path with that content,
+    // so a content lookup is skipped when no indexed document could be identical
+    private final Map<Long, Integer> sizeCounts = new ConcurrentHashMap<>();
+    private final Map<String, String> pathsByContent = new ConcurrentHashMap<>();
+    // Guards the log writer; a lock rather than a monitor so virtual threads do not pin while writing
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private BufferedWriter writer;
+    // Notified of every recorded document (with its fields) and every removal (with null fields)
+    private final List<BiConsumer<String, Map<String, String>>> listeners = new CopyOnWriteArrayList<>();
+
+    /**
+     * Creates an in-memory index that is not persisted
+     */
+    public ExtractedFieldIndex() {
+        this.logFile = null;
+    }
+
+    @Autowired
+    public ExtractedFieldIndex(@Value("${trade.comparison.index.dir:}") String indexDirectory) throws IOException {
+        if (indexDirectory == null || indexDirectory.trim().isEmpty()) {
+            this.logFile = null;
+            return;
+        }
+        Path directory = Paths.get(indexDirectory);
+        Files.createDirectories(directory);
+        this.logFile = directory.resolve(LOG_FILE_NAME);
+        load();
+    }
+
+    /**
+     * Whether the index is written to disk
+     */
+    public boolean isPersistent() {
+        return logFile != null;
+    }
+
+    /**
+     * Looks up the fields recorded for a file. A file whose size and last-modified time are unchanged
+     * is current. A file with the same size but a new last-modified time (e.g. re-copied to the share)
+     * is hashed, and still counts as current if its content is unchanged.
+     *
+     * @param file The document file
+     * @return A copy of the recorded fields, or null if the file is not indexed or has changed
+     */
+    public Map<String, String> lookup(File file) {
+        IndexEntry entry = entries.get(file.getAbsolutePath());
+        if (entry == null) {
+            return null;
+        }
+
+        long size = file.length();
+        long lastModified = file.lastModified();
+        if (entry.size == size && entry.lastModified == lastModified) {
+            return new FieldStore(entry.fields);
+        }
+        if (entry.size != size || entry.contentHash == null) {
+            return null;
+        }
+
+        try {
+            if (entry.contentHash.equals(hash(file))) {
+                // Same content: remember the new timestamp so the next lookup is cheap
+                append(new IndexEntry(entry.path, size, lastModified, entry.contentHash, entry.fields));
+                return new FieldStore(entry.fields);
+            }
+        } catch (IOException e) {
+            System.err.println("Error hashing indexed document " + file + ": " + e.getMessage());
+        }
+        return null;
+    }
+
+    /**
+     * Computes the SHA-256 content hash of a file as it was when its size and last-modified time
+     * were observed. Callers hash a new document once, before parsing it, and pass the hash to both
+     * {@link #lookupIdentical} and {@link #record}.
+     *
+     * @param file The document file
+     * @param size File size observed before hashing
+     * @param lastModified Last-modified time observed before hashing
+     * @return The hash, or null if the file cannot be read or changed while it was hashed
+     */
+    public String contentHash(File file, long size, long lastModified) {
+        try {
+            String contentHash = hash(file);
+            if (file.length() == size && file.lastModified() == lastModified) {
+                return contentHash;
+            }
+        } catch (IOException e) {
+            System.err.println("Error hashing document " + file + ": " + e.getMessage());
+        }
+        return null;
+    }
+
+    /**
+     * Looks up the fields recorded for another document with exactly the same content as a file,
+     * e.g. an agreement re-sent under a new name. A match is recorded under the file's own path,
+     * so the next lookup is direct.
+     *
+     * @param file The document file
+     * @param size File size observed before hashing
+     * @param lastModified Last-modified time observed before hashing
+     * @param contentHash The file's content hash from {@link #contentHash}, or null if unknown
+     * @return A copy of the identical document's fields, or null if no indexed document is identical
+     */
+    public Map<String, String> lookupIdentical(File file, long size, long lastModified, String contentHash) {
+        if (contentHash == null || !sizeCounts.containsKey(size)) {
+            return null;
+        }
+        String identicalPath = pathsByContent.get(contentKey(size, contentHash));
+        IndexEntry identical = identicalPath != null ? entries.get(identicalPath) : null;
+        // The entry may have been replaced since the content lookup
+        if (identical == null || identical.size != size || !contentHash.equals(identical.contentHash)) {
+            return null;
+        }
+        append(new IndexEntry(file.getAbsolutePath(), size, lastModified, contentHash, identical.fields));
+        return new FieldStore(identical.fields);
+    }
+
+    /**
+     * Whether the index holds fields for the file as it currently is on disk, judged by size and last-modified time
+     */
+    public boolean isCurrent(File file) {
+        IndexEntry entry = entries.get(file.getAbsolutePath());
+        return entry != null && entry.size == file.length() && entry.lastModified == file.lastModified();
+    }
+
+    /**
+     * Records the fields extracted from a file, hashing it first
+     *
+     * @param file The document file
+     * @param size File size observed before extraction
+     * @param lastModified Last-modified time observed before extraction
+     * @param fields The extracted fields
+     */
+    public void record(File file, long size, long lastModified, Map<String, String> fields) {
+        record(file, size, lastModified, contentHash(file, size, lastModified), fields);
+    }
+
+    /**
+     * Records the fields extracted from a file
+     *
+     * @param file The document file
+     * @param size File size observed before extraction
+     * @param lastModified Last-modified time observed before extraction
+     * @param contentHash Content hash taken under the same size and last-modified time, or null if unknown
+     * @param fields The extracted fields
+     */
+    public void record(File file, long size, long lastModified, String contentHash, Map<String, String> fields) {
+        append(new IndexEntry(file.getAbsolutePath(), size, lastModified, contentHash, new FieldStore(fields)));
+    }
+
+    /**
+     * Removes a document from the index, e.g. after it was deleted from the share
+     */
+    public void remove(String path) {
+        if (entries.containsKey(path)) {
+            append(IndexEntry.removed(path));
+        }
+    }
+
+    /**
+     * Paths of all indexed documents directly in a folder; documents in sub-folders or in sibling
+     * folders sharing its name as a prefix are not included
+     */
+    public List<String> getIndexedPaths(String folderPath) {
+        Path folder = Paths.get(folderPath).toAbsolutePath();
+        List<String> paths = new ArrayList<>();
+        for (String path : entries.keySet()) {
+            if (folder.equals(Paths.get(path).getParent())) {
+                paths.add(path);
+            }
+        }
+        return paths;
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Registers a listener for changes to the index, e.g. to maintain a secondary index.
+     * The listener is first called for every document already indexed, then for each later
+     * record (with the document's fields) or removal (with null fields). Calls are serialized
+     * with writes to the index, so listeners should only update in-memory state.
+     *
+     * @param listener Called with the document path and its fields, or null fields on removal
+     */
+    public void addListener(BiConsumer<String, Map<String, String>> listener) {
+        writeLock.lock();
+        try {
+            listeners.add(listener);
+            entries.forEach((path, entry) -> listener.accept(path, entry.fields));
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        writeLock.lock();
+        try {
+            if (writer != null) {
+                writer.close();
+                writer = null;
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private void append(IndexEntry entry) {
+        writeLock.lock();
+        try {
+            apply(entry);
+            for (BiConsumer<String, Map<String, String>> listener : listeners) {
+                listener.accept(entry.path, entry.fields);
+            }
+            if (logFile == null) {
+                return;
+            }
+            if (writer == null) {
+                writer = Files.newBufferedWriter(logFile, StandardCharsets.UTF_8,
+                        StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            }
+            writer.write(entry.toJson());
+            writer.newLine();
+            writer.flush();
+        } catch (IOException e) {
+            System.err.println("Error writing extracted-field index: " + e.getMessage());
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Replays the log into memory and compacts it if most records are superseded
+     */
+    private void load() throws IOException {
+        if (!Files.exists(logFile)) {
+            return;
+        }
+
+        int records = 0;
+        try (BufferedReader reader = Files.newBufferedReader(logFile, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isEmpty()) {
+                    continue;
+                }
+                records++;
+                try {
+                    apply(IndexEntry.fromJson(line));
+                } catch (JSONException e) {
+                    // A torn final line after a crash is skipped; the document is simply re-extracted
+                    System.err.println("Skipping unreadable extracted-field index record: " + e.getMessage());
+                }
+            }
+        }
+
+        if (records > COMPACTION_RATIO * entries.size()) {
+            compact();
+        }
+    }
+
+    private void compact() throws IOException {
+        Path compacted = logFile.resolveSibling(LOG_FILE_NAME + ".tmp");
+        writeLock.lock();
+        try {
+            try (BufferedWriter out = Files.newBufferedWriter(compacted, StandardCharsets.UTF_8)) {
+                for (IndexEntry entry : entries.values()) {
+                    out.write(entry.toJson());
+                    out.newLine();
+                }
+            }
+            Files.move(compacted, logFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Applies a record to the in-memory entries and content index
+     */
+    private void apply(IndexEntry entry) {
+        IndexEntry previous = entry.fields == null ? entries.remove(entry.path) : entries.put(entry.path, entry);
+        if (previous != null) {
+            sizeCounts.computeIfPresent(previous.size, (size, count) -> count > 1 ? count - 1 : null);
+            if (previous.contentHash != null) {
+                pathsByContent.remove(contentKey(previous.size, previous.contentHash), previous.path);
+            }
+        }
+        if (entry.fields != null) {
+            sizeCounts.merge(entry.size, 1, Integer::sum);
+            if (entry.contentHash != null) {
+                pathsByContent.putIfAbsent(contentKey(entry.size, entry.contentHash), entry.path);
+            }
+        }
+    }
+
+    private static String contentKey(long size, String contentHash) {
+        return size + ":" + contentHash;
+    }
+
+    private static String hash(File file) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+        byte[] buffer = new byte[64 * 1024];
+        try (InputStream in = Files.newInputStream(file.toPath())) {
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                digest.update(buffer, 0, read);
+            }
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    /**
+     * One log record: a document's attributes and fields, or a removal marker (null fields)
+     */
+    private static class IndexEntry {
+        private final String path;
+        private final long size;
+        private final long lastModified;
+        private final String contentHash;
+        private final FieldStore fields;
+
+        IndexEntry(String path, long size, long lastModified, String contentHash, FieldStore fields) {
+            this.path = path;
+            this.size = size;
+            this.lastModified = lastModified;
+            this.contentHash = contentHash;
+            this.fields = fields;
+        }
+
+        static IndexEntry removed(String path) {
+            return new IndexEntry(path, -1, -1, null, null);
+        }
+
+        String toJson() {
+            JSONObject json = new JSONObject();
+            json.put("path", path);
+            if (fields == null) {
+                json.put("removed", true);
+                return json.toString();
+            }
+            json.put("size", size);
+            json.put("lastModified", lastModified);
+            if (contentHash != null) {
+                json.put("sha256", contentHash);
+            }
+            if (fields.getSimHash() != 0L) {
+                json.put("simHash", fields.getSimHash());
+            }
+            json.put("fields", new JSONObject(fields));
+            return json.toString();
+        }
+
+        static IndexEntry fromJson(String line) {
+            JSONObject json = new JSONObject(line);
+            String path = json.getString("path");
+            if (json.optBoolean("removed")) {
+                return removed(path);
+            }
+            JSONObject fieldsJson = json.getJSONObject("fields");
+            FieldStore fields = new FieldStore();
+            for (String key : fieldsJson.keySet()) {
+                fields.put(key, fieldsJson.getString(key));
+            }
+            fields.setSimHash(json.optLong("simHash", 0L));
+            return new IndexEntry(path, json.getLong("size"), json.getLong("lastModified"),
+                    json.optString("sha256", null), fields);
+        }
+    }
+}
\ No newline at end of file
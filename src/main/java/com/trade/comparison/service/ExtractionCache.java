@@ -0,0 +1,169 @@
+package com.trade.comparison.service;
+
+import com.trade.comparison.model.FieldStore;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.File;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Size-bounded LRU cache of extracted document fields.
+ * Entries are keyed by file path and validated against the file size and last-modified time,
+ * so a document that changes on the network share is re-extracted on its next lookup.
+ */
+@Component
+public class ExtractionCache {
+
+    private static final int DEFAULT_MAX_ENTRIES = 10_000;
+
+    private final int maxEntries;
+    private final Map<String, CachedFields> entries;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong invalidations = new AtomicLong();
+
+    public ExtractionCache() {
+        this(DEFAULT_MAX_ENTRIES);
+    }
+
+    @Autowired
+    public ExtractionCache(@Value("${trade.comparison.cache.max-entries:10000}") int maxEntries) {
+        if (maxEntries <= 0) {
+            throw new IllegalArgumentException("Cache size must be positive: " + maxEntries);
+        }
+        this.maxEntries = maxEntries;
+        // Access-ordered map gives least-recently-used eviction
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedFields> eldest) {
+                if (size() > ExtractionCache.this.maxEntries) {
+                    evictions.incrementAndGet();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Looks up the extracted fields for a file
+     *
+     * @param file The document file
+     * @return A copy of the cached fields, or null if the file is not cached or has changed since it was cached
+     */
+    public Map<String, String> get(File file) {
+        String key = file.getAbsolutePath();
+        long size = file.length();
+        long lastModified = file.lastModified();
+
+        synchronized (entries) {
+            CachedFields cached = entries.get(key);
+            if (cached == null) {
+                misses.incrementAndGet();
+                return null;
+            }
+            if (cached.size != size || cached.lastModified != lastModified) {
+                entries.remove(key);
+                invalidations.incrementAndGet();
+                misses.incrementAndGet();
+                return null;
+            }
+            hits.incrementAndGet();
+            return new FieldStore(cached.fields);
+        }
+    }
+
+    /**
+     * Stores the extracted fields for a file. The size and last-modified time should be read
+     * before extraction starts, so a file rewritten during extraction is not cached as current.
+     *
+     * @param file The document file
+     * @param size File size observed before extraction
+     * @param lastModified Last-modified time observed before extraction
+     * @param fields The fields extracted from the file
+     */
+    public void put(File file, long size, long lastModified, Map<String, String> fields) {
+        CachedFields cached = new CachedFields(size, lastModified, new FieldStore(fields));
+        synchronized (entries) {
+            entries.put(file.getAbsolutePath(), cached);
+        }
+    }
+
+    /**
+     * Removes a file from the cache
+     */
+    public void invalidate(File file) {
+        synchronized (entries) {
+            if (entries.remove(file.getAbsolutePath()) != null) {
+                invalidations.incrementAndGet();
+            }
+        }
+    }
+
+    public void clear() {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    public long getEvictionCount() {
+        return evictions.get();
+    }
+
+    public long getInvalidationCount() {
+        return invalidations.get();
+    }
+
+    /**
+     * Snapshot of the cache metrics
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        long hitCount = hits.get();
+        long requestCount = hitCount + misses.get();
+        stats.put("size", size());
+        stats.put("maxEntries", maxEntries);
+        stats.put("hits", hitCount);
+        stats.put("misses", misses.get());
+        stats.put("evictions", evictions.get());
+        stats.put("invalidations", invalidations.get());
+        stats.put("hitRate", requestCount > 0 ? (double) hitCount / requestCount : 0.0);
+        return Collections.unmodifiableMap(stats);
+    }
+
+    /**
+     * Extracted fields together with the file attributes they were extracted from
+     */
+    private static class CachedFields {
+        private final long size;
+        private final long lastModified;
+        private final Map<String, String> fields;
+
+        CachedFields(long size, long lastModified, Map<String, String> fields) {
+            this.size = size;
+            this.lastModified = lastModified;
+            this.fields = fields;
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,161 @@
+package com.trade.comparison.service;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Decides which field comparisons of a document comparison run in parallel, and how long a
+ * comparison may wait for them. Missing, identical and typed fields, and semantic comparisons
+ * estimated to be cheap, are scored inline on the calling thread; a semantic comparison whose
+ * estimated cost reaches the threshold (e.g. edit distance over long clause text) runs on a pool
+ * of scoring threads sized to the available processors, so the latency of a comparison is its
+ * costliest field rather than the sum of all. Fields not scored by the deadline are reported as
+ * timed out and the comparison as partial; their scoring is cancelled by interrupting its thread,
+ * which the similarity measures check as they go. The scoring threads are started by the first
+ * parallel comparison, so schedulers that never see one hold no threads.
+ */
+@Component
+public class FieldComparisonScheduler {
+
+    private final long parallelCostThreshold;
+    private final long deadlineNanos;
+    private final int threads;
+    private volatile ExecutorService executor;
+    private boolean shutdown;
+
+    private final LongAdder inlineFields = new LongAdder();
+    private final LongAdder parallelFields = new LongAdder();
+    private final LongAdder timedOutFields = new LongAdder();
+
+    public FieldComparisonScheduler() {
+        this(4096, 2000);
+    }
+
+    public FieldComparisonScheduler(long parallelCostThreshold, long deadlineMs) {
+        this(parallelCostThreshold, deadlineMs, 0);
+    }
+
+    /**
+     * @param parallelCostThreshold Estimated cost (characters visited) from which a field comparison runs in parallel
+     * @param deadlineMs Longest a comparison waits for its parallel fields, from the start of scoring; 0 waits for all of them
+     * @param threads Scoring threads; 0 uses the number of available processors
+     */
+    @Autowired
+    public FieldComparisonScheduler(@Value("${trade.comparison.fields.parallel-cost-threshold:4096}") long parallelCostThreshold,
+                                    @Value("${trade.comparison.fields.deadline-ms:2000}") long deadlineMs,
+                                    @Value("${trade.comparison.fields.threads:0}") int threads) {
+        if (deadlineMs < 0) {
+            throw new IllegalArgumentException("Deadline must not be negative: " + deadlineMs);
+        }
+        if (threads < 0) {
+            throw new IllegalArgumentException("Threads must not be negative: " + threads);
+        }
+        this.parallelCostThreshold = parallelCostThreshold;
+        this.deadlineNanos = TimeUnit.MILLISECONDS.toNanos(deadlineMs);
+        this.threads = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+    }
+
+    /**
+     * Whether a comparison of the given estimated cost should run in parallel
+     */
+    public boolean shouldRunInParallel(long estimatedCost) {
+        return estimatedCost >= parallelCostThreshold;
+    }
+
+    /**
+     * Queues a field comparison for a scoring thread. Cancelling the returned future with
+     * {@code mayInterruptIfRunning} interrupts the comparison if it has started.
+     */
+    public <T> Future<T> submit(Callable<T> comparison) {
+        parallelFields.increment();
+        return executor().submit(comparison);
+    }
+
+    private ExecutorService executor() {
+        ExecutorService current = executor;
+        if (current == null) {
+            synchronized (this) {
+                current = executor;
+                if (current == null) {
+                    current = Executors.newFixedThreadPool(threads, daemonThreads("field-comparison"));
+                    if (shutdown) {
+                        // Rejects the comparison the same way a pool shut down after creation would
+                        current.shutdown();
+                    }
+                    executor = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    /**
+     * Time a comparison may take before its unfinished fields are reported as timed out
+     *
+     * @return The deadline in nanoseconds, or 0 if comparisons wait for every field
+     */
+    public long getDeadlineNanos() {
+        return deadlineNanos;
+    }
+
+    public void recordInline() {
+        inlineFields.increment();
+    }
+
+    public void recordTimedOut() {
+        timedOutFields.increment();
+    }
+
+    public long getInlineCount() {
+        return inlineFields.sum();
+    }
+
+    public long getParallelCount() {
+        return parallelFields.sum();
+    }
+
+    public long getTimedOutCount() {
+        return timedOutFields.sum();
+    }
+
+    /**
+     * Fields scored inline and in parallel, and fields that missed the deadline
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("inline", getInlineCount());
+        stats.put("parallel", getParallelCount());
+        stats.put("timedOut", getTimedOutCount());
+        return stats;
+    }
+
+    @PreDestroy
+    public synchronized void shutdown() {
+        shutdown = true;
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    private static ThreadFactory daemonThreads(String name) {
+        AtomicLong counter = new AtomicLong();
+        return runnable -> {
+            Thread thread = new Thread(runnable, name + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
\ No newline at end of file
@@ -0,0 +1,236 @@
+package com.trade.comparison.service;
+
+import opennlp.tools.tokenize.Tokenizer;
+import opennlp.tools.util.Span;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Single-pass recognizer for labelled entities ("Trade ID: XYZ789", "Counterparty Acme Corp").
+ * The text is tokenized once; a trie of lower-cased label tokens is walked from each token, and on a
+ * label match the value that follows is captured according to the field's value kind. Values are cut
+ * from the original text, so amounts, dates and multi-word names keep their formatting.
+ */
+class LabelEntityRecognizer {
+
+    /**
+     * How the value after a label is delimited and checked
+     */
+    enum ValueKind {
+        /** Adjacent tokens without whitespace between them, e.g. 2023-01-15, $500,000 or 5.25%; must contain a digit */
+        NUMERIC_RUN,
+        /** Adjacent tokens without whitespace between them, e.g. XYZ789 */
+        IDENTIFIER,
+        /** A three-letter code */
+        CURRENCY_CODE,
+        /** Words up to the end of the line, punctuation ending a clause, or the next label */
+        NAME
+    }
+
+    private static final int MAX_NAME_TOKENS = 8;
+
+    /**
+     * Tokens between a label and its value that are skipped, e.g. "Trade ID: X" or "Trade ID is X"
+     */
+    private static final Set<String> FILLER_TOKENS = Set.of(":", "-", "=", "\"", "'", "is", "was", "of");
+
+    private final Tokenizer tokenizer;
+    private final LabelNode root = new LabelNode();
+
+    LabelEntityRecognizer(Tokenizer tokenizer) {
+        this.tokenizer = tokenizer;
+        addLabel("trade id", "tradeId", ValueKind.IDENTIFIER);
+        addLabel("counterparty", "counterparty", ValueKind.NAME);
+        addLabel("trade date", "tradeDate", ValueKind.NUMERIC_RUN);
+        addLabel("settlement date", "settlementDate", ValueKind.NUMERIC_RUN);
+        addLabel("maturity date", "maturityDate", ValueKind.NUMERIC_RUN);
+        addLabel("currency", "currency", ValueKind.CURRENCY_CODE);
+        addLabel("notional amount", "notionalAmount", ValueKind.NUMERIC_RUN);
+        addLabel("interest rate", "interestRate", ValueKind.NUMERIC_RUN);
+    }
+
+    private void addLabel(String label, String fieldName, ValueKind kind) {
+        String[] tokens = label.split(" ");
+        LabelNode node = root;
+        for (String token : tokens) {
+            node = node.children.computeIfAbsent(token, key -> new LabelNode());
+        }
+        node.fieldName = fieldName;
+        node.kind = kind;
+        node.length = tokens.length;
+    }
+
+    /**
+     * Recognizes labelled entities in one scan over the tokens of the text.
+     * The first valid value found for a field wins, as the header block of a document precedes its body.
+     *
+     * @param text The text to analyze
+     * @return Field name to value
+     */
+    Map<String, String> recognize(String text) {
+        Map<String, String> entities = new HashMap<>();
+        Span[] spans = tokenizer.tokenizePos(text);
+        String[] lowerTokens = new String[spans.length];
+
+        int i = 0;
+        while (i < spans.length) {
+            LabelNode match = matchLabel(text, spans, lowerTokens, i);
+            if (match == null) {
+                i++;
+                continue;
+            }
+            int labelEnd = i + match.length;
+
+            int valueStart = labelEnd;
+            while (valueStart < spans.length && FILLER_TOKENS.contains(lowerToken(text, spans, lowerTokens, valueStart))) {
+                valueStart++;
+            }
+            if (valueStart < spans.length && !entities.containsKey(match.fieldName)) {
+                String value = captureValue(text, spans, lowerTokens, valueStart, match.kind);
+                if (value != null) {
+                    entities.put(match.fieldName, value);
+                }
+            }
+            i = labelEnd;
+        }
+        return entities;
+    }
+
+    /**
+     * Finds the longest label starting at a token
+     *
+     * @return The trie node ending the label, or null if no label starts here
+     */
+    private LabelNode matchLabel(String text, Span[] spans, String[] lowerTokens, int start) {
+        LabelNode node = root;
+        LabelNode match = null;
+        for (int j = start; j < spans.length; j++) {
+            node = node.children.get(lowerToken(text, spans, lowerTokens, j));
+            if (node == null) {
+                break;
+            }
+            if (node.fieldName != null) {
+                match = node;
+            }
+        }
+        return match;
+    }
+
+    private String captureValue(String text, Span[] spans, String[] lowerTokens, int start, ValueKind kind) {
+        switch (kind) {
+            case NUMERIC_RUN: {
+                String run = trimTrailingPunctuation(text.substring(spans[start].getStart(), runEnd(spans, start)));
+                return containsDigit(run) ? run : null;
+            }
+            case IDENTIFIER: {
+                String run = trimTrailingPunctuation(text.substring(spans[start].getStart(), runEnd(spans, start)));
+                return !run.isEmpty() && Character.isLetterOrDigit(run.charAt(0)) ? run : null;
+            }
+            case CURRENCY_CODE: {
+                String token = spans[start].getCoveredText(text).toString();
+                return token.length() == 3 && isLetters(token) ? token.toUpperCase() : null;
+            }
+            case NAME:
+                return captureName(text, spans, lowerTokens, start);
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * End offset of the run of tokens starting at {@code start} that are not separated by whitespace
+     */
+    private static int runEnd(Span[] spans, int start) {
+        int end = spans[start].getEnd();
+        for (int k = start + 1; k < spans.length && spans[k].getStart() == end; k++) {
+            end = spans[k].getEnd();
+        }
+        return end;
+    }
+
+    private String captureName(String text, Span[] spans, String[] lowerTokens, int start) {
+        if (!Character.isLetterOrDigit(text.charAt(spans[start].getStart()))) {
+            return null;
+        }
+        int end = spans[start].getEnd();
+        for (int k = start + 1; k < spans.length && k - start < MAX_NAME_TOKENS; k++) {
+            if (containsLineBreak(text, end, spans[k].getStart())) {
+                break;
+            }
+            char first = text.charAt(spans[k].getStart());
+            if (first == ',' || first == ';' || first == '(' || (first == '.' && isSentenceEnd(spans, k))) {
+                break;
+            }
+            if (matchLabel(text, spans, lowerTokens, k) != null) {
+                // The next label on the same line
+                break;
+            }
+            end = spans[k].getEnd();
+        }
+        return text.substring(spans[start].getStart(), end);
+    }
+
+    /**
+     * A period ends a sentence unless it is glued to the next token (e.g. an abbreviation such as "Co.Ltd")
+     */
+    private static boolean isSentenceEnd(Span[] spans, int k) {
+        return k + 1 >= spans.length || spans[k + 1].getStart() > spans[k].getEnd();
+    }
+
+    private static String lowerToken(String text, Span[] spans, String[] lowerTokens, int index) {
+        String token = lowerTokens[index];
+        if (token == null) {
+            token = text.substring(spans[index].getStart(), spans[index].getEnd()).toLowerCase();
+            lowerTokens[index] = token;
+        }
+        return token;
+    }
+
+    private static boolean containsLineBreak(String text, int from, int to) {
+        for (int k = from; k < to; k++) {
+            char c = text.charAt(k);
+            if (c == '\n' || c == '\r') {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String trimTrailingPunctuation(String value) {
+        int end = value.length();
+        while (end > 0 && ".,;:)".indexOf(value.charAt(end - 1)) >= 0) {
+            end--;
+        }
+        return value.substring(0, end);
+    }
+
+    private static boolean containsDigit(String value) {
+        for (int k = 0; k < value.length(); k++) {
+            if (Character.isDigit(value.charAt(k))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isLetters(String value) {
+        for (int k = 0; k < value.length(); k++) {
+            if (!Character.isLetter(value.charAt(k))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Node of the label trie; a node with a field name ends a label of {@code length} tokens
+     */
+    private static class LabelNode {
+        private final Map<String, LabelNode> children = new HashMap<>();
+        private String fieldName;
+        private ValueKind kind;
+        private int length;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,228 @@
+package com.trade.comparison.service;
+
+import jakarta.annotation.PostConstruct;
+import opennlp.tools.namefind.NameFinderME;
+import opennlp.tools.namefind.TokenNameFinderModel;
+import opennlp.tools.util.Span;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Pool of OpenNLP name finders for organizations, dates and amounts.
+ * Each model is read once, in the background after startup, and shared by a fixed number of
+ * {@link NameFinderME} instances: the model is thread-safe but a finder is not, so a finder is
+ * borrowed for one document's sentences and returned afterwards. At most one document per finder
+ * is searched at once; further callers wait their turn rather than skip the models. Until the models
+ * are loaded callers fall back to the heuristic path, and a model whose finder fails on a document
+ * is skipped for it while the entities found by the other models are kept.
+ */
+@Component
+public class NlpModelPool {
+
+    /**
+     * Whether the models run at all; HEURISTIC keeps extraction to the label pass
+     */
+    public enum Mode {
+        MODEL, HEURISTIC
+    }
+
+    /**
+     * Entity types and the model file each is read from, in the order they run
+     */
+    private static final Map<String, String> MODEL_FILES = new LinkedHashMap<>();
+    static {
+        MODEL_FILES.put("organization", "en-ner-organization.bin");
+        MODEL_FILES.put("date", "en-ner-date.bin");
+        MODEL_FILES.put("money", "en-ner-money.bin");
+    }
+
+    private final Mode mode;
+    private final String modelsDir;
+    private final int poolSize;
+    // One permit per finder set, so a caller holding a permit always finds an idle finder of each model
+    private final Semaphore searches;
+
+    // Entity type -> idle finders; published once all models are loaded
+    private volatile Map<String, BlockingQueue<NameFinderME>> finders = Collections.emptyMap();
+    private volatile boolean ready;
+
+    private final AtomicLong documentsFound = new AtomicLong();
+    private final AtomicLong fallbacks = new AtomicLong();
+
+    public NlpModelPool() {
+        this(Mode.HEURISTIC, "", 1);
+    }
+
+    /**
+     * @param mode MODEL to load and run the name finders, HEURISTIC to skip them
+     * @param modelsDir Folder holding the model files; empty disables the models
+     * @param poolSize Finder instances per model, i.e. documents searched concurrently
+     */
+    @Autowired
+    public NlpModelPool(@Value("${trade.comparison.nlp.mode:MODEL}") Mode mode,
+                        @Value("${trade.comparison.nlp.models-dir:}") String modelsDir,
+                        @Value("${trade.comparison.nlp.pool-size:4}") int poolSize) {
+        this.mode = mode;
+        this.modelsDir = modelsDir != null ? modelsDir.trim() : "";
+        this.poolSize = Math.max(1, poolSize);
+        this.searches = new Semaphore(this.poolSize, true);
+    }
+
+    /**
+     * Loads the models on a background thread so startup is not held up by model I/O
+     */
+    @PostConstruct
+    public void start() {
+        if (mode == Mode.MODEL && !modelsDir.isEmpty()) {
+            Thread.ofVirtual().name("nlp-model-loader").start(this::load);
+        }
+    }
+
+    /**
+     * Reads each available model once and creates its finders. Missing model files are skipped
+     * and reported in one line; the pool becomes ready if at least one model loaded.
+     */
+    void load() {
+        if (!Files.isDirectory(Paths.get(modelsDir))) {
+            System.err.println("No NLP models folder at " + modelsDir + "; entities are extracted from labels only");
+            return;
+        }
+
+        Map<String, BlockingQueue<NameFinderME>> loaded = new LinkedHashMap<>();
+        List<String> missing = new ArrayList<>();
+        for (Map.Entry<String, String> entry : MODEL_FILES.entrySet()) {
+            Path modelFile = Paths.get(modelsDir, entry.getValue());
+            if (!Files.isRegularFile(modelFile)) {
+                missing.add(entry.getValue());
+                continue;
+            }
+            try (InputStream in = Files.newInputStream(modelFile)) {
+                TokenNameFinderModel model = new TokenNameFinderModel(in);
+                BlockingQueue<NameFinderME> pool = new ArrayBlockingQueue<>(poolSize);
+                for (int i = 0; i < poolSize; i++) {
+                    pool.add(new NameFinderME(model));
+                }
+                loaded.put(entry.getKey(), pool);
+            } catch (IOException e) {
+                System.err.println("Error loading NLP model " + modelFile + ": " + e.getMessage());
+            }
+        }
+        if (!missing.isEmpty()) {
+            System.err.println("NLP models not found in " + modelsDir + ", skipping their entities: " + missing);
+        }
+        finders = loaded;
+        ready = !loaded.isEmpty();
+    }
+
+    /**
+     * Whether name finders are available; false in HEURISTIC mode and while the models are loading
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Runs every loaded name finder over the sentences of one document, waiting while as many documents
+     * as there are finders are already being searched. A finder is borrowed per model for the whole batch, so
+     * its adaptive data only spans the one document. If a model fails, the entities of the models
+     * that succeeded are still returned and the document is counted as a fallback.
+     *
+     * @param sentences Tokens of each sentence
+     * @return Entity spans of each sentence, typed by entity (e.g. organization), in token indices;
+     *         or null if the pool is not ready or the caller was interrupted while waiting
+     */
+    public List<List<Span>> findEntities(List<String[]> sentences) {
+        if (!ready) {
+            return null;
+        }
+        try {
+            searches.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            fallbacks.incrementAndGet();
+            return null;
+        }
+
+        List<List<Span>> entities = new ArrayList<>(sentences.size());
+        for (int i = 0; i < sentences.size(); i++) {
+            entities.add(new ArrayList<>());
+        }
+
+        boolean complete = true;
+        try {
+            for (Map.Entry<String, BlockingQueue<NameFinderME>> entry : finders.entrySet()) {
+                BlockingQueue<NameFinderME> pool = entry.getValue();
+                NameFinderME finder = pool.poll();
+                if (finder == null) {
+                    complete = false;
+                    continue;
+                }
+                try {
+                    // Collect the model's spans first, so a failure part-way adds none of them
+                    List<Span[]> found = new ArrayList<>(sentences.size());
+                    for (String[] sentence : sentences) {
+                        found.add(finder.find(sentence));
+                    }
+                    for (int i = 0; i < found.size(); i++) {
+                        entities.get(i).addAll(Arrays.asList(found.get(i)));
+                    }
+                } catch (RuntimeException e) {
+                    complete = false;
+                    System.err.println("NLP name finder for " + entry.getKey() + " entities failed: " + e.getMessage());
+                } finally {
+                    finder.clearAdaptiveData();
+                    pool.offer(finder);
+                }
+            }
+        } finally {
+            searches.release();
+        }
+
+        if (complete) {
+            documentsFound.incrementAndGet();
+        } else {
+            fallbacks.incrementAndGet();
+        }
+        return entities;
+    }
+
+    /**
+     * Documents for which at least one model's entities were unavailable
+     */
+    public long getFallbackCount() {
+        return fallbacks.get();
+    }
+
+    /**
+     * Loaded models, idle finders and how often callers fell back to the heuristic path
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("mode", mode.name());
+        stats.put("ready", ready);
+        Map<String, Integer> idle = new LinkedHashMap<>();
+        finders.forEach((type, pool) -> idle.put(type, pool.size()));
+        stats.put("idleFinders", idle);
+        stats.put("documents", documentsFound.get());
+        stats.put("waiting", searches.getQueueLength());
+        stats.put("fallbacks", fallbacks.get());
+        return stats;
+    }
+}
\ No newline at end of file
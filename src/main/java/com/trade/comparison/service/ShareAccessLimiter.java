@@ -0,0 +1,110 @@
+package com.trade.comparison.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Caps the number of concurrent blocking operations against each network share.
+ * With request handling on virtual threads, concurrency is no longer bounded by the servlet
+ * thread pool, so every listing and parse of a document takes a permit from the semaphore of
+ * the share (file store) it lives on. Callers queue fairly for a permit rather than flooding the NAS.
+ */
+@Component
+public class ShareAccessLimiter {
+
+    private static final int DEFAULT_PERMITS_PER_SHARE = 8;
+
+    private final int permitsPerShare;
+
+    // Folder -> share key, so the file store is only resolved once per folder
+    private final Map<Path, String> shareByFolder = new ConcurrentHashMap<>();
+    private final Map<String, Semaphore> permitsByShare = new ConcurrentHashMap<>();
+
+    public ShareAccessLimiter() {
+        this(DEFAULT_PERMITS_PER_SHARE);
+    }
+
+    /**
+     * @param permitsPerShare Largest number of concurrent operations against one share
+     */
+    @Autowired
+    public ShareAccessLimiter(@Value("${trade.comparison.share.max-concurrent-io:8}") int permitsPerShare) {
+        if (permitsPerShare <= 0) {
+            throw new IllegalArgumentException("Permits per share must be positive: " + permitsPerShare);
+        }
+        this.permitsPerShare = permitsPerShare;
+    }
+
+    /**
+     * Runs a blocking operation on a file or folder while holding a permit for its share
+     *
+     * @param path The file or folder the operation touches
+     * @param operation The operation
+     * @return The operation's result
+     * @throws IOException If the operation fails, or the caller is interrupted while waiting for a permit
+     */
+    public <T> T run(String path, ShareOperation<T> operation) throws IOException {
+        String share = resolveShare(Paths.get(path).toAbsolutePath());
+        Semaphore permits = permitsByShare.computeIfAbsent(share, key -> new Semaphore(permitsPerShare, true));
+        try {
+            permits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted waiting for access to share " + share, e);
+        }
+        try {
+            return operation.run();
+        } finally {
+            permits.release();
+        }
+    }
+
+    /**
+     * Permits in use and callers waiting, per share
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        for (Map.Entry<String, Semaphore> entry : permitsByShare.entrySet()) {
+            Map<String, Object> share = new LinkedHashMap<>();
+            share.put("permits", permitsPerShare);
+            share.put("inUse", permitsPerShare - entry.getValue().availablePermits());
+            share.put("waiting", entry.getValue().getQueueLength());
+            stats.put(entry.getKey(), share);
+        }
+        return stats;
+    }
+
+    /**
+     * Identifies the share a path lives on: the file store of its folder, or the path root
+     * (e.g. \\server\share for a UNC path) when the file store cannot be inspected
+     */
+    private String resolveShare(Path path) {
+        Path folder = Files.isDirectory(path) || path.getParent() == null ? path : path.getParent();
+        return shareByFolder.computeIfAbsent(folder, key -> {
+            try {
+                return Files.getFileStore(key).toString();
+            } catch (IOException e) {
+                Path root = key.getRoot();
+                return root != null ? root.toString() : key.toString();
+            }
+        });
+    }
+
+    /**
+     * A blocking operation against a share
+     */
+    @FunctionalInterface
+    public interface ShareOperation<T> {
+        T run() throws IOException;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,123 @@
+package com.trade.comparison.service;
+
+import com.trade.comparison.metrics.PipelineMetrics;
+import com.trade.comparison.metrics.PipelineMetrics.MatchTier;
+
+/**
+ * Scores a pair of field values through three tiers, stopping at the first that decides:
+ * <ol>
+ *   <li>exact: the values are identical once case, whitespace runs, currency symbols and commas
+ *       are ignored, checked by walking both strings without allocating</li>
+ *   <li>typed: amounts, rates, dates and currencies parsed and compared by value</li>
+ *   <li>semantic: the similarity measure selected for the field</li>
+ * </ol>
+ * Most fields of a matching pair of documents resolve in the first tier, so the costlier tiers
+ * only run for values that actually differ. Each resolution is counted per tier; values that differ
+ * when there is no semantic tier are counted as unresolved.
+ */
+public class TieredFieldMatcher {
+
+    private final TypedFieldComparator typedFieldComparator;
+    private final AIDocumentService aiService;
+
+    /**
+     * @param typedFieldComparator Comparator for the typed tier, or null to skip it
+     * @param aiService Service for the semantic tier, or null to score values that differ as 0
+     */
+    public TieredFieldMatcher(TypedFieldComparator typedFieldComparator, AIDocumentService aiService) {
+        this.typedFieldComparator = typedFieldComparator;
+        this.aiService = aiService;
+    }
+
+    /**
+     * Scores two values using the exact and typed tiers, and the semantic tier when it is not available
+     *
+     * @return The score, or null if only the semantic tier can decide
+     */
+    public Double matchWithoutSemantics(String fieldName, String value1, String value2) {
+        if (equalsIgnoringFormatting(value1, value2)) {
+            PipelineMetrics.fieldResolved(MatchTier.EXACT);
+            return 1.0;
+        }
+        Double typedScore = typedFieldComparator != null ? typedFieldComparator.compare(fieldName, value1, value2) : null;
+        if (typedScore != null) {
+            PipelineMetrics.fieldResolved(MatchTier.TYPED);
+            return typedScore;
+        }
+        if (aiService == null) {
+            // Without a semantic tier, values that differ after normalization do not match
+            PipelineMetrics.fieldResolved(MatchTier.UNRESOLVED);
+            return 0.0;
+        }
+        return null;
+    }
+
+    /**
+     * Estimated cost of the semantic tier for two values, in characters visited
+     */
+    public long estimateSemanticCost(String fieldName, String value1, String value2) {
+        return aiService != null ? aiService.estimateSimilarityCost(fieldName, value1, value2) : 0L;
+    }
+
+    /**
+     * Scores two values with the semantic tier, for values {@link #matchWithoutSemantics} left undecided
+     */
+    public double matchSemantically(String fieldName, String value1, String value2) {
+        if (aiService == null) {
+            PipelineMetrics.fieldResolved(MatchTier.UNRESOLVED);
+            return 0.0;
+        }
+        PipelineMetrics.fieldResolved(MatchTier.SEMANTIC);
+        return aiService.calculateSemanticSimilarity(fieldName, value1, value2);
+    }
+
+    /**
+     * Whether two values are equal ignoring case, currency symbols ($, €, £), commas, leading and
+     * trailing whitespace and the length of whitespace runs, e.g. "USD 1,000,000" and "usd  1000000".
+     * Identical strings are recognized without walking them.
+     */
+    public static boolean equalsIgnoringFormatting(String value1, String value2) {
+        if (value1 == null || value2 == null) {
+            return false;
+        }
+        if (value1.equals(value2)) {
+            return true;
+        }
+
+        int length1 = value1.length();
+        int length2 = value2.length();
+        int i = 0;
+        int j = 0;
+        boolean started = false;
+        while (true) {
+            // Move both sides to their next significant character, noting any whitespace crossed
+            boolean space1 = false;
+            while (i < length1 && isSkipped(value1.charAt(i))) {
+                space1 |= Character.isWhitespace(value1.charAt(i));
+                i++;
+            }
+            boolean space2 = false;
+            while (j < length2 && isSkipped(value2.charAt(j))) {
+                space2 |= Character.isWhitespace(value2.charAt(j));
+                j++;
+            }
+            if (i == length1 || j == length2) {
+                return i == length1 && j == length2;
+            }
+            // Whitespace only separates words; before the first character it is trimmed
+            if (started && space1 != space2) {
+                return false;
+            }
+            char c1 = value1.charAt(i++);
+            char c2 = value2.charAt(j++);
+            if (c1 != c2 && Character.toLowerCase(c1) != Character.toLowerCase(c2)) {
+                return false;
+            }
+            started = true;
+        }
+    }
+
+    private static boolean isSkipped(char c) {
+        return c == '$' || c == '€' || c == '£' || c == ',' || Character.isWhitespace(c);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,286 @@
+package com.trade.comparison.service;
+
+import com.trade.comparison.service.similarity.IdentifierSimilarity;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * In-memory index from trade ID to the trade agreements and term sheets that carry it, so the
+ * documents of a trade are paired with one lookup instead of by file name. The index follows the
+ * {@link ExtractedFieldIndex}: it is built from the documents already indexed on startup and kept up
+ * to date as documents are extracted, re-extracted or removed (including by background ingestion).
+ * Trade IDs are keyed ignoring case and separators, as {@link IdentifierSimilarity} compares them.
+ * A trade with more than one document on a side is reported as a duplicate, or as a conflict when
+ * those documents disagree on the counterparty or trade date.
+ */
+@Component
+public class TradeIdIndex {
+
+    /**
+     * Which side of the comparison a document is on, judged by its file type
+     */
+    public enum Side {
+        TRADE_AGREEMENT, TERM_SHEET
+    }
+
+    // Trade ID -> documents of the trade; entries are immutable and replaced on every change
+    private final Map<String, TradeEntry> trades = new ConcurrentHashMap<>();
+    // Document path -> trade ID it is indexed under
+    private final Map<String, String> tradeIdByPath = new ConcurrentHashMap<>();
+    private final ReentrantLock updateLock = new ReentrantLock();
+
+    /**
+     * Creates an empty index that is fed through {@link #update(String, Map)}
+     */
+    public TradeIdIndex() {
+    }
+
+    @Autowired
+    public TradeIdIndex(ExtractedFieldIndex extractedFieldIndex) {
+        extractedFieldIndex.addListener(this::update);
+    }
+
+    /**
+     * Indexes a document under its trade ID, moving it if its trade ID changed
+     *
+     * @param path Absolute path of the document
+     * @param fields Extracted fields, or null if the document was removed
+     */
+    public void update(String path, Map<String, String> fields) {
+        Side side = sideOf(path);
+        if (side == null) {
+            return;
+        }
+        String tradeId = fields != null ? IdentifierSimilarity.key(fields.get("tradeId")) : null;
+
+        updateLock.lock();
+        try {
+            String previousTradeId = tradeIdByPath.remove(path);
+            if (previousTradeId != null) {
+                trades.computeIfPresent(previousTradeId, (key, entry) -> entry.without(path));
+            }
+            if (tradeId != null) {
+                IndexedDocument document = new IndexedDocument(path, side, fields.get("counterparty"), fields.get("tradeDate"));
+                trades.compute(tradeId, (key, entry) -> (entry != null ? entry : new TradeEntry(key)).with(document));
+                tradeIdByPath.put(path, tradeId);
+            }
+        } finally {
+            updateLock.unlock();
+        }
+    }
+
+    /**
+     * Gets the documents indexed for a trade
+     *
+     * @param tradeId The trade ID
+     * @return The trade's documents, or null if none are indexed
+     */
+    public TradeEntry get(String tradeId) {
+        String key = IdentifierSimilarity.key(tradeId);
+        return key != null ? trades.get(key) : null;
+    }
+
+    /**
+     * Trades with duplicate or conflicting documents on either side
+     */
+    public List<TradeEntry> getTradesWithIssues() {
+        List<TradeEntry> issues = new ArrayList<>();
+        for (TradeEntry entry : trades.values()) {
+            if (entry.hasDuplicates()) {
+                issues.add(entry);
+            }
+        }
+        return issues;
+    }
+
+    /**
+     * Number of indexed trades
+     */
+    public int size() {
+        return trades.size();
+    }
+
+    private static Side sideOf(String path) {
+        String lowerPath = path.toLowerCase();
+        if (lowerPath.endsWith(".pdf")) {
+            return Side.TRADE_AGREEMENT;
+        }
+        if (lowerPath.endsWith(".xlsx")) {
+            return Side.TERM_SHEET;
+        }
+        return null;
+    }
+
+    /**
+     * A document of a trade with the fields used to tell duplicates from conflicts
+     */
+    public static final class IndexedDocument {
+        private final String path;
+        private final Side side;
+        private final String counterparty;
+        private final String tradeDate;
+
+        IndexedDocument(String path, Side side, String counterparty, String tradeDate) {
+            this.path = path;
+            this.side = side;
+            this.counterparty = counterparty;
+            this.tradeDate = tradeDate;
+        }
+
+        public String getPath() {
+            return path;
+        }
+
+        public Side getSide() {
+            return side;
+        }
+
+        public String getCounterparty() {
+            return counterparty;
+        }
+
+        public String getTradeDate() {
+            return tradeDate;
+        }
+
+        boolean agreesWith(IndexedDocument other) {
+            return Objects.equals(normalize(counterparty), normalize(other.counterparty))
+                    && Objects.equals(normalize(tradeDate), normalize(other.tradeDate));
+        }
+
+        private static String normalize(String value) {
+            return value != null ? value.trim().toLowerCase() : null;
+        }
+
+        Map<String, Object> toMap() {
+            Map<String, Object> map = new LinkedHashMap<>();
+            map.put("path", path);
+            map.put("counterparty", counterparty);
+            map.put("tradeDate", tradeDate);
+            return map;
+        }
+    }
+
+    /**
+     * The trade agreements and term sheets indexed under one trade ID. Immutable.
+     */
+    public static final class TradeEntry {
+        private final String tradeId;
+        private final List<IndexedDocument> tradeAgreements;
+        private final List<IndexedDocument> termSheets;
+
+        TradeEntry(String tradeId) {
+            this(tradeId, Collections.emptyList(), Collections.emptyList());
+        }
+
+        private TradeEntry(String tradeId, List<IndexedDocument> tradeAgreements, List<IndexedDocument> termSheets) {
+            this.tradeId = tradeId;
+            this.tradeAgreements = tradeAgreements;
+            this.termSheets = termSheets;
+        }
+
+        public String getTradeId() {
+            return tradeId;
+        }
+
+        public List<IndexedDocument> getTradeAgreements() {
+            return tradeAgreements;
+        }
+
+        public List<IndexedDocument> getTermSheets() {
+            return termSheets;
+        }
+
+        /**
+         * Whether the trade has exactly one trade agreement and one term sheet
+         */
+        public boolean isPaired() {
+            return tradeAgreements.size() == 1 && termSheets.size() == 1;
+        }
+
+        /**
+         * Whether either side has more than one document
+         */
+        public boolean hasDuplicates() {
+            return tradeAgreements.size() > 1 || termSheets.size() > 1;
+        }
+
+        /**
+         * Whether documents on the same side disagree on the counterparty or trade date
+         */
+        public boolean hasConflicts() {
+            return disagree(tradeAgreements) || disagree(termSheets);
+        }
+
+        private static boolean disagree(List<IndexedDocument> documents) {
+            for (int i = 1; i < documents.size(); i++) {
+                if (!documents.get(i).agreesWith(documents.get(0))) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        TradeEntry with(IndexedDocument document) {
+            if (document.getSide() == Side.TRADE_AGREEMENT) {
+                return new TradeEntry(tradeId, append(tradeAgreements, document), termSheets);
+            }
+            return new TradeEntry(tradeId, tradeAgreements, append(termSheets, document));
+        }
+
+        /**
+         * The entry without a document, or null if that leaves it empty
+         */
+        TradeEntry without(String path) {
+            List<IndexedDocument> agreements = removePath(tradeAgreements, path);
+            List<IndexedDocument> sheets = removePath(termSheets, path);
+            return agreements.isEmpty() && sheets.isEmpty() ? null : new TradeEntry(tradeId, agreements, sheets);
+        }
+
+        private static List<IndexedDocument> append(List<IndexedDocument> documents, IndexedDocument document) {
+            List<IndexedDocument> result = new ArrayList<>(documents.size() + 1);
+            result.addAll(documents);
+            result.add(document);
+            return Collections.unmodifiableList(result);
+        }
+
+        private static List<IndexedDocument> removePath(List<IndexedDocument> documents, String path) {
+            List<IndexedDocument> result = new ArrayList<>(documents.size());
+            for (IndexedDocument document : documents) {
+                if (!document.getPath().equals(path)) {
+                    result.add(document);
+                }
+            }
+            return result.size() == documents.size() ? documents : Collections.unmodifiableList(result);
+        }
+
+        /**
+         * The entry as a response body: pairing status and the documents on each side
+         */
+        public Map<String, Object> toMap() {
+            Map<String, Object> map = new LinkedHashMap<>();
+            map.put("tradeId", tradeId);
+            map.put("status", hasConflicts() ? "CONFLICT" : hasDuplicates() ? "DUPLICATE" : isPaired() ? "PAIRED" : "UNPAIRED");
+            map.put("tradeAgreements", toMaps(tradeAgreements));
+            map.put("termSheets", toMaps(termSheets));
+            return map;
+        }
+
+        private static List<Map<String, Object>> toMaps(List<IndexedDocument> documents) {
+            List<Map<String, Object>> maps = new ArrayList<>(documents.size());
+            for (IndexedDocument document : documents) {
+                maps.add(document.toMap());
+            }
+            return maps;
+        }
+    }
+}
\ No newline at end of file
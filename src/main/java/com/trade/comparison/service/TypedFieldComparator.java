@@ -0,0 +1,247 @@
+package com.trade.comparison.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.util.Currency;
+import java.util.Map;
+
+/**
+ * Compares well-known fields by their typed value instead of their text:
+ * notional amounts as decimals, interest rates in basis points, dates as calendar dates
+ * and currencies as ISO 4217 codes. Each type has a configurable tolerance.
+ */
+@Component
+public class TypedFieldComparator {
+
+    /**
+     * Value types with a dedicated comparison
+     */
+    public enum FieldType {
+        AMOUNT, RATE, DATE, CURRENCY
+    }
+
+    private static final Map<String, FieldType> FIELD_TYPES = Map.of(
+            "notionalAmount", FieldType.AMOUNT,
+            "interestRate", FieldType.RATE,
+            "tradeDate", FieldType.DATE,
+            "settlementDate", FieldType.DATE,
+            "maturityDate", FieldType.DATE,
+            "currency", FieldType.CURRENCY
+    );
+
+    private static final BigDecimal BASIS_POINTS_PER_PERCENT = BigDecimal.valueOf(100);
+
+    private final BigDecimal amountTolerance;
+    private final BigDecimal rateToleranceBps;
+    private final long dateToleranceDays;
+    private final DateTimeFormatter slashDateFormat;
+
+    public TypedFieldComparator() {
+        this(new BigDecimal("0.01"), BigDecimal.ZERO, 0, false);
+    }
+
+    /**
+     * @param amountTolerance Largest absolute difference at which two amounts still match
+     * @param rateToleranceBps Largest difference in basis points at which two rates still match
+     * @param dateToleranceDays Largest difference in days at which two dates still match
+     * @param dayFirst Whether dd/dd/yyyy dates are day-first (dd/MM/yyyy) rather than month-first (MM/dd/yyyy)
+     */
+    @Autowired
+    public TypedFieldComparator(@Value("${trade.comparison.typed.amount-tolerance:0.01}") BigDecimal amountTolerance,
+                                @Value("${trade.comparison.typed.rate-tolerance-bps:0}") BigDecimal rateToleranceBps,
+                                @Value("${trade.comparison.typed.date-tolerance-days:0}") long dateToleranceDays,
+                                @Value("${trade.comparison.typed.day-first:false}") boolean dayFirst) {
+        this.amountTolerance = amountTolerance;
+        this.rateToleranceBps = rateToleranceBps;
+        this.dateToleranceDays = dateToleranceDays;
+        this.slashDateFormat = DateTimeFormatter.ofPattern(dayFirst ? "dd/MM/yyyy" : "MM/dd/yyyy");
+    }
+
+    /**
+     * Gets the value type of a field
+     *
+     * @return The type, or null if the field is compared as text
+     */
+    public FieldType getFieldType(String fieldName) {
+        return FIELD_TYPES.get(fieldName);
+    }
+
+    /**
+     * Compares two values of a typed field
+     *
+     * @param fieldName Standardized field name
+     * @param value1 First value
+     * @param value2 Second value
+     * @return 1.0 if the values match within tolerance, 0.0 if they do not, or null if the field
+     *         is not typed or either value cannot be parsed (the caller should fall back to text comparison)
+     */
+    public Double compare(String fieldName, String value1, String value2) {
+        FieldType type = FIELD_TYPES.get(fieldName);
+        if (type == null || value1 == null || value2 == null) {
+            return null;
+        }
+
+        switch (type) {
+            case AMOUNT: {
+                BigDecimal amount1 = parseAmount(value1);
+                BigDecimal amount2 = parseAmount(value2);
+                if (amount1 == null || amount2 == null) {
+                    return null;
+                }
+                return score(amount1.subtract(amount2).abs().compareTo(amountTolerance) <= 0);
+            }
+            case RATE: {
+                BigDecimal rate1 = parseRateBps(value1);
+                BigDecimal rate2 = parseRateBps(value2);
+                if (rate1 == null || rate2 == null) {
+                    return null;
+                }
+                return score(rate1.subtract(rate2).abs().compareTo(rateToleranceBps) <= 0);
+            }
+            case DATE: {
+                LocalDate date1 = parseDate(value1);
+                LocalDate date2 = parseDate(value2);
+                if (date1 == null || date2 == null) {
+                    return null;
+                }
+                return score(Math.abs(ChronoUnit.DAYS.between(date1, date2)) <= dateToleranceDays);
+            }
+            case CURRENCY: {
+                Currency currency1 = parseCurrency(value1);
+                Currency currency2 = parseCurrency(value2);
+                if (currency1 == null || currency2 == null) {
+                    return null;
+                }
+                return score(currency1.equals(currency2));
+            }
+            default:
+                return null;
+        }
+    }
+
+    private static Double score(boolean match) {
+        return match ? 1.0 : 0.0;
+    }
+
+    /**
+     * Parses an amount such as "$5,000,000.00", "5000000.0" or "USD 5,000,000"
+     *
+     * @return The amount, or null if the value is not an amount
+     */
+    BigDecimal parseAmount(String value) {
+        StringBuilder digits = new StringBuilder(value.length());
+        String trimmed = value.trim();
+        int start = 0;
+        int end = trimmed.length();
+        // Allow an ISO currency code before or after the number
+        if (end > 3 && isCurrencyCode(trimmed, 0)) {
+            start = 3;
+        } else if (end > 3 && isCurrencyCode(trimmed, end - 3)) {
+            end -= 3;
+        }
+        for (int i = start; i < end; i++) {
+            char c = trimmed.charAt(i);
+            if ((c >= '0' && c <= '9') || c == '.' || c == '-') {
+                digits.append(c);
+            } else if (c != ',' && c != '$' && c != '€' && c != '£' && !Character.isWhitespace(c)) {
+                return null;
+            }
+        }
+        return toDecimal(digits);
+    }
+
+    /**
+     * Parses an interest rate into basis points. "4.25%" and "4.25" are read as percentages.
+     * A bare number below 1 is ambiguous ("0.50" may be half a percent or a fraction meaning 50%),
+     * so it is not parsed; percent-formatted spreadsheet cells arrive with their '%' sign.
+     *
+     * @return The rate in basis points, or null if the value is not a rate or its scale is ambiguous
+     */
+    BigDecimal parseRateBps(String value) {
+        String trimmed = value.trim();
+        boolean percent = trimmed.endsWith("%");
+        BigDecimal rate = toDecimal(percent ? trimmed.substring(0, trimmed.length() - 1).trim() : trimmed);
+        if (rate == null) {
+            return null;
+        }
+        if (!percent && rate.signum() != 0 && rate.abs().compareTo(BigDecimal.ONE) < 0) {
+            return null;
+        }
+        return rate.multiply(BASIS_POINTS_PER_PERCENT);
+    }
+
+    /**
+     * Parses a date in ISO (2025-08-01), ISO date-time (2025-08-01T00:00) or slash-separated form
+     *
+     * @return The date, or null if the value is not a date
+     */
+    LocalDate parseDate(String value) {
+        String trimmed = value.trim();
+        try {
+            if (trimmed.length() >= 10 && trimmed.charAt(4) == '-') {
+                return LocalDate.parse(trimmed.substring(0, 10));
+            }
+            if (trimmed.length() == 10 && trimmed.charAt(2) == '/') {
+                return LocalDate.parse(trimmed, slashDateFormat);
+            }
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+        return null;
+    }
+
+    /**
+     * Parses an ISO currency code or one of the common currency symbols
+     *
+     * @return The currency, or null if the value is not a known currency
+     */
+    Currency parseCurrency(String value) {
+        String trimmed = value.trim();
+        switch (trimmed) {
+            case "$":
+                return Currency.getInstance("USD");
+            case "€":
+                return Currency.getInstance("EUR");
+            case "£":
+                return Currency.getInstance("GBP");
+            default:
+                break;
+        }
+        if (trimmed.length() != 3) {
+            return null;
+        }
+        try {
+            return Currency.getInstance(trimmed.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private static boolean isCurrencyCode(String value, int offset) {
+        for (int i = offset; i < offset + 3; i++) {
+            char c = value.charAt(i);
+            if (c < 'A' || c > 'Z') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static BigDecimal toDecimal(CharSequence digits) {
+        if (digits.length() == 0) {
+            return null;
+        }
+        try {
+            return new BigDecimal(digits.toString());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,24 @@
+package com.trade.comparison.service.similarity;
+
+import java.util.concurrent.CancellationException;
+
+/**
+ * Cooperative cancellation of similarity computations. A field comparison that misses its
+ * comparison's deadline is cancelled by interrupting its thread; measures whose cost grows faster
+ * than the length of the values check for that once per row, so a cancelled comparison stops
+ * promptly instead of holding a scoring thread until it finishes.
+ */
+final class Cancellation {
+
+    private Cancellation() {
+    }
+
+    /**
+     * @throws CancellationException If the current thread has been interrupted
+     */
+    static void check() {
+        if (Thread.currentThread().isInterrupted()) {
+            throw new CancellationException("Similarity computation was cancelled");
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,69 @@
+package com.trade.comparison.service.similarity;
+
+/**
+ * Exact similarity for identifiers such as trade IDs: 1 if the values are equal once case,
+ * whitespace and the separators '-', '_' and '/' are ignored (e.g. "TR-001" and "tr 001"), else 0.
+ * Identifiers that differ in a single character refer to different trades, so no partial score is given.
+ * Documents are paired by the same rule through {@link #key}.
+ */
+public class IdentifierSimilarity implements SimilarityMeasure {
+
+    @Override
+    public double getSimilarity(String text1, String text2) {
+        if (text1 == null || text2 == null || text1.isEmpty() || text2.isEmpty()) {
+            return 0.0;
+        }
+        return equalsIgnoringFormat(text1, text2) ? 1.0 : 0.0;
+    }
+
+    /**
+     * Key under which an identifier is matched: its significant characters in upper case, so two
+     * values share a key exactly when this measure scores them as equal (e.g. "TR-001" and "tr 001")
+     *
+     * @return The key, or null if the value has no significant characters
+     */
+    public static String key(String identifier) {
+        if (identifier == null) {
+            return null;
+        }
+        StringBuilder key = new StringBuilder(identifier.length());
+        for (int i = 0; i < identifier.length(); i++) {
+            char c = identifier.charAt(i);
+            if (!isSeparator(c)) {
+                key.append(Character.toUpperCase(c));
+            }
+        }
+        return key.length() > 0 ? key.toString() : null;
+    }
+
+    /**
+     * Compares the significant characters of both values without allocating
+     */
+    static boolean equalsIgnoringFormat(String text1, String text2) {
+        int i = 0;
+        int j = 0;
+        boolean matched = false;
+        while (true) {
+            while (i < text1.length() && isSeparator(text1.charAt(i))) {
+                i++;
+            }
+            while (j < text2.length() && isSeparator(text2.charAt(j))) {
+                j++;
+            }
+            if (i == text1.length() || j == text2.length()) {
+                // Values made only of separators identify nothing
+                return i == text1.length() && j == text2.length() && matched;
+            }
+            char c1 = text1.charAt(i++);
+            char c2 = text2.charAt(j++);
+            if (c1 != c2 && Character.toUpperCase(c1) != Character.toUpperCase(c2)) {
+                return false;
+            }
+            matched = true;
+        }
+    }
+
+    private static boolean isSeparator(char c) {
+        return c == '-' || c == '_' || c == '/' || Character.isWhitespace(c);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,46 @@
+package com.trade.comparison.service.similarity;
+
+/**
+ * Jaccard similarity over the sets of whitespace-separated words, ignoring case:
+ * intersection size / union size. Words are compared in place, without building word sets,
+ * which is cheap for the short values found in trade documents but quadratic for long text.
+ */
+public class JaccardSimilarity implements SimilarityMeasure {
+
+    @Override
+    public double getSimilarity(String text1, String text2) {
+        if (text1 == null || text2 == null || text1.isEmpty() || text2.isEmpty()) {
+            return 0.0;
+        }
+
+        int distinct1 = 0;
+        int common = 0;
+        int i = Tokens.nextTokenStart(text1, 0);
+        while (i < text1.length()) {
+            Cancellation.check();
+            int end = Tokens.tokenEnd(text1, i);
+            // Only count the first occurrence of each word
+            if (!Tokens.containsToken(text1, i, text1, i, end)) {
+                distinct1++;
+                if (Tokens.containsToken(text2, text2.length(), text1, i, end)) {
+                    common++;
+                }
+            }
+            i = Tokens.nextTokenStart(text1, end);
+        }
+
+        int union = distinct1 + Tokens.countDistinct(text2) - common;
+        return union > 0 ? (double) common / union : 0.0;
+    }
+
+    /**
+     * Each word of the first value rescans the words before it and all of the second value, and
+     * each word of the second value rescans the words before it, so the cost is quadratic
+     */
+    @Override
+    public long estimateCost(String text1, String text2) {
+        long length1 = text1.length();
+        long length2 = text2.length();
+        return (length1 * (length1 + length2) + length2 * length2) / 2;
+    }
+}
\ No newline at end of file
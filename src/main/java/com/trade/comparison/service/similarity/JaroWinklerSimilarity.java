@@ -0,0 +1,126 @@
+package com.trade.comparison.service.similarity;
+
+/**
+ * Jaro-Winkler similarity, ignoring case. Rewards a shared prefix, which suits short names
+ * and codes that are abbreviated or truncated. Strings of up to 64 characters are matched
+ * using bit masks, so no arrays are allocated for typical field values.
+ */
+public class JaroWinklerSimilarity implements SimilarityMeasure {
+
+    private static final double PREFIX_SCALE = 0.1;
+    private static final int MAX_PREFIX = 4;
+
+    @Override
+    public double getSimilarity(String text1, String text2) {
+        if (text1 == null || text2 == null || text1.isEmpty() || text2.isEmpty()) {
+            return 0.0;
+        }
+
+        double jaro = text1.length() <= Long.SIZE && text2.length() <= Long.SIZE
+                ? jaroWithMasks(text1, text2)
+                : jaroWithArrays(text1, text2);
+
+        int prefix = 0;
+        int maxPrefix = Math.min(MAX_PREFIX, Math.min(text1.length(), text2.length()));
+        while (prefix < maxPrefix && equalsIgnoreCase(text1.charAt(prefix), text2.charAt(prefix))) {
+            prefix++;
+        }
+        return jaro + prefix * PREFIX_SCALE * (1.0 - jaro);
+    }
+
+    /**
+     * Each character is matched against a window of half the longer value
+     */
+    @Override
+    public long estimateCost(String text1, String text2) {
+        return (long) text1.length() * Math.max(text1.length(), text2.length()) / 2;
+    }
+
+    private static double jaroWithMasks(String text1, String text2) {
+        int window = Math.max(0, Math.max(text1.length(), text2.length()) / 2 - 1);
+        long matched1 = 0L;
+        long matched2 = 0L;
+        int matches = 0;
+
+        for (int i = 0; i < text1.length(); i++) {
+            int from = Math.max(0, i - window);
+            int to = Math.min(text2.length() - 1, i + window);
+            for (int j = from; j <= to; j++) {
+                if ((matched2 & (1L << j)) == 0 && equalsIgnoreCase(text1.charAt(i), text2.charAt(j))) {
+                    matched1 |= 1L << i;
+                    matched2 |= 1L << j;
+                    matches++;
+                    break;
+                }
+            }
+        }
+        if (matches == 0) {
+            return 0.0;
+        }
+
+        int transpositions = 0;
+        int j = 0;
+        for (int i = 0; i < text1.length(); i++) {
+            if ((matched1 & (1L << i)) == 0) {
+                continue;
+            }
+            while ((matched2 & (1L << j)) == 0) {
+                j++;
+            }
+            if (!equalsIgnoreCase(text1.charAt(i), text2.charAt(j))) {
+                transpositions++;
+            }
+            j++;
+        }
+        return jaro(matches, transpositions, text1.length(), text2.length());
+    }
+
+    private static double jaroWithArrays(String text1, String text2) {
+        int window = Math.max(0, Math.max(text1.length(), text2.length()) / 2 - 1);
+        boolean[] matched1 = new boolean[text1.length()];
+        boolean[] matched2 = new boolean[text2.length()];
+        int matches = 0;
+
+        for (int i = 0; i < text1.length(); i++) {
+            Cancellation.check();
+            int from = Math.max(0, i - window);
+            int to = Math.min(text2.length() - 1, i + window);
+            for (int j = from; j <= to; j++) {
+                if (!matched2[j] && equalsIgnoreCase(text1.charAt(i), text2.charAt(j))) {
+                    matched1[i] = true;
+                    matched2[j] = true;
+                    matches++;
+                    break;
+                }
+            }
+        }
+        if (matches == 0) {
+            return 0.0;
+        }
+
+        int transpositions = 0;
+        int j = 0;
+        for (int i = 0; i < text1.length(); i++) {
+            if (!matched1[i]) {
+                continue;
+            }
+            while (!matched2[j]) {
+                j++;
+            }
+            if (!equalsIgnoreCase(text1.charAt(i), text2.charAt(j))) {
+                transpositions++;
+            }
+            j++;
+        }
+        return jaro(matches, transpositions, text1.length(), text2.length());
+    }
+
+    private static double jaro(int matches, int transpositions, int length1, int length2) {
+        double m = matches;
+        return (m / length1 + m / length2 + (m - transpositions / 2.0) / m) / 3.0;
+    }
+
+    private static boolean equalsIgnoreCase(char c1, char c2) {
+        return c1 == c2 || Character.toLowerCase(c1) == Character.toLowerCase(c2);
+    }
+}
\ No newline at end of file
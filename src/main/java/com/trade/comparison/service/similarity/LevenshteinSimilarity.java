@@ -0,0 +1,59 @@
+package com.trade.comparison.service.similarity;
+
+/**
+ * Normalized Levenshtein similarity, ignoring case: 1 - editDistance / max(length1, length2).
+ * Suited to short free text such as names, where a single mistyped character should still score high;
+ * not to identifiers, where it denotes a different value (see {@link IdentifierSimilarity}).
+ */
+public class LevenshteinSimilarity implements SimilarityMeasure {
+
+    @Override
+    public double getSimilarity(String text1, String text2) {
+        if (text1 == null || text2 == null || text1.isEmpty() || text2.isEmpty()) {
+            return 0.0;
+        }
+        int maxLength = Math.max(text1.length(), text2.length());
+        return 1.0 - (double) distance(text1, text2) / maxLength;
+    }
+
+    /**
+     * Every pair of characters is visited once
+     */
+    @Override
+    public long estimateCost(String text1, String text2) {
+        return (long) text1.length() * text2.length();
+    }
+
+    /**
+     * Edit distance using a single row of the dynamic-programming matrix
+     *
+     * @throws java.util.concurrent.CancellationException If the thread is interrupted part-way
+     */
+    static int distance(String text1, String text2) {
+        // Keep the row as short as possible
+        if (text1.length() < text2.length()) {
+            String swap = text1;
+            text1 = text2;
+            text2 = swap;
+        }
+
+        int[] row = new int[text2.length() + 1];
+        for (int j = 0; j <= text2.length(); j++) {
+            row[j] = j;
+        }
+
+        for (int i = 1; i <= text1.length(); i++) {
+            Cancellation.check();
+            char c1 = Character.toLowerCase(text1.charAt(i - 1));
+            int diagonal = row[0];
+            row[0] = i;
+            for (int j = 1; j <= text2.length(); j++) {
+                int above = row[j];
+                int cost = c1 == Character.toLowerCase(text2.charAt(j - 1)) ? 0 : 1;
+                row[j] = Math.min(Math.min(row[j - 1] + 1, above + 1), diagonal + cost);
+                diagonal = above;
+            }
+        }
+        return row[text2.length()];
+    }
+}
\ No newline at end of file
@@ -0,0 +1,91 @@
+package com.trade.comparison.service.similarity;
+
+/**
+ * Similarity for amounts and rates. Both values are parsed as numbers, ignoring currency
+ * symbols, thousands separators, whitespace and a trailing percent sign, and score 1 if they
+ * differ by at most an absolute tolerance, else 0: amounts that are 10% apart are different
+ * amounts, not nearly the same one. Values that are not plain numbers are scored by the
+ * fallback measure.
+ */
+public class NumericSimilarity implements SimilarityMeasure {
+
+    private final SimilarityMeasure fallback;
+    private final double tolerance;
+
+    public NumericSimilarity() {
+        this(new JaccardSimilarity(), 0.0);
+    }
+
+    /**
+     * @param fallback Measure for values that are not plain numbers
+     * @param tolerance Largest absolute difference still scored as a match, e.g. 0.01 for amounts
+     */
+    public NumericSimilarity(SimilarityMeasure fallback, double tolerance) {
+        if (tolerance < 0) {
+            throw new IllegalArgumentException("Tolerance must not be negative: " + tolerance);
+        }
+        this.fallback = fallback;
+        this.tolerance = tolerance;
+    }
+
+    @Override
+    public double getSimilarity(String text1, String text2) {
+        if (text1 == null || text2 == null || text1.isEmpty() || text2.isEmpty()) {
+            return 0.0;
+        }
+
+        double number1 = parse(text1);
+        double number2 = parse(text2);
+        if (Double.isNaN(number1) || Double.isNaN(number2)) {
+            return fallback.getSimilarity(text1, text2);
+        }
+        if (number1 == number2) {
+            return 1.0;
+        }
+        // Allow for rounding in the parsed values, so 1000.10 and 1000.09 are within 0.01
+        double rounding = Math.ulp(Math.max(Math.abs(number1), Math.abs(number2))) * 4;
+        return Math.abs(number1 - number2) <= tolerance + rounding ? 1.0 : 0.0;
+    }
+
+    /**
+     * Parses a formatted number in place
+     *
+     * @return The value, or NaN if the text is not a single number
+     */
+    static double parse(String text) {
+        long mantissa = 0;
+        int fractionDigits = 0;
+        boolean negative = false;
+        boolean seenDigit = false;
+        boolean seenPoint = false;
+        boolean seenPercent = false;
+
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c >= '0' && c <= '9') {
+                if (seenPercent || mantissa > (Long.MAX_VALUE - 9) / 10) {
+                    return Double.NaN;
+                }
+                mantissa = mantissa * 10 + (c - '0');
+                seenDigit = true;
+                if (seenPoint) {
+                    fractionDigits++;
+                }
+            } else if (c == '.' && !seenPoint && !seenPercent) {
+                seenPoint = true;
+            } else if (c == '-' && !seenDigit && !seenPoint && !negative) {
+                negative = true;
+            } else if (c == '%' && seenDigit && !seenPercent) {
+                seenPercent = true;
+            } else if (c != ',' && c != '$' && c != '€' && c != '£' && !Character.isWhitespace(c)) {
+                return Double.NaN;
+            }
+        }
+        if (!seenDigit) {
+            return Double.NaN;
+        }
+
+        double value = mantissa / Math.pow(10, fractionDigits);
+        return negative ? -value : value;
+    }
+}
\ No newline at end of file
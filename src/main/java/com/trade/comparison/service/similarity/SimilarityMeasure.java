@@ -0,0 +1,25 @@
+package com.trade.comparison.service.similarity;
+
+/**
+ * Strategy for measuring similarity between two field values
+ */
+public interface SimilarityMeasure {
+    /**
+     * Calculate similarity between two strings
+     * @param text1 First text
+     * @param text2 Second text
+     * @return Similarity score between 0 and 1
+     */
+    double getSimilarity(String text1, String text2);
+
+    /**
+     * Estimates the work of one {@link #getSimilarity} call, in characters visited, so costly
+     * comparisons can be run in parallel. Defaults to one pass over both values.
+     * @param text1 First text
+     * @param text2 Second text
+     * @return Estimated cost
+     */
+    default long estimateCost(String text1, String text2) {
+        return (long) text1.length() + text2.length();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,66 @@
+package com.trade.comparison.service.similarity;
+
+/**
+ * Whitespace tokenization over character ranges of a string.
+ * Tokens are addressed by start/end offsets so no substrings or token arrays are created.
+ */
+final class Tokens {
+
+    private Tokens() {
+    }
+
+    /**
+     * @return Offset of the first token starting at or after {@code from}, or {@code text.length()} if none
+     */
+    static int nextTokenStart(String text, int from) {
+        int i = from;
+        while (i < text.length() && Character.isWhitespace(text.charAt(i))) {
+            i++;
+        }
+        return i;
+    }
+
+    /**
+     * @return Offset just past the token starting at {@code start}
+     */
+    static int tokenEnd(String text, int start) {
+        int i = start;
+        while (i < text.length() && !Character.isWhitespace(text.charAt(i))) {
+            i++;
+        }
+        return i;
+    }
+
+    /**
+     * Checks, ignoring case, whether the token {@code source[start, end)} occurs as a whole token
+     * in {@code text} before offset {@code limit}
+     */
+    static boolean containsToken(String text, int limit, String source, int start, int end) {
+        int length = end - start;
+        int i = nextTokenStart(text, 0);
+        while (i < limit) {
+            int tokenEnd = tokenEnd(text, i);
+            if (tokenEnd - i == length && text.regionMatches(true, i, source, start, length)) {
+                return true;
+            }
+            i = nextTokenStart(text, tokenEnd);
+        }
+        return false;
+    }
+
+    /**
+     * Counts distinct tokens (ignoring case) in the text
+     */
+    static int countDistinct(String text) {
+        int count = 0;
+        int i = nextTokenStart(text, 0);
+        while (i < text.length()) {
+            int end = tokenEnd(text, i);
+            if (!containsToken(text, i, text, i, end)) {
+                count++;
+            }
+            i = nextTokenStart(text, end);
+        }
+        return count;
+    }
+}
\ No newline at end of file
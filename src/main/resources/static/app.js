@@ -2,7 +2,7 @@
  * Angular application for Trade Document Comparison Tool
  */
 angular.module('tradeComparisonApp', [])
-    .controller('ComparisonController', ['$scope', '$http', function($scope, $http) {
+    .controller('ComparisonController', ['$scope', '$http', '$timeout', function($scope, $http, $timeout) {
         // Initialize variables
         $scope.agreementFolderPath = '';
         $scope.termSheetFolderPath = '';
@@ -12,10 +12,14 @@ angular.module('tradeComparisonApp', [])
         $scope.selectedTermSheet = null;
         $scope.comparisonResult = null;
         $scope.error = null;
+        $scope.job = null;
         
         // API base URL
         const apiBaseUrl = '/api/documents';
         
+        // Interval between job status polls
+        const jobPollIntervalMs = 1000;
+        
         /**
          * Fetch available trade agreements from the specified folder
          */
@@ -65,7 +69,8 @@ angular.module('tradeComparisonApp', [])
         };
         
         /**
-         * Compare the selected trade agreement and term sheet
+         * Compare the selected trade agreement and term sheet.
+         * The comparison runs as a server-side job; its status is polled until the result is ready.
          */
         $scope.compareDocuments = function() {
             $scope.error = null;
@@ -76,24 +81,61 @@ angular.module('tradeComparisonApp', [])
                 return;
             }
             
-            $http.get(`${apiBaseUrl}/compare`, {
+            $http.post(`${apiBaseUrl}/jobs/compare`, null, {
                 params: {
                     tradeAgreementPath: $scope.selectedTradeAgreement,
                     termSheetPath: $scope.selectedTermSheet
                 }
             }).then(function(response) {
-                // Parse the JSON string if needed
-                if (typeof response.data === 'string') {
-                    $scope.comparisonResult = JSON.parse(response.data);
-                } else {
-                    $scope.comparisonResult = response.data;
-                }
+                $scope.job = response.data;
+                pollJob($scope.job.jobId);
             }).catch(function(error) {
                 $scope.error = error.data?.error || 'Failed to compare documents';
-                console.error('Error comparing documents:', error);
+                console.error('Error submitting comparison:', error);
             });
         };
         
+        /**
+         * Poll a job until it finishes, then fetch its results
+         */
+        function pollJob(jobId) {
+            $http.get(`${apiBaseUrl}/jobs/${jobId}`).then(function(response) {
+                $scope.job = response.data;
+                if ($scope.job.status === 'COMPLETED' || $scope.job.status === 'FAILED') {
+                    fetchJobResults(jobId);
+                } else {
+                    $timeout(function() { pollJob(jobId); }, jobPollIntervalMs);
+                }
+            }).catch(function(error) {
+                $scope.job = null;
+                $scope.error = error.data?.error || 'Failed to get comparison status';
+                console.error('Error polling comparison job:', error);
+            });
+        }
+        
+        /**
+         * Fetch a finished job's results (newline-delimited JSON, one object per line)
+         */
+        function fetchJobResults(jobId) {
+            $http.get(`${apiBaseUrl}/jobs/${jobId}/results`, {
+                transformResponse: function(data) { return data; }
+            }).then(function(response) {
+                $scope.job = null;
+                const lines = response.data.split('\n').filter(function(line) { return line.trim(); });
+                lines.map(function(line) { return JSON.parse(line); }).forEach(function(result) {
+                    if (result.type === 'comparison') {
+                        $scope.comparisonResult = result;
+                    } else if (result.type === 'error') {
+                        $scope.error = result.error || 'Failed to compare documents';
+                    }
+                });
+            }).catch(function(error) {
+                $scope.job = null;
+                $scope.error = 'Failed to fetch comparison results';
+                console.error('Error fetching comparison results:', error);
+            });
+        }
+        
         /**
          * Extract file name from full path
          */
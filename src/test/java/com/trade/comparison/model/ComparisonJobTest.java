@@ -0,0 +1,50 @@
+package com.trade.comparison.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for ComparisonJob
+ */
+class ComparisonJobTest {
+
+    @Test
+    void testResultsBeyondLimitAreSpilledAndStreamedInChunks() throws InterruptedException, IOException {
+        ComparisonJob job = new ComparisonJob(ComparisonJob.Type.RECONCILE, Map.of(), 3);
+        List<String> expected = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            String line = "{\"type\":\"comparison\",\"index\":" + i + ",\"counterparty\":\"Société Générale\"}";
+            expected.add(line);
+            job.addResult(line);
+        }
+        job.complete();
+        assertEquals(10, job.getResultCount());
+
+        List<String> streamed = new ArrayList<>();
+        List<String> chunk;
+        while (!(chunk = job.awaitResults(streamed.size(), 10)).isEmpty()) {
+            assertTrue(chunk.size() <= 3);
+            streamed.addAll(chunk);
+        }
+        assertEquals(expected, streamed);
+    }
+
+    @Test
+    void testDiscardedResultsAreReleased() throws InterruptedException, IOException {
+        ComparisonJob job = new ComparisonJob(ComparisonJob.Type.RECONCILE, Map.of(), 1);
+        job.addResult("{\"index\":0}");
+        job.addResult("{\"index\":1}");
+        job.complete();
+
+        job.discardResults();
+        job.addResult("{\"index\":2}");
+        assertEquals(0, job.getResultCount());
+        assertTrue(job.awaitResults(0, 10).isEmpty());
+    }
+}
\ No newline at end of file
@@ -0,0 +1,178 @@
+package com.trade.comparison.model;
+
+import com.trade.comparison.service.AIDocumentService;
+import com.trade.comparison.service.FieldComparisonScheduler;
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for DocumentComparison
+ */
+class DocumentComparisonTest {
+
+    @Test
+    void testEachDocumentIsParsedOnceWhenLoadedThenCompared() {
+        CountingTradeAgreement tradeAgreement = new CountingTradeAgreement();
+        CountingTermSheet termSheet = new CountingTermSheet();
+
+        // DocumentService loads (and therefore extracts) both documents before comparing them
+        tradeAgreement.ensureExtracted();
+        termSheet.ensureExtracted();
+
+        DocumentComparison comparison = new DocumentComparison(tradeAgreement, termSheet);
+        comparison.compare();
+
+        assertEquals(1, tradeAgreement.parseCount);
+        assertEquals(1, termSheet.parseCount);
+        assertTrue(comparison.getComparisonResults().get("tradeId").isMatch());
+    }
+
+    @Test
+    void testCompareExtractsDocumentsThatWereNotLoaded() {
+        CountingTradeAgreement tradeAgreement = new CountingTradeAgreement();
+        CountingTermSheet termSheet = new CountingTermSheet();
+
+        DocumentComparison comparison = new DocumentComparison(tradeAgreement, termSheet);
+        comparison.compare();
+        comparison.compare();
+
+        assertEquals(1, tradeAgreement.parseCount);
+        assertEquals(1, termSheet.parseCount);
+    }
+
+    @Test
+    void testCompareUsesFieldsLoadedFromStoreWithoutParsing() {
+        CountingTradeAgreement tradeAgreement = new CountingTradeAgreement();
+        CountingTermSheet termSheet = new CountingTermSheet();
+
+        Map<String, String> storedFields = new HashMap<>();
+        storedFields.put("tradeId", "TR00123456");
+        tradeAgreement.setExtractedFields(new HashMap<>(storedFields));
+        termSheet.setExtractedFields(new HashMap<>(storedFields));
+
+        DocumentComparison comparison = new DocumentComparison(tradeAgreement, termSheet);
+        comparison.compare();
+
+        assertTrue(tradeAgreement.isExtracted());
+        assertEquals(0, tradeAgreement.parseCount);
+        assertEquals(0, termSheet.parseCount);
+        assertTrue(comparison.getComparisonResults().get("tradeId").isMatch());
+    }
+
+    @Test
+    void testWriteJsonIncludesSimilarityScore() throws IOException {
+        CountingTradeAgreement tradeAgreement = new CountingTradeAgreement();
+        CountingTermSheet termSheet = new CountingTermSheet();
+        tradeAgreement.addField("counterparty", "Acme Corp");
+        termSheet.addField("counterparty", "Globex Ltd");
+
+        DocumentComparison comparison = new DocumentComparison(tradeAgreement, termSheet);
+        comparison.compare();
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        comparison.writeJson(out, false);
+        JSONObject json = new JSONObject(out.toString(StandardCharsets.UTF_8));
+
+        assertEquals("agreement.pdf", json.getString("tradeAgreementFile"));
+        JSONArray differences = json.getJSONArray("differences");
+        assertEquals(1, differences.length());
+        assertEquals("counterparty", differences.getJSONObject(0).getString("field"));
+        assertEquals(0.0, differences.getJSONObject(0).getDouble("similarityScore"), 0.0001);
+        assertEquals(json.toString(), new JSONObject(comparison.toJson()).toString());
+    }
+
+    @Test
+    void testCostlyFieldsRunInParallelUntilDeadline() {
+        AIDocumentService aiService = new AIDocumentService();
+        AtomicBoolean cancelled = new AtomicBoolean();
+        // Always costly; slow for the clause text only
+        aiService.setSimilarityMeasure("governingLaw", (text1, text2) -> {
+            if (text1.startsWith("slow")) {
+                sleep(5_000);
+                cancelled.set(Thread.currentThread().isInterrupted());
+            }
+            return 0.9;
+        });
+        FieldComparisonScheduler scheduler = new FieldComparisonScheduler(0, 200);
+
+        CountingTradeAgreement tradeAgreement = new CountingTradeAgreement();
+        CountingTermSheet termSheet = new CountingTermSheet();
+        tradeAgreement.ensureExtracted();
+        termSheet.ensureExtracted();
+        tradeAgreement.addField("governingLaw", "England and Wales");
+        termSheet.addField("governingLaw", "English law");
+
+        DocumentComparison comparison = new DocumentComparison(tradeAgreement, termSheet);
+        comparison.setAiService(aiService);
+        comparison.setFieldScheduler(scheduler);
+        comparison.compare();
+
+        assertFalse(comparison.isPartial());
+        assertEquals(0.9, comparison.getComparisonResults().get("governingLaw").getSimilarityScore(), 0.0001);
+        assertEquals(1, scheduler.getParallelCount());
+        assertEquals(1, scheduler.getInlineCount());
+
+        tradeAgreement.addField("governingLaw", "slow England and Wales");
+        comparison.compare();
+
+        assertTrue(comparison.isPartial());
+        assertTrue(comparison.getComparisonResults().get("governingLaw").isTimedOut());
+        assertTrue(comparison.getComparisonResults().get("tradeId").isMatch());
+        assertEquals(100.0, comparison.getMatchPercentage(), 0.0001);
+        assertTrue(new JSONObject(comparison.toJson()).getBoolean("partial"));
+
+        // The timed-out field is cancelled rather than left running
+        for (int i = 0; i < 100 && !cancelled.get(); i++) {
+            sleep(10);
+        }
+        assertTrue(cancelled.get());
+        scheduler.shutdown();
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // Test documents that count how often their file would be parsed
+    private static class CountingTradeAgreement extends TradeAgreement {
+        private int parseCount;
+
+        CountingTradeAgreement() {
+            super("agreement.pdf");
+        }
+
+        @Override
+        public void extractFields() {
+            parseCount++;
+            addField("tradeId", "TR00123456");
+        }
+    }
+
+    private static class CountingTermSheet extends TermSheet {
+        private int parseCount;
+
+        CountingTermSheet() {
+            super("termsheet.xlsx");
+        }
+
+        @Override
+        public void extractFields() {
+            parseCount++;
+            addField("tradeId", "TR00123456");
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,67 @@
+package com.trade.comparison.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for FieldExtractionEngine
+ */
+class FieldExtractionEngineTest {
+
+    private static final FieldExtractionEngine ENGINE = new FieldExtractionEngine(TradeAgreement.FIELD_DEFINITIONS);
+
+    @Test
+    void testExtractsAllTradeAgreementFieldsInOnePass() {
+        String text = "TRADE AGREEMENT\n\nTrade ID: TR00123456\nCounterparty: Acme\n" +
+                "Trade Date: 2025-08-01\nSettlement Date: 08/05/2025\nCurrency: USD\n" +
+                "Notional Amount: $5,000,000.00\nInterest Rate: 4.25%\nMaturity Date: 2026-08-01\n";
+        TestDocument document = new TestDocument();
+
+        assertTrue(ENGINE.extract(text, document));
+
+        assertEquals("TR00123456", document.getField("tradeId"));
+        assertEquals("2025-08-01", document.getField("tradeDate"));
+        assertEquals("08/05/2025", document.getField("settlementDate"));
+        assertEquals("USD", document.getField("currency"));
+        assertEquals("$5,000,000.00", document.getField("notionalAmount"));
+        assertEquals("4.25%", document.getField("interestRate"));
+        assertEquals("2026-08-01", document.getField("maturityDate"));
+    }
+
+    @Test
+    void testSkipsLabelOccurrencesWhoseValueDoesNotMatch() {
+        String text = "The Trade Date means the date on which the Trade is executed.\n" +
+                "(c) trade date: 2025-08-01";
+        TestDocument document = new TestDocument();
+
+        assertFalse(ENGINE.extract(text, document));
+
+        assertEquals("2025-08-01", document.getField("tradeDate"));
+        assertNull(document.getField("maturityDate"));
+    }
+
+    @Test
+    void testFirstOccurrenceWinsAndExistingFieldsAreKept() {
+        String text = "Currency: EUR\nCurrency: USD\nTrade ID: TR2";
+        TestDocument document = new TestDocument();
+        document.addField("tradeId", "TR1");
+
+        new FieldExtractionEngine(List.of(
+                new FieldExtractionEngine.FieldDefinition("tradeId", "Trade ID", "\\w+"),
+                new FieldExtractionEngine.FieldDefinition("currency", "Currency", "[A-Z]{3}")
+        )).extract(text, document);
+
+        assertEquals("EUR", document.getField("currency"));
+        assertEquals("TR1", document.getField("tradeId"));
+    }
+
+    private static class TestDocument extends TradeDocument {
+        @Override
+        public void extractFields() {
+            // Fields are supplied by the test
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,84 @@
+package com.trade.comparison.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for FieldStore
+ */
+class FieldStoreTest {
+
+    @Test
+    void testBehavesLikeAMap() {
+        FieldStore store = new FieldStore();
+        store.put("tradeId", "TR00123456");
+        store.put("currency", "USD");
+        store.put("dealType", "Fixed Rate Loan");
+
+        Map<String, String> expected = new HashMap<>();
+        expected.put("tradeId", "TR00123456");
+        expected.put("currency", "USD");
+        expected.put("dealType", "Fixed Rate Loan");
+
+        assertEquals(expected, store);
+        assertEquals(store, expected);
+        assertEquals(expected.hashCode(), store.hashCode());
+        assertEquals(3, store.size());
+        assertTrue(store.containsKey("dealType"));
+        assertNull(store.get("maturityDate"));
+
+        assertEquals("USD", store.put("currency", "EUR"));
+        assertEquals("EUR", store.remove("currency"));
+        assertEquals(2, store.size());
+    }
+
+    @Test
+    void testIteratorRemovesStandardAndOverflowFields() {
+        FieldStore store = new FieldStore(Map.of("tradeId", "TR1", "counterparty", "Acme", "dealType", "Loan"));
+
+        Iterator<Map.Entry<String, String>> iterator = store.entrySet().iterator();
+        while (iterator.hasNext()) {
+            String key = iterator.next().getKey();
+            if (!key.equals("counterparty")) {
+                iterator.remove();
+            }
+        }
+
+        assertEquals(Map.of("counterparty", "Acme"), store);
+    }
+
+    @Test
+    void testLowCardinalityValuesAreShared() {
+        FieldStore first = new FieldStore();
+        FieldStore second = new FieldStore();
+        first.put("counterparty", new String("Acme Financial Services"));
+        second.put("counterparty", new String("Acme Financial Services"));
+
+        assertSame(first.get("counterparty"), second.get("counterparty"));
+    }
+
+    @Test
+    void testHighCardinalityValuesAreNotShared() {
+        FieldStore first = new FieldStore();
+        FieldStore second = new FieldStore();
+        first.put("tradeDate", new String("2023-01-15"));
+        second.put("tradeDate", new String("2023-01-15"));
+
+        assertNotSame(first.get("tradeDate"), second.get("tradeDate"));
+        assertEquals(first.get("tradeDate"), second.get("tradeDate"));
+    }
+
+    @Test
+    void testDocumentFieldsUseFieldStore() {
+        TradeAgreement agreement = new TradeAgreement("agreement.pdf");
+        agreement.setExtractedFields(new HashMap<>(Map.of("tradeId", "TR1")));
+
+        assertTrue(agreement.getExtractedFields() instanceof FieldStore);
+        assertEquals("TR1", agreement.getField("tradeId"));
+    }
+}
\ No newline at end of file
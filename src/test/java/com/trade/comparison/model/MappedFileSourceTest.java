@@ -0,0 +1,64 @@
+package com.trade.comparison.model;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for MappedFileSource
+ */
+class MappedFileSourceTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testSmallFileReadsFromPooledBuffer() throws IOException {
+        File file = Files.writeString(tempDir.resolve("small.pdf"), "%PDF-1.4 trailer", StandardCharsets.US_ASCII).toFile();
+
+        MappedFileSource source = MappedFileSource.open(file);
+        assertEquals(16, source.length());
+        assertEquals('%', source.read());
+        assertEquals('P', source.peek());
+        assertEquals(1, source.getPosition());
+
+        byte[] bytes = new byte[7];
+        assertEquals(7, source.read(bytes));
+        assertEquals("PDF-1.4", new String(bytes, StandardCharsets.US_ASCII));
+        source.rewind(3);
+        assertEquals('1', source.read());
+
+        source.seek(9);
+        assertEquals(7, source.read(new byte[32]));
+        assertTrue(source.isEOF());
+        assertEquals(-1, source.read());
+
+        source.close();
+        assertTrue(source.isClosed());
+        assertThrows(IOException.class, source::read);
+    }
+
+    @Test
+    void testLargeFileIsMapped() throws IOException {
+        byte[] content = new byte[MappedFileSource.POOLED_BUFFER_BYTES * 2 + 17];
+        for (int i = 0; i < content.length; i++) {
+            content[i] = (byte) i;
+        }
+        File file = Files.write(tempDir.resolve("large.pdf"), content).toFile();
+
+        try (MappedFileSource source = MappedFileSource.open(file)) {
+            assertEquals(content.length, source.length());
+            source.seek(content.length - 3);
+            assertEquals(content[content.length - 3] & 0xff, source.read());
+            assertEquals(2, source.available());
+            assertThrows(IOException.class, () -> source.readFully(3));
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,61 @@
+package com.trade.comparison.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for RawText
+ */
+class RawTextTest {
+
+    @Test
+    void testShortTextStaysInline() throws IOException {
+        RawText rawText = new RawText.Builder().append("Trade ID: ABC123\n").append("Counterparty: Acme Corp").build();
+
+        assertFalse(rawText.isSpilled());
+        assertEquals("Trade ID: ABC123\nCounterparty: Acme Corp", rawText.getText());
+    }
+
+    @Test
+    void testLongTextSpillsToFile() throws IOException {
+        String page = "Notional Amount: €1,000,000\n".repeat(RawText.MAX_INLINE_CHARS / 20);
+        RawText rawText = new RawText.Builder().append(page).append(page).build();
+
+        assertTrue(rawText.isSpilled());
+        assertEquals(2L * page.length(), rawText.length());
+        assertEquals(page + page, rawText.getText());
+
+        rawText.release();
+        assertThrows(IOException.class, rawText::getText);
+    }
+
+    @Test
+    void testClosingUnbuiltBuilderDeletesSpilledFile() {
+        String page = "Notional Amount: €1,000,000\n".repeat(RawText.MAX_INLINE_CHARS / 20);
+        Path spillFile;
+        try (RawText.Builder builder = new RawText.Builder()) {
+            builder.append(page).append(page);
+            spillFile = builder.getSpillFile();
+            assertTrue(Files.exists(spillFile));
+        }
+
+        assertFalse(Files.exists(spillFile));
+    }
+
+    @Test
+    void testClosingBuiltBuilderKeepsText() throws IOException {
+        String page = "Notional Amount: €1,000,000\n".repeat(RawText.MAX_INLINE_CHARS / 20);
+        RawText rawText;
+        try (RawText.Builder builder = new RawText.Builder()) {
+            rawText = builder.append(page).append(page).build();
+        }
+
+        assertEquals(page + page, rawText.getText());
+        rawText.release();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,160 @@
+package com.trade.comparison.model;
+
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+import java.util.zip.ZipOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for TermSheet
+ */
+class TermSheetTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testExtractFieldsFromFirstSheet() throws IOException {
+        Path file = tempDir.resolve("term_sheet.xlsx");
+        try (XSSFWorkbook workbook = new XSSFWorkbook()) {
+            Sheet sheet = workbook.createSheet("Term Sheet");
+            CellStyle dateStyle = workbook.createCellStyle();
+            dateStyle.setDataFormat(workbook.getCreationHelper().createDataFormat().getFormat("yyyy-mm-dd"));
+
+            Row row = sheet.createRow(0);
+            row.createCell(0).setCellValue("Trade Reference");
+            row.createCell(1).setCellValue("TR00123456");
+
+            row = sheet.createRow(1);
+            row.createCell(0).setCellValue("Notional");
+            row.createCell(1).setCellValue(5000000);
+
+            row = sheet.createRow(2);
+            row.createCell(0).setCellValue("Trade Date");
+            row.createCell(1).setCellValue(LocalDate.of(2025, 8, 1));
+            row.getCell(1).setCellStyle(dateStyle);
+
+            row = sheet.createRow(3);
+            row.createCell(0).setCellValue("Rate");
+            row.createCell(1).setCellFormula("4.25/100");
+
+            row = sheet.createRow(4);
+            row.createCell(0).setCellValue("Collateralised");
+            row.createCell(1).setCellValue(true);
+
+            // Rows without a value cell are ignored
+            sheet.createRow(5).createCell(0).setCellValue("Maturity");
+
+            Sheet pricing = workbook.createSheet("Pricing");
+            pricing.createRow(0).createCell(0).setCellValue("Counterparty");
+            pricing.getRow(0).createCell(1).setCellValue("Not on the first sheet");
+            workbook.setSheetHidden(1, true);
+
+            workbook.getCreationHelper().createFormulaEvaluator().evaluateAll();
+            try (OutputStream out = Files.newOutputStream(file)) {
+                workbook.write(out);
+            }
+        }
+
+        TermSheet termSheet = new TermSheet(file.toString());
+        termSheet.extractFields();
+
+        assertEquals("TR00123456", termSheet.getField("tradeId"));
+        assertEquals("5000000.0", termSheet.getField("notionalAmount"));
+        assertEquals("2025-08-01T00:00", termSheet.getField("tradeDate"));
+        assertEquals("0.0425", termSheet.getField("interestRate"));
+        assertEquals("true", termSheet.getField("collateralised"));
+        assertNull(termSheet.getField("maturityDate"));
+        assertNull(termSheet.getField("counterparty"));
+    }
+
+    @Test
+    void testPercentFormattedRateKeepsItsSign() throws IOException {
+        Path file = tempDir.resolve("percent_term_sheet.xlsx");
+        try (XSSFWorkbook workbook = new XSSFWorkbook()) {
+            Sheet sheet = workbook.createSheet("Term Sheet");
+            CellStyle percentStyle = workbook.createCellStyle();
+            percentStyle.setDataFormat(workbook.getCreationHelper().createDataFormat().getFormat("0.00%"));
+
+            Row row = sheet.createRow(0);
+            row.createCell(0).setCellValue("Rate");
+            row.createCell(1).setCellValue(0.005);
+            row.getCell(1).setCellStyle(percentStyle);
+
+            row = sheet.createRow(1);
+            row.createCell(0).setCellValue("Spread");
+            row.createCell(1).setCellFormula("0.0425*1");
+            row.getCell(1).setCellStyle(percentStyle);
+
+            workbook.getCreationHelper().createFormulaEvaluator().evaluateAll();
+            try (OutputStream out = Files.newOutputStream(file)) {
+                workbook.write(out);
+            }
+        }
+
+        TermSheet termSheet = new TermSheet(file.toString());
+        termSheet.extractFields();
+
+        assertEquals("0.5%", termSheet.getField("interestRate"));
+        assertEquals("4.25%", termSheet.getField("spread"));
+    }
+
+    @Test
+    void testSharedFormulaFallsBackToItsExpandedText() throws IOException {
+        // Excel writes a formula filled down a column once, in the group's first cell; POI never
+        // writes shared formulas, so the worksheet is replaced with one as Excel saves it
+        String sheetXml = "<worksheet xmlns=\"http://schemas.openxmlformats.org/spreadsheetml/2006/main\"><sheetData>"
+                + "<row r=\"1\"><c r=\"A1\" t=\"inlineStr\"><is><t>Rate</t></is></c>"
+                + "<c r=\"B1\" t=\"e\"><f t=\"shared\" ref=\"B1:B2\" si=\"0\">1/A1</f><v>#VALUE!</v></c></row>"
+                + "<row r=\"2\"><c r=\"A2\" t=\"inlineStr\"><is><t>Spread</t></is></c>"
+                + "<c r=\"B2\" t=\"e\"><f t=\"shared\" si=\"0\"/><v>#VALUE!</v></c></row>"
+                + "<row r=\"3\"><c r=\"A3\" t=\"inlineStr\"><is><t>Collateralised</t></is></c>"
+                + "<c r=\"B3\" t=\"b\"><f t=\"shared\" ref=\"B3:B4\" si=\"1\">AND(A3&lt;&gt;\"A3\",$A$3=A3)</f><v>1</v></c></row>"
+                + "<row r=\"4\"><c r=\"A4\" t=\"inlineStr\"><is><t>Callable</t></is></c>"
+                + "<c r=\"B4\" t=\"b\"><f t=\"shared\" si=\"1\"/><v>0</v></c></row>"
+                + "</sheetData></worksheet>";
+        Path file = tempDir.resolve("shared_formula_term_sheet.xlsx");
+        Path template = tempDir.resolve("template.xlsx");
+        try (XSSFWorkbook workbook = new XSSFWorkbook()) {
+            workbook.createSheet("Term Sheet");
+            try (OutputStream out = Files.newOutputStream(template)) {
+                workbook.write(out);
+            }
+        }
+        try (ZipInputStream in = new ZipInputStream(Files.newInputStream(template));
+             ZipOutputStream out = new ZipOutputStream(Files.newOutputStream(file))) {
+            for (ZipEntry entry = in.getNextEntry(); entry != null; entry = in.getNextEntry()) {
+                out.putNextEntry(new ZipEntry(entry.getName()));
+                if (entry.getName().equals("xl/worksheets/sheet1.xml")) {
+                    out.write(sheetXml.getBytes(StandardCharsets.UTF_8));
+                } else {
+                    in.transferTo(out);
+                }
+                out.closeEntry();
+            }
+        }
+
+        TermSheet termSheet = new TermSheet(file.toString());
+        termSheet.extractFields();
+
+        // As getCellFormula() expands them: relative references move with the cell, absolute ones stay
+        assertEquals("1/A1", termSheet.getField("interestRate"));
+        assertEquals("1/A2", termSheet.getField("spread"));
+        assertEquals("AND(A3<>\"A3\",$A$3=A3)", termSheet.getField("collateralised"));
+        assertEquals("AND(A4<>\"A3\",$A$3=A4)", termSheet.getField("callable"));
+    }
+}
\ No newline at end of file
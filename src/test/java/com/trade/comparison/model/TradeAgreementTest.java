@@ -0,0 +1,94 @@
+package com.trade.comparison.model;
+
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.common.PDMetadata;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for TradeAgreement
+ */
+class TradeAgreementTest {
+
+    private static final String[] LINES = {
+            "Trade ID: TR00123456",
+            "Counterparty: Acme Bank",
+            "Currency: USD",
+            "Notional Amount: 5,000,000",
+            "Interest Rate: 4.25%"
+    };
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testSmallPdfParsesFromPooledBuffer() throws IOException {
+        Path file = writePdf("small.pdf", 0);
+        assertTrue(Files.size(file) <= MappedFileSource.POOLED_BUFFER_BYTES);
+
+        Map<String, String> fields = extract(file, true);
+        assertExpectedFields(fields);
+        assertEquals(extract(file, false), fields);
+    }
+
+    @Test
+    void testLargePdfParsesFromMappedFile() throws IOException {
+        // Incompressible padding pushes the file past the pooled buffer size
+        Path file = writePdf("large.pdf", 2 * MappedFileSource.POOLED_BUFFER_BYTES);
+        assertTrue(Files.size(file) > MappedFileSource.POOLED_BUFFER_BYTES);
+
+        Map<String, String> fields = extract(file, true);
+        assertExpectedFields(fields);
+        assertEquals(extract(file, false), fields);
+    }
+
+    private Map<String, String> extract(Path file, boolean memoryMapped) {
+        TradeAgreement agreement = new TradeAgreement(file.toString(), memoryMapped);
+        agreement.ensureExtracted();
+        return agreement.getExtractedFields();
+    }
+
+    private void assertExpectedFields(Map<String, String> fields) {
+        assertEquals("TR00123456", fields.get("tradeId"));
+        assertEquals("USD", fields.get("currency"));
+        assertEquals("5,000,000", fields.get("notionalAmount"));
+        assertEquals("4.25%", fields.get("interestRate"));
+    }
+
+    private Path writePdf(String name, int paddingBytes) throws IOException {
+        Path file = tempDir.resolve(name);
+        try (PDDocument document = new PDDocument()) {
+            PDPage page = new PDPage();
+            document.addPage(page);
+            try (PDPageContentStream content = new PDPageContentStream(document, page)) {
+                content.beginText();
+                content.setFont(PDType1Font.HELVETICA, 12);
+                content.newLineAtOffset(72, 720);
+                for (String line : LINES) {
+                    content.showText(line);
+                    content.newLineAtOffset(0, -16);
+                }
+                content.endText();
+            }
+            if (paddingBytes > 0) {
+                byte[] padding = new byte[paddingBytes];
+                new Random(42).nextBytes(padding);
+                page.setMetadata(new PDMetadata(document, new ByteArrayInputStream(padding)));
+            }
+            document.save(file.toFile());
+        }
+        return file;
+    }
+}
\ No newline at end of file
@@ -57,6 +57,11 @@ class AIDocumentServiceTest {
         assertTrue(complexEntities.containsKey("tradeId"));
         assertTrue(complexEntities.containsKey("counterparty"));
         assertTrue(complexEntities.containsKey("tradeDate"));
+        assertEquals("XYZ789", complexEntities.get("tradeId"));
+        assertEquals("Acme Corp", complexEntities.get("counterparty"));
+        assertEquals("USD", complexEntities.get("currency"));
+        assertEquals("$500,000", complexEntities.get("notionalAmount"));
+        assertEquals("5.25%", complexEntities.get("interestRate"));
     }
 
     @Test
@@ -75,33 +80,26 @@ class AIDocumentServiceTest {
         // Verify that new fields were added
         assertNotNull(document.getField("counterparty"));
         assertNotNull(document.getField("tradeDate"));
-        assertEquals("Acme", document.getField("counterparty"));
+        assertEquals("Acme Corp", document.getField("counterparty"));
         assertEquals("2023-01-15", document.getField("tradeDate"));
         
         // Verify that existing fields were not overwritten
         assertEquals("ABC123", document.getField("tradeId"));
+        
+        // The raw text is consumed once
+        assertNull(document.getRawText());
     }
     
     // Test implementation of TradeDocument for testing
     private static class TestTradeDocument extends TradeDocument {
-        private String rawText;
         
         public TestTradeDocument() {
             super();
         }
         
-        public void setRawText(String rawText) {
-            this.rawText = rawText;
-        }
-        
         @Override
         public void extractFields() {
             // Do nothing for test
         }
-        
-        @Override
-        public String toString() {
-            return rawText;
-        }
     }
 }
\ No newline at end of file
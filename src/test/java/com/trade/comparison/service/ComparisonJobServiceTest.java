@@ -0,0 +1,100 @@
+package com.trade.comparison.service;
+
+import com.trade.comparison.model.ComparisonJob;
+import org.json.JSONObject;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for ComparisonJobService
+ */
+class ComparisonJobServiceTest {
+
+    private ComparisonJobService comparisonJobService;
+
+    @TempDir
+    Path tempDir;
+
+    @BeforeEach
+    void setUp() {
+        comparisonJobService = new ComparisonJobService(new DocumentService(), 1, 10, 60_000, 1000);
+    }
+
+    @AfterEach
+    void tearDown() {
+        comparisonJobService.shutdown();
+    }
+
+    @Test
+    void testReconciliationJobStreamsSummary() throws IOException {
+        Path agreementsDir = Files.createDirectory(tempDir.resolve("agreements"));
+        Path termsheetsDir = Files.createDirectory(tempDir.resolve("termsheets"));
+        Files.writeString(agreementsDir.resolve("agreement1.pdf"), "Sample PDF content");
+        Files.writeString(termsheetsDir.resolve("termsheet1.xlsx"), "Sample Excel content");
+
+        ComparisonJob job = comparisonJobService.submitReconciliation(agreementsDir.toString(), termsheetsDir.toString());
+        assertSame(job, comparisonJobService.getJob(job.getId()));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        comparisonJobService.streamResults(job, out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(1, lines.length);
+        JSONObject summary = new JSONObject(lines[0]);
+        assertEquals("summary", summary.getString("type"));
+        assertEquals(2, summary.getInt("orphanedCount"));
+
+        assertEquals(ComparisonJob.Status.COMPLETED, job.getStatus());
+        @SuppressWarnings("unchecked")
+        Map<String, Object> progress = (Map<String, Object>) job.getStatusMap().get("progress");
+        assertEquals(2, progress.get("documentsTotal"));
+        assertEquals(2, progress.get("documentsLoaded"));
+    }
+
+    @Test
+    void testFailedJobEndsStreamWithError() throws IOException {
+        ComparisonJob job = comparisonJobService.submitComparison(
+                tempDir.resolve("missing.pdf").toString(), tempDir.resolve("missing.xlsx").toString());
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        comparisonJobService.streamResults(job, out);
+
+        JSONObject error = new JSONObject(out.toString(StandardCharsets.UTF_8).trim());
+        assertEquals("error", error.getString("type"));
+        assertTrue(error.getString("error").contains("Trade agreement file not found"));
+        assertEquals(ComparisonJob.Status.FAILED, job.getStatus());
+    }
+
+    @Test
+    void testFinishedJobsExpireWithoutNewSubmissions() throws Exception {
+        ComparisonJobService shortRetention = new ComparisonJobService(new DocumentService(), 1, 10, 1, 1000);
+        try {
+            ComparisonJob job = shortRetention.submitComparison(
+                    tempDir.resolve("missing.pdf").toString(), tempDir.resolve("missing.xlsx").toString());
+            long deadline = System.currentTimeMillis() + 5000;
+            while (shortRetention.getJob(job.getId()) != null && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+            assertTrue(job.isFinished());
+            assertNull(shortRetention.getJob(job.getId()));
+        } finally {
+            shortRetention.shutdown();
+        }
+    }
+
+    @Test
+    void testUnknownJob() {
+        assertNull(comparisonJobService.getJob("no-such-job"));
+    }
+}
\ No newline at end of file
@@ -0,0 +1,52 @@
+package com.trade.comparison.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for CounterpartyResolver
+ */
+class CounterpartyResolverTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testNormalizesSuffixesAndAbbreviations() {
+        assertEquals("acme financial services", CounterpartyResolver.normalize("ACME Fin. Svcs Ltd"));
+        assertEquals("international bank east", CounterpartyResolver.normalize("Int'l Bk of the East & Co."));
+    }
+
+    @Test
+    void testResolvesAliasesToCanonicalId() throws IOException {
+        Path reference = Files.writeString(tempDir.resolve("counterparties.csv"),
+                "# id,name\n" +
+                "CP-0001,Acme Financial Services Ltd\n" +
+                "CP-0001,AFS\n" +
+                "CP-0002,EuroBank AG\n");
+        CounterpartyResolver resolver = new CounterpartyResolver(reference.toString(), 0.8);
+
+        assertEquals("CP-0001", resolver.resolve("ACME Fin. Svcs Ltd"));
+        assertEquals("CP-0001", resolver.resolve("AFS"));
+        assertEquals("CP-0001", resolver.resolve("Acme Financial Service"));
+        assertEquals("CP-0002", resolver.resolve("Euro Bank AG"));
+        assertNull(resolver.resolve("Globex Corporation"));
+
+        assertEquals(1.0, resolver.getSimilarity("Acme Financial Services", "AFS"), 0.0001);
+        assertEquals(0.0, resolver.getSimilarity("Acme Financial Services", "EuroBank"), 0.0001);
+    }
+
+    @Test
+    void testComparesNormalizedNamesWithoutReferenceData() {
+        CounterpartyResolver resolver = new CounterpartyResolver();
+
+        assertEquals(1.0, resolver.getSimilarity("Acme Financial Services", "ACME Fin. Svcs Ltd"), 0.0001);
+        assertTrue(resolver.getSimilarity("Globex Corp", "Initech LLC") < 0.5);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,50 @@
+package com.trade.comparison.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for CpuWorkLimiter
+ */
+class CpuWorkLimiterTest {
+
+    @Test
+    void testConcurrencyIsCapped() throws Exception {
+        CpuWorkLimiter limiter = new CpuWorkLimiter(2);
+        AtomicInteger active = new AtomicInteger();
+        AtomicInteger maxActive = new AtomicInteger();
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<Integer>> futures = new ArrayList<>();
+            for (int i = 0; i < 20; i++) {
+                int task = i;
+                futures.add(executor.submit(() -> limiter.run(() -> {
+                    maxActive.accumulateAndGet(active.incrementAndGet(), Math::max);
+                    LockSupport.parkNanos(5_000_000);
+                    active.decrementAndGet();
+                    return task;
+                })));
+            }
+            for (Future<Integer> future : futures) {
+                assertNotNull(future.get());
+            }
+        }
+
+        assertTrue(maxActive.get() <= 2, "At most two operations should run at once");
+        assertEquals(0, limiter.getStats().get("inUse"));
+    }
+
+    @Test
+    void testDefaultsToAvailableProcessors() {
+        assertEquals(Runtime.getRuntime().availableProcessors(), new CpuWorkLimiter().getPermits());
+    }
+}
\ No newline at end of file
@@ -1,19 +1,29 @@
 package com.trade.comparison.service;
 
 import com.trade.comparison.model.DocumentComparison;
+import com.trade.comparison.model.ReconciliationSummary;
 import com.trade.comparison.model.TermSheet;
 import com.trade.comparison.model.TradeAgreement;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.io.TempDir;
-import org.mockito.InjectMocks;
-import org.mockito.MockitoAnnotations;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -22,7 +32,32 @@ import static org.junit.jupiter.api.Assertions.*;
  */
 class DocumentServiceTest {
 
-    @InjectMocks
+    /**
+     * Agreement text long enough to be fingerprinted, without a trade ID
+     */
+    private static final String[] AGREEMENT_TERMS = {
+            "Counterparty: Acme Bank",
+            "Currency: USD",
+            "Notional Amount: 5,000,000",
+            "Interest Rate: 4.25%",
+            "The parties agree that this confirmation supplements and forms part of",
+            "the master agreement between them. Payments are made on each payment date",
+            "in the currency stated above, calculated on the notional amount at the",
+            "interest rate stated above. Either party may terminate early on an event",
+            "of default, and all amounts due are then netted and settled in cash.",
+            "Each party represents that it has the capacity and authority to enter",
+            "into this transaction, that it acts for its own account, and that it has",
+            "not relied on any advice from the other party. Notices are given in",
+            "writing to the addresses set out in the schedule and take effect on",
+            "receipt. Business days follow the calendars of London and New York, and",
+            "any date falling on a holiday is adjusted to the following business day",
+            "unless that day falls in the next month, in which case it is adjusted",
+            "to the preceding business day. The calculation agent determines all",
+            "amounts in good faith and in a commercially reasonable manner, and its",
+            "determinations are binding in the absence of manifest error.",
+            "This confirmation is governed by the laws of England and Wales."
+    };
+
     private DocumentService documentService;
     
     @TempDir
@@ -33,7 +68,7 @@ class DocumentServiceTest {
     
     @BeforeEach
     void setUp() throws IOException {
-        MockitoAnnotations.openMocks(this);
+        documentService = new DocumentService();
         
         // Create test directories
         agreementsDir = tempDir.resolve("agreements");
@@ -88,4 +123,161 @@ class DocumentServiceTest {
         
         assertTrue(exception.getMessage().contains("Folder does not exist"));
     }
+    
+    @Test
+    void testReconcileFoldersReportsDocumentsWithoutTradeIdAsOrphaned() throws IOException {
+        ReconciliationSummary summary = documentService.reconcileFolders(agreementsDir.toString(), termsheetsDir.toString());
+        
+        assertEquals(2, summary.getTotalTradeAgreements());
+        assertEquals(2, summary.getTotalTermSheets());
+        assertTrue(summary.getMatched().isEmpty());
+        assertEquals(4, summary.getOrphanedDocuments().size());
+        assertTrue(summary.getUnmatchedTradeAgreements().isEmpty());
+        assertTrue(summary.getUnmatchedTermSheets().isEmpty());
+    }
+    
+    @Test
+    void testReconcileFoldersPairsDocumentsByTradeId() throws IOException {
+        Path agreements = Files.createDirectory(tempDir.resolve("batch-agreements"));
+        Path termSheets = Files.createDirectory(tempDir.resolve("batch-termsheets"));
+        Path matchedAgreement = writeAgreement(agreements.resolve("a1.pdf"),
+                "Trade ID: TR-001", "Counterparty: Acme Bank", "Notional Amount: 5,000,000");
+        Path unmatchedAgreement = writeAgreement(agreements.resolve("a2.pdf"),
+                "Trade ID: TR002", "Counterparty: Globex", "Notional Amount: 2,000,000");
+        Path orphanedAgreement = writeAgreement(agreements.resolve("a3.pdf"), "Counterparty: Initech");
+        // Differs from the agreement's trade ID only in case and separators
+        Path matchedTermSheet = writeTermSheet(termSheets.resolve("t1.xlsx"),
+                "Trade ID", "tr 001", "Counterparty", "Acme Bank", "Notional", "5000000");
+        Path unmatchedTermSheet = writeTermSheet(termSheets.resolve("t3.xlsx"),
+                "Trade ID", "TR003", "Counterparty", "Umbrella", "Notional", "3000000");
+        
+        ReconciliationSummary summary = documentService.reconcileFolders(agreements.toString(), termSheets.toString());
+        
+        assertEquals(3, summary.getTotalTradeAgreements());
+        assertEquals(2, summary.getTotalTermSheets());
+        assertEquals(1, summary.getMatched().size());
+        DocumentComparison comparison = summary.getMatched().get(0);
+        assertEquals(matchedAgreement.toFile(), new File(comparison.getTradeAgreement().getFilePath()));
+        assertEquals(matchedTermSheet.toFile(), new File(comparison.getTermSheet().getFilePath()));
+        assertEquals(1.0, comparison.getComparisonResults().get("tradeId").getSimilarityScore(), 0.001);
+        
+        assertEquals(List.of(unmatchedAgreement.toFile()), toFiles(summary.getUnmatchedTradeAgreements()));
+        assertEquals(List.of(unmatchedTermSheet.toFile()), toFiles(summary.getUnmatchedTermSheets()));
+        assertEquals(List.of(orphanedAgreement.toFile()), toFiles(summary.getOrphanedDocuments()));
+        assertTrue(summary.getDuplicateDocuments().isEmpty());
+    }
+    
+    @Test
+    void testReconcileFoldersComparesEachTradeOnce() throws IOException {
+        Path agreements = Files.createDirectory(tempDir.resolve("dup-agreements"));
+        Path termSheets = Files.createDirectory(tempDir.resolve("dup-termsheets"));
+        String[] withTradeId = new String[AGREEMENT_TERMS.length + 1];
+        withTradeId[0] = "Trade ID: TR001";
+        System.arraycopy(AGREEMENT_TERMS, 0, withTradeId, 1, AGREEMENT_TERMS.length);
+        Path original = writeAgreement(agreements.resolve("a1.pdf"), withTradeId);
+        Path copy = Files.copy(original, agreements.resolve("a1 (copy).pdf"));
+        assertTrue(copy.toFile().setLastModified(original.toFile().lastModified() - 60_000));
+        // Re-sent by another tool without the trade ID line
+        Path resent = writeAgreement(agreements.resolve("a1-resent.pdf"), AGREEMENT_TERMS);
+        Path oldRevision = writeTermSheet(termSheets.resolve("t1-v1.xlsx"),
+                "Trade ID", "TR001", "Counterparty", "Acme Bank", "Notional", "4000000");
+        Path newRevision = writeTermSheet(termSheets.resolve("t1-v2.xlsx"),
+                "Trade ID", "TR001", "Counterparty", "Acme Bank", "Notional", "5000000");
+        assertTrue(oldRevision.toFile().setLastModified(newRevision.toFile().lastModified() - 60_000));
+        
+        AtomicInteger listed = new AtomicInteger();
+        List<DocumentComparison> compared = Collections.synchronizedList(new ArrayList<>());
+        ReconciliationSummary summary = documentService.reconcileFolders(agreements.toString(), termSheets.toString(),
+                new DocumentService.ReconciliationListener() {
+                    @Override
+                    public void onDocumentsListed(int documentCount) {
+                        listed.set(documentCount);
+                    }
+                    
+                    @Override
+                    public void onComparisonCompleted(DocumentComparison comparison) {
+                        compared.add(comparison);
+                    }
+                });
+        
+        assertEquals(3, summary.getTotalTradeAgreements());
+        assertEquals(2, summary.getTotalTermSheets());
+        // The identical copy is dropped before any document is loaded
+        assertEquals(4, listed.get());
+        assertEquals(3, summary.getDuplicateDocuments().size());
+        assertDuplicate(summary, copy, original, ReconciliationSummary.DuplicateReason.IDENTICAL);
+        assertDuplicate(summary, oldRevision, newRevision, ReconciliationSummary.DuplicateReason.SUPERSEDED);
+        assertDuplicate(summary, resent, original, ReconciliationSummary.DuplicateReason.NEAR_DUPLICATE);
+        
+        assertEquals(1, compared.size());
+        assertEquals(compared, summary.getMatched());
+        assertEquals(original.toFile(), new File(compared.get(0).getTradeAgreement().getFilePath()));
+        assertEquals(newRevision.toFile(), new File(compared.get(0).getTermSheet().getFilePath()));
+        assertTrue(summary.getOrphanedDocuments().isEmpty());
+        assertTrue(summary.getUnmatchedTradeAgreements().isEmpty());
+        assertTrue(summary.getUnmatchedTermSheets().isEmpty());
+    }
+    
+    @Test
+    void testReconcileFoldersWithInvalidFolder() {
+        Exception exception = assertThrows(IOException.class, () -> {
+            documentService.reconcileFolders(tempDir.resolve("non_existent_folder").toString(), termsheetsDir.toString());
+        });
+        
+        assertTrue(exception.getMessage().contains("Folder does not exist"));
+    }
+    
+    private static void assertDuplicate(ReconciliationSummary summary, Path duplicate, Path kept,
+                                        ReconciliationSummary.DuplicateReason reason) {
+        ReconciliationSummary.DuplicateDocument document = summary.getDuplicateDocuments().stream()
+                .filter(candidate -> new File(candidate.getFilePath()).equals(duplicate.toFile()))
+                .findFirst()
+                .orElseThrow(() -> new AssertionError("Not reported as a duplicate: " + duplicate));
+        assertEquals(kept.toFile(), new File(document.getDuplicateOf()));
+        assertEquals(reason, document.getReason());
+    }
+    
+    private static List<File> toFiles(List<String> paths) {
+        return paths.stream().map(File::new).toList();
+    }
+    
+    /**
+     * Writes a one-page trade agreement PDF with one line of text per argument
+     */
+    private static Path writeAgreement(Path file, String... lines) throws IOException {
+        try (PDDocument document = new PDDocument()) {
+            PDPage page = new PDPage();
+            document.addPage(page);
+            try (PDPageContentStream content = new PDPageContentStream(document, page)) {
+                content.beginText();
+                content.setFont(PDType1Font.HELVETICA, 10);
+                content.newLineAtOffset(72, 720);
+                for (String line : lines) {
+                    content.showText(line);
+                    content.newLineAtOffset(0, -14);
+                }
+                content.endText();
+            }
+            document.save(file.toFile());
+        }
+        return file;
+    }
+    
+    /**
+     * Writes a term sheet workbook with one key/value row per pair of arguments
+     */
+    private static Path writeTermSheet(Path file, String... keysAndValues) throws IOException {
+        try (XSSFWorkbook workbook = new XSSFWorkbook()) {
+            Sheet sheet = workbook.createSheet("Term Sheet");
+            for (int i = 0; i + 1 < keysAndValues.length; i += 2) {
+                Row row = sheet.createRow(i / 2);
+                row.createCell(0).setCellValue(keysAndValues[i]);
+                row.createCell(1).setCellValue(keysAndValues[i + 1]);
+            }
+            try (OutputStream out = Files.newOutputStream(file)) {
+                workbook.write(out);
+            }
+        }
+        return file;
+    }
 }
\ No newline at end of file
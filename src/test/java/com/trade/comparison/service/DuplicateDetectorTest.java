@@ -0,0 +1,91 @@
+package com.trade.comparison.service;
+
+import com.trade.comparison.model.TradeAgreement;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for DuplicateDetector
+ */
+class DuplicateDetectorTest {
+
+    private static final String AGREEMENT_TEXT = "Trade Agreement between Acme Corp and Globex Bank. "
+            + "Trade ID: TR001. Trade Date: 2023-01-15. Notional Amount: USD 1,000,000. "
+            + "Interest Rate: 5.25% fixed, paid quarterly. Maturity Date: 2028-01-15. "
+            + "Governing law: England and Wales. Settlement through the usual correspondent accounts.";
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testFindsIdenticalFilesAndKeepsLatest() throws IOException {
+        File original = Files.writeString(tempDir.resolve("agreement.pdf"), "Sample PDF content").toFile();
+        File copy = Files.writeString(tempDir.resolve("agreement-resent.pdf"), "Sample PDF content").toFile();
+        File sameSize = Files.writeString(tempDir.resolve("other.pdf"), "Sample PDF CONTENT").toFile();
+        assertTrue(original.setLastModified(1_000_000L));
+        assertTrue(copy.setLastModified(2_000_000L));
+
+        Map<String, String> identical = new DuplicateDetector().findIdenticalFiles(
+                Arrays.asList(original.getPath(), copy.getPath(), sameSize.getPath()));
+
+        assertEquals(1, identical.size());
+        assertEquals(copy.getPath(), identical.get(original.getPath()));
+    }
+
+    @Test
+    void testNearDuplicateText() {
+        DuplicateDetector detector = new DuplicateDetector();
+        long original = DuplicateDetector.simHash(AGREEMENT_TEXT);
+        long reformatted = DuplicateDetector.simHash(AGREEMENT_TEXT.toUpperCase().replace(". ", ".\n"));
+        long different = DuplicateDetector.simHash("Term sheet for Initech, trade TR042 dated 2024-06-30, "
+                + "notional EUR 250,000 floating rate, maturity 2026-06-30, governed by New York law.");
+
+        assertEquals(original, reformatted);
+        assertTrue(detector.isNearDuplicate(original, reformatted));
+        assertFalse(detector.isNearDuplicate(original, different));
+        assertFalse(detector.isNearDuplicate(0L, 0L));
+    }
+
+    @Test
+    void testNearDuplicatesShareABand() {
+        DuplicateDetector detector = new DuplicateDetector(3);
+        long simHash = DuplicateDetector.simHash(AGREEMENT_TEXT);
+        long flipped = simHash ^ (1L << 3) ^ (1L << 20) ^ (1L << 40);
+
+        long[] bands = detector.simHashBands(simHash);
+        long[] flippedBands = detector.simHashBands(flipped);
+        boolean shared = false;
+        for (int i = 0; i < bands.length; i++) {
+            shared |= bands[i] == flippedBands[i];
+        }
+        assertTrue(shared);
+    }
+
+    @Test
+    void testDocumentWithoutTextHasNoFingerprint() {
+        TradeAgreement agreement = new TradeAgreement("missing.pdf");
+        agreement.addField("tradeId", "TR001");
+        assertEquals(0L, new DuplicateDetector().simHash(agreement));
+    }
+
+    @Test
+    void testDocumentFingerprintedFromRawText() {
+        TradeAgreement agreement = new TradeAgreement("agreement.pdf");
+        agreement.setRawText(AGREEMENT_TEXT);
+        assertEquals(DuplicateDetector.simHash(AGREEMENT_TEXT), new DuplicateDetector().simHash(agreement));
+
+        // Too few words to fingerprint reliably
+        TradeAgreement shortText = new TradeAgreement("short.pdf");
+        shortText.setRawText("Trade ID: TR001. Counterparty: Acme Corp.");
+        assertEquals(0L, new DuplicateDetector().simHash(shortText));
+    }
+}
\ No newline at end of file
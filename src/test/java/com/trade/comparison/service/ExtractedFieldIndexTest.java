@@ -0,0 +1,134 @@
+package com.trade.comparison.service;
+
+import com.trade.comparison.model.FieldStore;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for ExtractedFieldIndex
+ */
+class ExtractedFieldIndexTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testIndexSurvivesRestart() throws IOException {
+        Path indexDir = tempDir.resolve("index");
+        File file = Files.writeString(tempDir.resolve("agreement.pdf"), "content").toFile();
+
+        ExtractedFieldIndex index = new ExtractedFieldIndex(indexDir.toString());
+        index.record(file, file.length(), file.lastModified(), Map.of("tradeId", "TR00123456"));
+        index.close();
+
+        ExtractedFieldIndex reloaded = new ExtractedFieldIndex(indexDir.toString());
+        assertTrue(reloaded.isCurrent(file));
+        assertEquals("TR00123456", reloaded.lookup(file).get("tradeId"));
+        reloaded.close();
+    }
+
+    @Test
+    void testSimHashIsPersistedWithFields() throws IOException {
+        Path indexDir = tempDir.resolve("index");
+        File file = Files.writeString(tempDir.resolve("agreement.pdf"), "content").toFile();
+        FieldStore fields = new FieldStore(Map.of("tradeId", "TR00123456"));
+        fields.setSimHash(0x5deece66dL);
+
+        ExtractedFieldIndex index = new ExtractedFieldIndex(indexDir.toString());
+        index.record(file, file.length(), file.lastModified(), fields);
+        index.close();
+
+        ExtractedFieldIndex reloaded = new ExtractedFieldIndex(indexDir.toString());
+        assertEquals(0x5deece66dL, ((FieldStore) reloaded.lookup(file)).getSimHash());
+        reloaded.close();
+    }
+
+    @Test
+    void testTouchedFileWithSameContentIsReused() throws IOException {
+        File file = Files.writeString(tempDir.resolve("agreement.pdf"), "content").toFile();
+        ExtractedFieldIndex index = new ExtractedFieldIndex();
+        index.record(file, file.length(), file.lastModified(), Map.of("tradeId", "TR00123456"));
+
+        assertTrue(file.setLastModified(file.lastModified() + 5000));
+        assertFalse(index.isCurrent(file));
+        assertEquals("TR00123456", index.lookup(file).get("tradeId"));
+        assertTrue(index.isCurrent(file));
+    }
+
+    @Test
+    void testChangedFileIsNotReused() throws IOException {
+        File file = Files.writeString(tempDir.resolve("agreement.pdf"), "content").toFile();
+        ExtractedFieldIndex index = new ExtractedFieldIndex();
+        index.record(file, file.length(), file.lastModified(), Map.of("tradeId", "TR00123456"));
+
+        Files.writeString(file.toPath(), "CONTENT");
+        assertTrue(file.setLastModified(file.lastModified() + 5000));
+
+        assertNull(index.lookup(file));
+    }
+
+    @Test
+    void testIdenticalCopyIsFoundByItsHash() throws IOException {
+        File original = Files.writeString(tempDir.resolve("agreement.pdf"), "content").toFile();
+        File copy = Files.writeString(tempDir.resolve("agreement (copy).pdf"), "content").toFile();
+        ExtractedFieldIndex index = new ExtractedFieldIndex();
+        String originalHash = index.contentHash(original, original.length(), original.lastModified());
+        index.record(original, original.length(), original.lastModified(), originalHash, Map.of("tradeId", "TR00123456"));
+
+        String copyHash = index.contentHash(copy, copy.length(), copy.lastModified());
+        assertEquals(originalHash, copyHash);
+        assertEquals("TR00123456",
+                index.lookupIdentical(copy, copy.length(), copy.lastModified(), copyHash).get("tradeId"));
+        assertTrue(index.isCurrent(copy));
+        assertNull(index.lookupIdentical(copy, copy.length(), copy.lastModified(), null));
+    }
+
+    @Test
+    void testHashIsNotTakenForAChangedFile() throws IOException {
+        File file = Files.writeString(tempDir.resolve("agreement.pdf"), "content").toFile();
+        long size = file.length();
+        long lastModified = file.lastModified();
+
+        Files.writeString(file.toPath(), "longer content");
+        assertNull(new ExtractedFieldIndex().contentHash(file, size, lastModified));
+    }
+
+    @Test
+    void testIndexedPathsExcludeSiblingFolders() throws IOException {
+        Path folder = Files.createDirectory(tempDir.resolve("ta"));
+        Path sibling = Files.createDirectory(tempDir.resolve("ta2"));
+        File file = Files.writeString(folder.resolve("agreement.pdf"), "content").toFile();
+        File siblingFile = Files.writeString(sibling.resolve("agreement.pdf"), "content").toFile();
+
+        ExtractedFieldIndex index = new ExtractedFieldIndex();
+        index.record(file, file.length(), file.lastModified(), Map.of("tradeId", "TR00123456"));
+        index.record(siblingFile, siblingFile.length(), siblingFile.lastModified(), Map.of("tradeId", "TR00123457"));
+
+        assertEquals(List.of(file.getAbsolutePath()), index.getIndexedPaths(folder.toString()));
+    }
+
+    @Test
+    void testRemovedEntriesStayRemovedAfterRestart() throws IOException {
+        Path indexDir = tempDir.resolve("index");
+        File file = Files.writeString(tempDir.resolve("agreement.pdf"), "content").toFile();
+
+        ExtractedFieldIndex index = new ExtractedFieldIndex(indexDir.toString());
+        index.record(file, file.length(), file.lastModified(), Map.of("tradeId", "TR00123456"));
+        index.remove(file.getAbsolutePath());
+        index.close();
+
+        ExtractedFieldIndex reloaded = new ExtractedFieldIndex(indexDir.toString());
+        assertEquals(0, reloaded.size());
+        assertNull(reloaded.lookup(file));
+        reloaded.close();
+    }
+}
\ No newline at end of file
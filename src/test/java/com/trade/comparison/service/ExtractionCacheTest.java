@@ -0,0 +1,67 @@
+package com.trade.comparison.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for ExtractionCache
+ */
+class ExtractionCacheTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testHitAfterPut() throws IOException {
+        ExtractionCache cache = new ExtractionCache(10);
+        File file = Files.writeString(tempDir.resolve("agreement.pdf"), "content").toFile();
+
+        assertNull(cache.get(file));
+        cache.put(file, file.length(), file.lastModified(), Map.of("tradeId", "TR00123456"));
+
+        Map<String, String> fields = cache.get(file);
+        assertEquals("TR00123456", fields.get("tradeId"));
+        assertEquals(1, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+    }
+
+    @Test
+    void testChangedFileIsInvalidated() throws IOException {
+        ExtractionCache cache = new ExtractionCache(10);
+        File file = Files.writeString(tempDir.resolve("agreement.pdf"), "content").toFile();
+        cache.put(file, file.length(), file.lastModified(), Map.of("tradeId", "TR00123456"));
+
+        Files.writeString(file.toPath(), "revised content");
+        assertTrue(file.setLastModified(file.lastModified() + 1000));
+
+        assertNull(cache.get(file));
+        assertEquals(1, cache.getInvalidationCount());
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void testLeastRecentlyUsedEntryIsEvicted() throws IOException {
+        ExtractionCache cache = new ExtractionCache(2);
+        File first = Files.writeString(tempDir.resolve("first.pdf"), "1").toFile();
+        File second = Files.writeString(tempDir.resolve("second.pdf"), "2").toFile();
+        File third = Files.writeString(tempDir.resolve("third.pdf"), "3").toFile();
+
+        cache.put(first, first.length(), first.lastModified(), Map.of("tradeId", "A"));
+        cache.put(second, second.length(), second.lastModified(), Map.of("tradeId", "B"));
+        cache.get(first);
+        cache.put(third, third.length(), third.lastModified(), Map.of("tradeId", "C"));
+
+        assertEquals(1, cache.getEvictionCount());
+        assertNotNull(cache.get(first));
+        assertNull(cache.get(second));
+        assertNotNull(cache.get(third));
+    }
+}
\ No newline at end of file
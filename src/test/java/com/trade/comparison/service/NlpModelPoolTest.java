@@ -0,0 +1,41 @@
+package com.trade.comparison.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for NlpModelPool
+ */
+class NlpModelPoolTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testMissingModelsLeavePoolNotReady() {
+        NlpModelPool pool = new NlpModelPool(NlpModelPool.Mode.MODEL, tempDir.toString(), 2);
+        pool.load();
+
+        assertFalse(pool.isReady());
+        assertNull(pool.findEntities(Collections.singletonList(new String[] {"Acme", "Corp"})));
+    }
+
+    @Test
+    void testEntityExtractionFallsBackToLabels() {
+        NlpModelPool pool = new NlpModelPool(NlpModelPool.Mode.MODEL, tempDir.toString(), 2);
+        pool.load();
+        AIDocumentService aiDocumentService = new AIDocumentService(pool, null);
+
+        Map<String, String> entities = aiDocumentService.extractEntitiesWithNLP(
+                "Counterparty: Acme Corp\nTrade Date: 2023-01-15");
+        assertEquals("Acme Corp", entities.get("counterparty"));
+        assertEquals("2023-01-15", entities.get("tradeDate"));
+        assertEquals(0L, pool.getStats().get("documents"));
+    }
+}
\ No newline at end of file
@@ -0,0 +1,50 @@
+package com.trade.comparison.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for ShareAccessLimiter
+ */
+class ShareAccessLimiterTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testConcurrencyIsCappedPerShare() throws Exception {
+        ShareAccessLimiter limiter = new ShareAccessLimiter(2);
+        AtomicInteger active = new AtomicInteger();
+        AtomicInteger maxActive = new AtomicInteger();
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<String>> futures = new ArrayList<>();
+            for (int i = 0; i < 20; i++) {
+                String path = tempDir.resolve("agreement" + i + ".pdf").toString();
+                futures.add(executor.submit(() -> limiter.run(path, () -> {
+                    maxActive.accumulateAndGet(active.incrementAndGet(), Math::max);
+                    LockSupport.parkNanos(5_000_000);
+                    active.decrementAndGet();
+                    return path;
+                })));
+            }
+            for (Future<String> future : futures) {
+                assertNotNull(future.get());
+            }
+        }
+
+        assertTrue(maxActive.get() <= 2, "At most two operations should run against the share at once");
+        assertEquals(1, limiter.getStats().size());
+    }
+}
\ No newline at end of file
@@ -0,0 +1,45 @@
+package com.trade.comparison.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for TieredFieldMatcher
+ */
+class TieredFieldMatcherTest {
+
+    @Test
+    void testEqualsIgnoringFormatting() {
+        assertTrue(TieredFieldMatcher.equalsIgnoringFormatting("Acme Corp", "Acme Corp"));
+        assertTrue(TieredFieldMatcher.equalsIgnoringFormatting(" ACME  corp\t", "acme corp"));
+        assertTrue(TieredFieldMatcher.equalsIgnoringFormatting("USD 1,000,000", "usd 1000000"));
+        assertTrue(TieredFieldMatcher.equalsIgnoringFormatting("$500,000", "500000"));
+        assertTrue(TieredFieldMatcher.equalsIgnoringFormatting("£ 250", "250"));
+
+        assertFalse(TieredFieldMatcher.equalsIgnoringFormatting("Acme Corp", "AcmeCorp"));
+        assertFalse(TieredFieldMatcher.equalsIgnoringFormatting("Acme", "Acme Corp"));
+        assertFalse(TieredFieldMatcher.equalsIgnoringFormatting("1000000", "1000001"));
+        assertFalse(TieredFieldMatcher.equalsIgnoringFormatting(null, "Acme"));
+    }
+
+    @Test
+    void testTiersStopAtFirstDecision() {
+        TieredFieldMatcher matcher = new TieredFieldMatcher(new TypedFieldComparator(), new AIDocumentService());
+
+        assertEquals(1.0, matcher.matchWithoutSemantics("counterparty", "ACME Corp", "acme corp"), 0.0001);
+        // Typed tier: the same date written two ways
+        assertEquals(1.0, matcher.matchWithoutSemantics("tradeDate", "2023-01-15", "01/15/2023"), 0.0001);
+        // Left to the semantic tier
+        assertNull(matcher.matchWithoutSemantics("counterparty", "Acme Corp", "Globex Ltd"));
+        assertEquals(0.0, matcher.matchSemantically("counterparty", "Acme Corp", "Globex Ltd"), 0.0001);
+    }
+
+    @Test
+    void testDifferentValuesDoNotMatchWithoutSemanticTier() {
+        TieredFieldMatcher matcher = new TieredFieldMatcher(null, null);
+
+        assertEquals(1.0, matcher.matchWithoutSemantics("counterparty", "Acme  Corp", "acme corp"), 0.0001);
+        assertEquals(0.0, matcher.matchWithoutSemantics("counterparty", "Acme Corp", "Globex Ltd"), 0.0001);
+    }
+}
\ No newline at end of file
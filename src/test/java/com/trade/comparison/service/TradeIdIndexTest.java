@@ -0,0 +1,106 @@
+package com.trade.comparison.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for TradeIdIndex
+ */
+class TradeIdIndexTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testPairsDocumentsByTradeId() {
+        TradeIdIndex index = new TradeIdIndex();
+        index.update("/share/agreements/a1.pdf", fields("TR001", "Acme Corp", "2023-01-15"));
+        index.update("/share/termsheets/t1.xlsx", fields("TR001", "Acme Corp", "2023-01-15"));
+        index.update("/share/agreements/a2.pdf", fields("TR002", "Globex", "2023-02-01"));
+
+        TradeIdIndex.TradeEntry trade = index.get(" TR001 ");
+        assertTrue(trade.isPaired());
+        assertEquals("/share/agreements/a1.pdf", trade.getTradeAgreements().get(0).getPath());
+        assertEquals("/share/termsheets/t1.xlsx", trade.getTermSheets().get(0).getPath());
+
+        assertFalse(index.get("TR002").isPaired());
+        assertNull(index.get("TR999"));
+    }
+
+    @Test
+    void testPairsTradeIdsThatDifferInCaseAndSeparators() {
+        TradeIdIndex index = new TradeIdIndex();
+        index.update("/share/agreements/a1.pdf", fields("TR-001", "Acme Corp", "2023-01-15"));
+        index.update("/share/termsheets/t1.xlsx", fields("tr 001", "Acme Corp", "2023-01-15"));
+
+        assertTrue(index.get("TR001").isPaired());
+        assertEquals(1, index.size());
+    }
+
+    @Test
+    void testDetectsDuplicatesAndConflicts() {
+        TradeIdIndex index = new TradeIdIndex();
+        index.update("/share/a1.pdf", fields("TR001", "Acme Corp", "2023-01-15"));
+        index.update("/share/a1-copy.pdf", fields("TR001", "ACME CORP", "2023-01-15"));
+        index.update("/share/a2.pdf", fields("TR002", "Acme Corp", "2023-01-15"));
+        index.update("/share/a2-amended.pdf", fields("TR002", "Globex", "2023-01-15"));
+
+        TradeIdIndex.TradeEntry duplicate = index.get("TR001");
+        assertTrue(duplicate.hasDuplicates());
+        assertFalse(duplicate.hasConflicts());
+        assertEquals("DUPLICATE", duplicate.toMap().get("status"));
+
+        assertTrue(index.get("TR002").hasConflicts());
+        assertEquals(2, index.getTradesWithIssues().size());
+    }
+
+    @Test
+    void testFollowsReExtractionAndRemoval() {
+        TradeIdIndex index = new TradeIdIndex();
+        index.update("/share/a1.pdf", fields("TR001", "Acme Corp", "2023-01-15"));
+        index.update("/share/a1.pdf", fields("TR002", "Acme Corp", "2023-01-15"));
+
+        assertNull(index.get("TR001"));
+        assertEquals(1, index.get("TR002").getTradeAgreements().size());
+
+        index.update("/share/a1.pdf", null);
+        assertNull(index.get("TR002"));
+        assertEquals(0, index.size());
+    }
+
+    @Test
+    void testBuiltFromExtractedFieldIndex() throws IOException {
+        ExtractedFieldIndex extractedFieldIndex = new ExtractedFieldIndex();
+        File agreement = Files.writeString(tempDir.resolve("agreement.pdf"), "Sample PDF content").toFile();
+        extractedFieldIndex.record(agreement, agreement.length(), agreement.lastModified(),
+                fields("TR001", "Acme Corp", "2023-01-15"));
+
+        TradeIdIndex index = new TradeIdIndex(extractedFieldIndex);
+        assertEquals(1, index.get("TR001").getTradeAgreements().size());
+
+        File termSheet = Files.writeString(tempDir.resolve("termsheet.xlsx"), "Sample Excel content").toFile();
+        extractedFieldIndex.record(termSheet, termSheet.length(), termSheet.lastModified(),
+                fields("TR001", "Acme Corp", "2023-01-15"));
+        assertTrue(index.get("TR001").isPaired());
+
+        extractedFieldIndex.remove(agreement.getAbsolutePath());
+        assertTrue(index.get("TR001").getTradeAgreements().isEmpty());
+    }
+
+    private static Map<String, String> fields(String tradeId, String counterparty, String tradeDate) {
+        Map<String, String> fields = new HashMap<>();
+        fields.put("tradeId", tradeId);
+        fields.put("counterparty", counterparty);
+        fields.put("tradeDate", tradeDate);
+        return fields;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,70 @@
+package com.trade.comparison.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for TypedFieldComparator
+ */
+class TypedFieldComparatorTest {
+
+    private final TypedFieldComparator comparator = new TypedFieldComparator();
+
+    @Test
+    void testAmountsCompareByValue() {
+        assertEquals(1.0, comparator.compare("notionalAmount", "$5,000,000.00", "5000000.0"));
+        assertEquals(1.0, comparator.compare("notionalAmount", "USD 5,000,000", "5000000"));
+        assertEquals(0.0, comparator.compare("notionalAmount", "$5,000,000.00", "5000001"));
+        assertNull(comparator.compare("notionalAmount", "five million", "5000000"));
+    }
+
+    @Test
+    void testRatesCompareInBasisPoints() {
+        assertEquals(0, new BigDecimal("425").compareTo(comparator.parseRateBps("4.25%")));
+        assertEquals(1.0, comparator.compare("interestRate", "4.25%", "4.25"));
+        assertEquals(0.0, comparator.compare("interestRate", "4.25%", "4.50%"));
+    }
+
+    @Test
+    void testSubPercentRatesWithoutSignAreAmbiguous() {
+        assertEquals(1.0, comparator.compare("interestRate", "0.50%", "0.5%"));
+        assertEquals(0.0, comparator.compare("interestRate", "0.50%", "0.75%"));
+        // "0.50" may mean 0.5% or 50%, so it is left to the text comparison
+        assertNull(comparator.parseRateBps("0.50"));
+        assertNull(comparator.compare("interestRate", "0.50%", "0.50"));
+        assertNull(comparator.compare("interestRate", "4.25%", "0.0425"));
+    }
+
+    @Test
+    void testDatesCompareAsCalendarDates() {
+        assertEquals(1.0, comparator.compare("tradeDate", "2025-08-01T00:00", "2025-08-01"));
+        assertEquals(1.0, comparator.compare("maturityDate", "08/01/2026", "2026-08-01"));
+        assertEquals(0.0, comparator.compare("settlementDate", "2025-08-05", "2025-08-06"));
+        assertNull(comparator.compare("tradeDate", "next Tuesday", "2025-08-01"));
+    }
+
+    @Test
+    void testDateToleranceAndDayFirstFormat() {
+        TypedFieldComparator lenient = new TypedFieldComparator(BigDecimal.ONE, BigDecimal.ONE, 1, true);
+
+        assertEquals(1.0, lenient.compare("settlementDate", "2025-08-05", "2025-08-06"));
+        assertEquals(1.0, lenient.compare("maturityDate", "01/08/2026", "2026-08-01"));
+        assertEquals(1.0, lenient.compare("notionalAmount", "1000000.50", "1000001"));
+    }
+
+    @Test
+    void testCurrenciesCompareAsIsoCodes() {
+        assertEquals(1.0, comparator.compare("currency", "usd", "USD"));
+        assertEquals(1.0, comparator.compare("currency", "€", "EUR"));
+        assertEquals(0.0, comparator.compare("currency", "GBP", "EUR"));
+        assertNull(comparator.compare("currency", "XYZW", "EUR"));
+    }
+
+    @Test
+    void testUntypedFieldsAreNotCompared() {
+        assertNull(comparator.compare("counterparty", "Acme", "Acme"));
+    }
+}
\ No newline at end of file
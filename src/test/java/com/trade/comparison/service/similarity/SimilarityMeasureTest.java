@@ -0,0 +1,100 @@
+package com.trade.comparison.service.similarity;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CancellationException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the SimilarityMeasure implementations
+ */
+class SimilarityMeasureTest {
+
+    @Test
+    void testJaccardSimilarity() {
+        SimilarityMeasure measure = new JaccardSimilarity();
+
+        assertEquals(1.0, measure.getSimilarity("Acme Corp", "acme  corp"), 0.001);
+        assertEquals(1.0 / 3.0, measure.getSimilarity("Acme Corp", "Acme Ltd"), 0.001);
+        // Repeated words count once, as in a set
+        assertEquals(0.5, measure.getSimilarity("acme acme corp", "acme"), 0.001);
+        assertEquals(0.0, measure.getSimilarity("John Smith", "Jane Doe"), 0.001);
+        assertEquals(0.0, measure.getSimilarity("", "acme"), 0.001);
+        assertEquals(0.0, measure.getSimilarity(null, "acme"), 0.001);
+        // Words are rescanned in place, so the cost grows with the square of the length
+        assertEquals(150L * 1000 * 1000, measure.estimateCost("a ".repeat(5000), "b ".repeat(5000)));
+    }
+
+    @Test
+    void testLevenshteinSimilarity() {
+        SimilarityMeasure measure = new LevenshteinSimilarity();
+
+        assertEquals(1.0, measure.getSimilarity("TR00123456", "tr00123456"), 0.001);
+        assertEquals(0.8, measure.getSimilarity("Smith", "Smyth"), 0.001);
+        assertEquals(3, LevenshteinSimilarity.distance("kitten", "sitting"));
+    }
+
+    @Test
+    void testInterruptedComputationIsCancelled() {
+        Thread.currentThread().interrupt();
+        try {
+            assertThrows(CancellationException.class,
+                    () -> new LevenshteinSimilarity().getSimilarity("x".repeat(1000), "y".repeat(1000)));
+        } finally {
+            Thread.interrupted();
+        }
+    }
+
+    @Test
+    void testIdentifierSimilarity() {
+        SimilarityMeasure measure = new IdentifierSimilarity();
+
+        assertEquals(1.0, measure.getSimilarity("TR00123456", "tr00123456"), 0.001);
+        assertEquals(1.0, measure.getSimilarity("TR-001 23456", "TR00123456"), 0.001);
+        // A single different character is a different trade
+        assertEquals(0.0, measure.getSimilarity("TR00123456", "TR00123457"), 0.001);
+        assertEquals(0.0, measure.getSimilarity("TR001", "TR0012"), 0.001);
+        assertEquals(0.0, measure.getSimilarity("--", "/"), 0.001);
+    }
+
+    @Test
+    void testIdentifierKeyAgreesWithSimilarity() {
+        assertEquals("TR001", IdentifierSimilarity.key(" tr-001 "));
+        assertEquals(IdentifierSimilarity.key("TR-001"), IdentifierSimilarity.key("tr 0/01"));
+        assertNotEquals(IdentifierSimilarity.key("TR001"), IdentifierSimilarity.key("TR0012"));
+        assertNull(IdentifierSimilarity.key(" - "));
+        assertNull(IdentifierSimilarity.key(null));
+    }
+
+    @Test
+    void testJaroWinklerSimilarity() {
+        SimilarityMeasure measure = new JaroWinklerSimilarity();
+
+        assertEquals(1.0, measure.getSimilarity("EuroBank", "EUROBANK"), 0.001);
+        assertEquals(0.961, measure.getSimilarity("MARTHA", "MARHTA"), 0.001);
+        assertEquals(0.840, measure.getSimilarity("DWAYNE", "DUANE"), 0.001);
+        assertEquals(0.0, measure.getSimilarity("abc", "xyz"), 0.001);
+
+        // Long values take the array-based path and must agree with the bit-mask path
+        String longValue = "London Capital Partners Limited Liability Partnership, Registered Office London";
+        assertEquals(1.0, measure.getSimilarity(longValue, longValue.toUpperCase()), 0.001);
+    }
+
+    @Test
+    void testNumericSimilarity() {
+        SimilarityMeasure measure = new NumericSimilarity();
+
+        assertEquals(1.0, measure.getSimilarity("$5,000,000.00", "5000000.0"), 0.001);
+        assertEquals(1.0, measure.getSimilarity("4.25%", "4.25"), 0.001);
+        // Amounts 10% apart are different amounts
+        assertEquals(0.0, measure.getSimilarity("1000000", "900000"), 0.001);
+        assertEquals(0.0, measure.getSimilarity("5,000,000", "4,000,000"), 0.001);
+        SimilarityMeasure amounts = new NumericSimilarity(new JaccardSimilarity(), 0.01);
+        assertEquals(1.0, amounts.getSimilarity("1,000.10", "1000.09"), 0.001);
+        assertEquals(0.0, amounts.getSimilarity("1,000.10", "1000.08"), 0.001);
+        assertTrue(Double.isNaN(NumericSimilarity.parse("USD")));
+        // Non-numeric values fall back to word overlap
+        assertEquals(1.0, measure.getSimilarity("five million", "Five Million"), 0.001);
+    }
+}
\ No newline at end of file